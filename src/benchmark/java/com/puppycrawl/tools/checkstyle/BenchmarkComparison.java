@@ -0,0 +1,178 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Compares the CSV results of two JMH runs. Results are matched by the
+ * benchmark, including secondary results like those of the GC profiler,
+ * and the values of its parameters. A change is marked as significant if it
+ * is larger than the sum of the errors of both scores.
+ *
+ * @author the original author or authors.
+ */
+final class BenchmarkComparison {
+    /** Prefix of the names of the columns with parameter values. */
+    private static final String PARAM_PREFIX = "Param: ";
+
+    /** Format of the lines of the comparison. */
+    private static final String LINE_FORMAT = "%-90s %14s %14s %9s %s%n";
+
+    /** Prevent instantiation. */
+    private BenchmarkComparison() {
+    }
+
+    /**
+     * Prints the change of the scores of all results present in both runs.
+     * @param baseline the results of the baseline run
+     * @param current the results of the current run
+     * @param out where to print the comparison
+     * @throws IOException if the results cannot be read
+     */
+    static void compare(File baseline, File current, PrintStream out) throws IOException {
+        final Map<String, Result> baselineResults = read(baseline);
+        out.format(Locale.ROOT, LINE_FORMAT, "Name", "Baseline", "Current", "Change", "");
+        for (Result result : read(current).values()) {
+            final Result base = baselineResults.get(result.key);
+            if (base != null) {
+                final double change = (result.score - base.score) / base.score * 100;
+                String mark = "";
+                if (Math.abs(result.score - base.score) > result.error + base.error) {
+                    mark = "*";
+                }
+                out.format(Locale.ROOT, LINE_FORMAT, result.key,
+                    formatScore(base), formatScore(result),
+                    String.format(Locale.ROOT, "%+.1f%%", change), mark);
+            }
+        }
+    }
+
+    /**
+     * Formats the score of a result with its unit.
+     * @param result the result
+     * @return the formatted score
+     */
+    private static String formatScore(Result result) {
+        return String.format(Locale.ROOT, "%.3f %s", result.score, result.unit);
+    }
+
+    /**
+     * Reads the results of a run.
+     * @param file the CSV results
+     * @return the results in the order of the file, keyed by benchmark and parameters
+     * @throws IOException if the file cannot be read
+     */
+    private static Map<String, Result> read(File file) throws IOException {
+        final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        final List<String> header = splitLine(lines.get(0));
+        final int benchmarkColumn = header.indexOf("Benchmark");
+        final int scoreColumn = header.indexOf("Score");
+        final int errorColumn = header.indexOf("Score Error (99.9%)");
+        final int unitColumn = header.indexOf("Unit");
+
+        final Map<String, Result> results = Maps.newLinkedHashMap();
+        for (String line : lines.subList(1, lines.size())) {
+            final List<String> values = splitLine(line);
+            final List<String> key = Lists.newArrayList(values.get(benchmarkColumn));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith(PARAM_PREFIX)) {
+                    key.add(header.get(i).substring(PARAM_PREFIX.length()) + "=" + values.get(i));
+                }
+            }
+            double error = Double.parseDouble(values.get(errorColumn));
+            if (Double.isNaN(error)) {
+                error = 0;
+            }
+            final Result result = new Result(Joiner.on(' ').join(key),
+                Double.parseDouble(values.get(scoreColumn)), error, values.get(unitColumn));
+            results.put(result.key, result);
+        }
+        return results;
+    }
+
+    /**
+     * Splits a line of CSV into its values, removing the quotes.
+     * @param line the line
+     * @return the values
+     */
+    private static List<String> splitLine(String line) {
+        final List<String> values = Lists.newArrayList();
+        final StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char character = line.charAt(i);
+            if (character == '"') {
+                quoted = !quoted;
+            }
+            else if (character == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            }
+            else {
+                value.append(character);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * The score of a benchmark with the values of its parameters.
+     */
+    private static final class Result {
+        /** The benchmark and the values of its parameters. */
+        private final String key;
+
+        /** The score. */
+        private final double score;
+
+        /** The error of the score. */
+        private final double error;
+
+        /** The unit of the score. */
+        private final String unit;
+
+        /**
+         * Creates a new result.
+         * @param key the benchmark and the values of its parameters
+         * @param score the score
+         * @param error the error of the score
+         * @param unit the unit of the score
+         */
+        Result(String key, double score, double error, String unit) {
+            this.key = key;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+}
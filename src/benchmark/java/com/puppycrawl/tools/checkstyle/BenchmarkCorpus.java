@@ -0,0 +1,75 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * The Java sources the benchmarks audit. By default these are the sources
+ * of Checkstyle itself and the inputs of the integration tests, so the
+ * corpus mixes real code with the corner cases the checks are tested with.
+ *
+ * @author the original author or authors.
+ */
+final class BenchmarkCorpus {
+    /** Directories of the default corpus, separated by commas. */
+    static final String DEFAULT_DIRECTORIES = "src/main/java,src/it/resources";
+
+    /** Prevent instantiation. */
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Collects the Java files of directory trees in a stable order.
+     * @param directories the directories, separated by commas
+     * @return the Java files
+     */
+    static List<File> collectJavaFiles(String directories) {
+        final List<File> files = Lists.newArrayList();
+        for (String directory : Splitter.on(',').trimResults().omitEmptyStrings()
+                .split(directories)) {
+            collectJavaFiles(new File(directory), files);
+        }
+        return files;
+    }
+
+    /**
+     * Adds the Java files of a directory tree to a list in a stable order.
+     * @param file file or directory to collect
+     * @param files the list to add the files to
+     */
+    private static void collectJavaFiles(File file, List<File> files) {
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            Arrays.sort(children);
+            for (File child : children) {
+                collectJavaFiles(child, files);
+            }
+        }
+        else if (file.getName().endsWith(".java")) {
+            files.add(file);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Sets;
+import com.google.common.reflect.ClassPath;
+import com.puppycrawl.tools.checkstyle.api.Check;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+
+/**
+ * Runs the benchmarks with the options of the JMH command line, adding the
+ * defaults the benchmarks of Checkstyle are compared with:
+ * <ul>
+ * <li>the allocation rate is measured with the GC profiler,</li>
+ * <li>the results are written as CSV to {@value #DEFAULT_RESULT_FILE},</li>
+ * <li>{@link CheckBenchmark} measures every check of Checkstyle.</li>
+ * </ul>
+ * If the system property {@value #BASELINE_PROPERTY} names the CSV results of
+ * an earlier run, the new results are compared with them. For example:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args=ParserBenchmark
+ * cp target/jmh-result.csv baseline.csv
+ * (change the code)
+ * mvn -Pjmh test-compile exec:exec -Djmh.args=ParserBenchmark -Djmh.baseline=baseline.csv
+ * </pre>
+ *
+ * @author the original author or authors.
+ */
+public final class BenchmarkRunner {
+    /** The file the results are written to, unless given on the command line. */
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.csv";
+
+    /** The system property with the results of the baseline run. */
+    static final String BASELINE_PROPERTY = "checkstyle.benchmark.baseline";
+
+    /** The parameter of {@link CheckBenchmark} with the name of the check. */
+    private static final String CHECK_PARAMETER = "check";
+
+    /** The package of the checks. */
+    private static final String CHECKS_PACKAGE = "com.puppycrawl.tools.checkstyle.checks";
+
+    /** Prevent instantiation. */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args the options of the JMH command line
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException if a benchmark fails
+     * @throws IOException if the checks or the results cannot be read
+     */
+    public static void main(String... args)
+            throws CommandLineOptionException, RunnerException, IOException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.CSV);
+        }
+        final String resultFile = commandLine.getResult().orElse(DEFAULT_RESULT_FILE);
+        options.result(resultFile);
+        if (!commandLine.getParameter(CHECK_PARAMETER).hasValue()) {
+            final Set<String> checks = getCheckNames();
+            options.param(CHECK_PARAMETER, checks.toArray(new String[checks.size()]));
+        }
+        new Runner(options.build()).run();
+
+        final String baseline = System.getProperty(BASELINE_PROPERTY, "");
+        if (!baseline.isEmpty()) {
+            BenchmarkComparison.compare(new File(baseline), new File(resultFile), System.out);
+        }
+    }
+
+    /**
+     * Finds the checks of Checkstyle, which can be created by the simple
+     * names of their classes.
+     * @return the simple class names of the checks, sorted
+     * @throws IOException if the class path cannot be read
+     */
+    private static Set<String> getCheckNames() throws IOException {
+        final Set<String> names = Sets.newTreeSet();
+        final ClassPath classPath =
+            ClassPath.from(Thread.currentThread().getContextClassLoader());
+        for (ClassPath.ClassInfo info : classPath.getTopLevelClassesRecursive(CHECKS_PACKAGE)) {
+            if (info.getSimpleName().endsWith("Check")) {
+                final Class<?> type = info.load();
+                final int modifiers = type.getModifiers();
+                if (Modifier.isPublic(modifiers) && !Modifier.isAbstract(modifiers)
+                        && (Check.class.isAssignableFrom(type)
+                            || FileSetCheck.class.isAssignableFrom(type))) {
+                    names.add(info.getSimpleName());
+                }
+            }
+        }
+        return names;
+    }
+}
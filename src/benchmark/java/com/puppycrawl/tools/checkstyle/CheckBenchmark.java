@@ -0,0 +1,125 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.puppycrawl.tools.checkstyle.api.Check;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.checks.imports.ImportControlCheck;
+
+/**
+ * Measures a single check with its default configuration on a source
+ * corpus. Checks run by a TreeWalker include the time to parse the files,
+ * which {@link TreeWalkerBenchmark} measures on its own with the
+ * {@code none} configuration.
+ * {@link BenchmarkRunner} runs this benchmark for every check of Checkstyle,
+ * otherwise only for the checks given in {@link #check}.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=CheckBenchmark}.
+ *
+ * @author the original author or authors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CheckBenchmark {
+    /** Name of the check to measure. */
+    @Param({"IndentationCheck", "JavadocMethodCheck", "RegexpSinglelineCheck"})
+    private String check;
+
+    /** Directories with the Java sources to audit, separated by commas. */
+    @Param(BenchmarkCorpus.DEFAULT_DIRECTORIES)
+    private String corpus;
+
+    /** Files of the corpus. */
+    private List<File> files;
+
+    /** Checker under measurement. */
+    private Checker checker;
+
+    /**
+     * Collects the corpus files and configures the checker.
+     * @throws CheckstyleException if the check cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws CheckstyleException {
+        files = BenchmarkCorpus.collectJavaFiles(corpus);
+
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            PackageNamesLoader.getPackageNames(classLoader), classLoader);
+        final DefaultConfiguration checkConfig = new DefaultConfiguration(check);
+        final Object module = factory.createModule(check);
+        if (module instanceof ImportControlCheck) {
+            checkConfig.addAttribute("file", "src/test/resources/com/puppycrawl/tools/"
+                + "checkstyle/imports/import-control_complete.xml");
+        }
+
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("Checker");
+        if (module instanceof Check) {
+            final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName());
+            treeWalkerConfig.addChild(checkConfig);
+            checkerConfig.addChild(treeWalkerConfig);
+        }
+        else {
+            checkerConfig.addChild(checkConfig);
+        }
+
+        checker = new Checker();
+        checker.setModuleClassLoader(classLoader);
+        checker.configure(checkerConfig);
+    }
+
+    /** Releases the checker. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        checker.destroy();
+    }
+
+    /**
+     * Audits the whole corpus.
+     * @return the number of errors found
+     * @throws CheckstyleException if the audit fails
+     */
+    @Benchmark
+    public int audit() throws CheckstyleException {
+        return checker.process(files);
+    }
+}
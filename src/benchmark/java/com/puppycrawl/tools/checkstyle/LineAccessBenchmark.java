@@ -0,0 +1,143 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * Measures checks which look at the source line of the tokens they visit
+ * on a single large file. The time of such a check has to grow linearly
+ * with the size of the file; a check which copies all lines for every token
+ * it visits makes the audit of the file quadratic.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=LineAccessBenchmark}.
+ *
+ * @author the original author or authors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LineAccessBenchmark {
+    /** Check to audit the file with. */
+    @Param({"EmptyLineSeparator", "RightCurly", "TrailingComment"})
+    private String check;
+
+    /** Approximate number of lines of the generated file. */
+    @Param("20000")
+    private int lineCount;
+
+    /** The generated file. */
+    private File file;
+
+    /** Checker under measurement. */
+    private Checker checker;
+
+    /**
+     * Generates the file and configures the checker.
+     * @throws IOException if the file cannot be written
+     * @throws CheckstyleException if the checker cannot be configured
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CheckstyleException {
+        file = File.createTempFile("LineAccess", ".java");
+        Files.write(file.toPath(), generateSource(), StandardCharsets.UTF_8);
+
+        final DefaultConfiguration treeWalkerConfig =
+            new DefaultConfiguration(TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(check));
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("Checker");
+        checkerConfig.addChild(treeWalkerConfig);
+
+        checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+    }
+
+    /**
+     * Releases the checker and deletes the file.
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        checker.destroy();
+        Files.delete(file.toPath());
+    }
+
+    /**
+     * Audits the file.
+     * @return the number of errors found
+     * @throws CheckstyleException if the audit fails
+     */
+    @Benchmark
+    public int audit() throws CheckstyleException {
+        return checker.process(Collections.singletonList(file));
+    }
+
+    /**
+     * Generates a class with methods of ten lines each, full of the tokens
+     * the measured checks visit: fields, blocks and trailing comments.
+     * @return the lines of the source
+     */
+    private List<String> generateSource() {
+        final List<String> lines = Lists.newArrayList();
+        lines.add("package benchmark;");
+        lines.add("");
+        lines.add("public class LineAccess {");
+        for (int i = 0; lines.size() < lineCount; i++) {
+            lines.add("    private int field" + i + "; // trailing comment");
+            lines.add("");
+            lines.add("    public int method" + i + "(int value) {");
+            lines.add("        if (value > " + i + ") {");
+            lines.add("            return field" + i + "; // trailing comment");
+            lines.add("        }");
+            lines.add("        else {");
+            lines.add("            return value;");
+            lines.add("        }");
+            lines.add("    }");
+        }
+        lines.add("}");
+        return lines;
+    }
+}
@@ -0,0 +1,131 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import antlr.RecognitionException;
+import antlr.Token;
+import antlr.TokenStreamException;
+
+import com.google.common.collect.Lists;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.grammars.CharSequenceInputBuffer;
+import com.puppycrawl.tools.checkstyle.grammars.GeneratedJavaLexer;
+
+/**
+ * Measures the lexer and the parser generated from {@code java.g} on a
+ * source corpus. The files are read before the measurement, so only the
+ * tokens and the AST are created. Files the grammar cannot parse are left
+ * out of the corpus.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=ParserBenchmark}.
+ *
+ * @author the original author or authors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParserBenchmark {
+    /** Directories with the Java sources to parse, separated by commas. */
+    @Param(BenchmarkCorpus.DEFAULT_DIRECTORIES)
+    private String corpus;
+
+    /** Contents of the files of the corpus. */
+    private final List<FileContents> contents = Lists.newArrayList();
+
+    /**
+     * Reads the files of the corpus which can be parsed.
+     * @throws IOException if a file cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        for (File file : BenchmarkCorpus.collectJavaFiles(corpus)) {
+            final FileContents fileContents =
+                new FileContents(new FileText(file.getAbsoluteFile(), "UTF-8"));
+            try {
+                TreeWalker.parse(fileContents);
+                contents.add(fileContents);
+            }
+            catch (RecognitionException | TokenStreamException ignored) {
+                // the corpus contains inputs with syntax the grammar rejects
+            }
+        }
+    }
+
+    /**
+     * Splits all files into tokens.
+     * @return the number of tokens
+     * @throws TokenStreamException if lexing fails
+     */
+    @Benchmark
+    public int lex() throws TokenStreamException {
+        int count = 0;
+        for (FileContents fileContents : contents) {
+            final GeneratedJavaLexer lexer = new GeneratedJavaLexer(
+                new CharSequenceInputBuffer(fileContents.getText().getFullText()));
+            lexer.setCommentListener(fileContents);
+            lexer.setTreatAssertAsKeyword(true);
+            lexer.setTreatEnumAsKeyword(true);
+            while (lexer.nextToken().getType() != Token.EOF_TYPE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parses all files.
+     * @return the number of top level nodes
+     * @throws RecognitionException if parsing fails
+     * @throws TokenStreamException if lexing fails
+     */
+    @Benchmark
+    public int parse() throws RecognitionException, TokenStreamException {
+        int count = 0;
+        for (FileContents fileContents : contents) {
+            final DetailAST root = TreeWalker.parse(fileContents);
+            if (root != null) {
+                count += root.getNumberOfChildren() + 1;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,122 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * Measures the time {@link TreeWalker} needs to audit a source corpus.
+ * The {@code none} configuration runs a TreeWalker without checks, so the
+ * difference to the other configurations is the cost of notifying checks.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=TreeWalkerBenchmark}.
+ *
+ * @author the original author or authors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TreeWalkerBenchmark {
+    /** Configuration to audit the corpus with. */
+    @Param({"none", "/sun_checks.xml", "/google_checks.xml"})
+    private String config;
+
+    /** Directories with the Java sources to audit, separated by commas. */
+    @Param(BenchmarkCorpus.DEFAULT_DIRECTORIES)
+    private String corpus;
+
+    /** Files of the corpus. */
+    private List<File> files;
+
+    /** Checker under measurement. */
+    private Checker checker;
+
+    /**
+     * Collects the corpus files and configures the checker.
+     * @throws CheckstyleException if the configuration cannot be loaded
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws CheckstyleException {
+        files = BenchmarkCorpus.collectJavaFiles(corpus);
+
+        checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(createConfiguration());
+    }
+
+    /** Releases the checker. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        checker.destroy();
+    }
+
+    /**
+     * Audits the whole corpus.
+     * @return the number of errors found
+     * @throws CheckstyleException if the audit fails
+     */
+    @Benchmark
+    public int walk() throws CheckstyleException {
+        return checker.process(files);
+    }
+
+    /**
+     * Creates the configuration named by {@link #config}.
+     * @return the configuration
+     * @throws CheckstyleException if the configuration cannot be loaded
+     */
+    private Configuration createConfiguration() throws CheckstyleException {
+        final Configuration result;
+        if ("none".equals(config)) {
+            final DefaultConfiguration checkerConfig = new DefaultConfiguration("Checker");
+            checkerConfig.addChild(new DefaultConfiguration(TreeWalker.class.getName()));
+            result = checkerConfig;
+        }
+        else {
+            final Properties properties = new Properties();
+            properties.setProperty("basedir", new File("").getAbsolutePath());
+            result = ConfigurationLoader.loadConfiguration(config,
+                    new PropertiesExpander(properties));
+        }
+        return result;
+    }
+}
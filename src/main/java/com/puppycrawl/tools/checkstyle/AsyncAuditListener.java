@@ -0,0 +1,493 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.beanutils.ConversionException;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * An audit listener which passes the events to another listener on a
+ * dedicated writer thread, so slow I/O of that listener does not hold up
+ * the audit.
+ *
+ * <p>The events are handed over through a bounded queue without locks and
+ * the listener receives them in the order they were fired. Events must be
+ * fired by one thread at a time, as {@link Checker} does. When the queue is
+ * full, the {@link OverflowPolicy} decides whether the audit waits for the
+ * writer thread or drops the error. The audit finishes only when the
+ * listener has received all events. If the listener throws an exception,
+ * it receives no further events and the exception is rethrown from
+ * {@link #auditFinished}.
+ *
+ * <p>As a module of {@link Checker} the listener is its only child module:
+ * <pre>
+ * &lt;module name="AsyncAuditListener"&gt;
+ *   &lt;property name="queueSize" value="4096"/&gt;
+ *   &lt;property name="overflowPolicy" value="discard"/&gt;
+ *   &lt;module name="com.example.DatabaseListener"/&gt;
+ * &lt;/module&gt;
+ * </pre>
+ *
+ * @author the original author or authors.
+ */
+public class AsyncAuditListener
+    extends AutomaticBean
+    implements AuditListener {
+    /** Default number of events the queue holds. */
+    private static final int DEFAULT_QUEUE_SIZE = 8192;
+
+    /** Time to wait for space in a full queue before looking again. */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /** The listener to pass the events to. */
+    private AuditListener listener;
+
+    /** Factory for creating the listener module. */
+    private ModuleFactory moduleFactory;
+
+    /** Number of events the queue holds. */
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    /** What to do when the queue is full. */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /** The queue of the current audit. */
+    private EventQueue queue;
+
+    /** The writer thread of the current audit. */
+    private Thread writer;
+
+    /** The task of the writer thread of the current audit. */
+    private Writer writerTask;
+
+    /** Number of errors dropped because the queue was full. */
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    /** Whether the writer thread waits for events. */
+    private volatile boolean writerWaiting;
+
+    /** The error which terminated the writer thread of the current audit. */
+    private volatile Throwable failure;
+
+    /**
+     * Creates a listener which passes the events to the listener configured
+     * as its child module.
+     */
+    public AsyncAuditListener() {
+        // the listener is set up as child module
+    }
+
+    /**
+     * Creates a listener which passes the events to the given listener.
+     * @param listener the listener to pass the events to
+     */
+    public AsyncAuditListener(AuditListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the module factory for creating the listener module.
+     * @param moduleFactory the factory
+     */
+    public void setModuleFactory(ModuleFactory moduleFactory) {
+        this.moduleFactory = moduleFactory;
+    }
+
+    /**
+     * Sets the number of events the queue holds.
+     * @param queueSize the number of events, rounded up to a power of two
+     */
+    public void setQueueSize(int queueSize) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("queueSize must be positive");
+        }
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Sets what to do when the queue is full.
+     * @param overflowPolicy the policy, block or discard
+     * @throws ConversionException if the policy is unknown
+     */
+    public void setOverflowPolicy(String overflowPolicy) {
+        try {
+            this.overflowPolicy =
+                OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ENGLISH));
+        }
+        catch (IllegalArgumentException ex) {
+            throw new ConversionException("unable to parse " + overflowPolicy, ex);
+        }
+    }
+
+    /**
+     * Returns the number of errors dropped because the queue was full.
+     * @return the number of dropped errors
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    @Override
+    protected void setupChild(Configuration childConf)
+        throws CheckstyleException {
+        final String name = childConf.getName();
+        if (listener != null) {
+            throw new CheckstyleException(
+                "AsyncAuditListener allows only one child module, found " + name);
+        }
+        final Object module = moduleFactory.createModule(name);
+        if (!(module instanceof AuditListener)) {
+            throw new CheckstyleException(
+                "AsyncAuditListener is not allowed as a parent of " + name);
+        }
+        if (module instanceof AutomaticBean) {
+            final DefaultContext context = new DefaultContext();
+            context.add("moduleFactory", moduleFactory);
+            final AutomaticBean bean = (AutomaticBean) module;
+            bean.contextualize(context);
+            bean.configure(childConf);
+        }
+        listener = (AuditListener) module;
+    }
+
+    @Override
+    public void auditStarted(AuditEvent evt) {
+        if (writer != null) {
+            // the previous audit was aborted before it finished, its writer
+            // passes on the events it has and stops
+            writerTask.abandon();
+            LockSupport.unpark(writer);
+            joinWriter();
+            failure = null;
+        }
+        put(new Event(EventType.AUDIT_STARTED, evt, null));
+    }
+
+    @Override
+    public void auditFinished(AuditEvent evt) {
+        put(new Event(EventType.AUDIT_FINISHED, evt, null));
+        joinWriter();
+        final Throwable listenerFailure = failure;
+        failure = null;
+        if (listenerFailure != null) {
+            throw new IllegalStateException("Listener failed", listenerFailure);
+        }
+    }
+
+    @Override
+    public void fileStarted(AuditEvent evt) {
+        put(new Event(EventType.FILE_STARTED, evt, null));
+    }
+
+    @Override
+    public void fileFinished(AuditEvent evt) {
+        put(new Event(EventType.FILE_FINISHED, evt, null));
+    }
+
+    @Override
+    public void addError(AuditEvent evt) {
+        final Event event = new Event(EventType.ERROR, evt, null);
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            put(event);
+        }
+        else if (!offer(event)) {
+            discardedCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void addException(AuditEvent evt, Throwable throwable) {
+        put(new Event(EventType.EXCEPTION, evt, throwable));
+    }
+
+    /**
+     * Queues an event, waiting for space if the queue is full. The event is
+     * dropped if the listener failed, the failure is reported at the end of
+     * the audit.
+     * @param event the event
+     */
+    private void put(Event event) {
+        while (!offer(event) && writer.isAlive()) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * Queues an event if there is space and wakes up the writer thread.
+     * The writer thread is started with the first event of an audit.
+     * @param event the event
+     * @return whether the event was queued
+     */
+    private boolean offer(Event event) {
+        if (writer == null) {
+            startWriter();
+        }
+        final boolean queued = queue.offer(event);
+        if (queued && writerWaiting) {
+            LockSupport.unpark(writer);
+        }
+        return queued;
+    }
+
+    /** Creates the queue and starts the writer thread of an audit. */
+    private void startWriter() {
+        queue = new EventQueue(queueSize);
+        writerTask = new Writer(queue);
+        writer = new Thread(writerTask, "checkstyle-listener");
+        writer.setDaemon(true);
+        writer.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread thread, Throwable error) {
+                failure = error;
+            }
+        });
+        writer.start();
+    }
+
+    /** Waits until the writer thread of the current audit has stopped. */
+    private void joinWriter() {
+        try {
+            writer.join();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the listener", ex);
+        }
+        finally {
+            writer = null;
+            writerTask = null;
+            queue = null;
+        }
+    }
+
+    /**
+     * Passes the events of a queue to the listener until the audit is
+     * finished or, for an aborted audit, until the queue is abandoned and
+     * empty.
+     */
+    private final class Writer implements Runnable {
+        /** The events to pass on. */
+        private final EventQueue events;
+
+        /** Whether no more events are put into the queue. */
+        private volatile boolean abandoned;
+
+        /**
+         * Creates a new writer.
+         * @param events the events to pass on
+         */
+        Writer(EventQueue events) {
+            this.events = events;
+        }
+
+        /**
+         * Tells the writer that no more events are put into its queue. The
+         * thread putting the events unparks the writer afterwards.
+         */
+        void abandon() {
+            abandoned = true;
+        }
+
+        @Override
+        public void run() {
+            boolean finished = false;
+            while (!finished) {
+                final Event event = take();
+                if (event == null) {
+                    finished = true;
+                }
+                else {
+                    event.fire(listener);
+                    finished = event.type == EventType.AUDIT_FINISHED;
+                }
+            }
+        }
+
+        /**
+         * Takes the next event, waiting until there is one.
+         * @return the event, null if the queue is abandoned and empty
+         */
+        private Event take() {
+            Event event = events.poll();
+            while (event == null && !abandoned) {
+                writerWaiting = true;
+                event = events.poll();
+                if (event == null && !abandoned) {
+                    LockSupport.park(this);
+                    event = events.poll();
+                }
+                writerWaiting = false;
+            }
+            return event;
+        }
+    }
+
+    /**
+     * A bounded ring of events for one producer and one consumer thread.
+     * Each side only advances its own index, so no locks are needed.
+     */
+    private static final class EventQueue {
+        /** The slots of the ring. */
+        private final AtomicReferenceArray<Event> slots;
+
+        /** Mask for the index of a slot, the number of slots is a power of two. */
+        private final int mask;
+
+        /** Number of events taken so far. */
+        private final AtomicLong head = new AtomicLong();
+
+        /** Number of events put so far. */
+        private final AtomicLong tail = new AtomicLong();
+
+        /**
+         * Creates a new queue.
+         * @param capacity the least number of events the queue holds
+         */
+        EventQueue(int capacity) {
+            final int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            slots = new AtomicReferenceArray<>(size);
+            mask = size - 1;
+        }
+
+        /**
+         * Puts an event if there is space.
+         * @param event the event
+         * @return whether the event was put
+         */
+        boolean offer(Event event) {
+            final long index = tail.get();
+            final boolean space = index - head.get() < slots.length();
+            if (space) {
+                slots.lazySet((int) index & mask, event);
+                // a full volatile write, so that the producer reads whether
+                // the consumer waits only after publishing the event
+                tail.set(index + 1);
+            }
+            return space;
+        }
+
+        /**
+         * Takes the oldest event.
+         * @return the event, null if the queue is empty
+         */
+        Event poll() {
+            final long index = head.get();
+            Event event = null;
+            if (index != tail.get()) {
+                final int slot = (int) index & mask;
+                event = slots.get(slot);
+                slots.lazySet(slot, null);
+                head.lazySet(index + 1);
+            }
+            return event;
+        }
+    }
+
+    /**
+     * An event to pass to the listener.
+     */
+    private static final class Event {
+        /** The kind of the event. */
+        private final EventType type;
+
+        /** The details of the event. */
+        private final AuditEvent details;
+
+        /** The exception of an exception event. */
+        private final Throwable throwable;
+
+        /**
+         * Creates a new event.
+         * @param type the kind of the event
+         * @param details the details of the event
+         * @param throwable the exception of an exception event
+         */
+        Event(EventType type, AuditEvent details, Throwable throwable) {
+            this.type = type;
+            this.details = details;
+            this.throwable = throwable;
+        }
+
+        /**
+         * Passes this event to a listener.
+         * @param target the listener
+         */
+        void fire(AuditListener target) {
+            switch (type) {
+                case AUDIT_STARTED:
+                    target.auditStarted(details);
+                    break;
+                case AUDIT_FINISHED:
+                    target.auditFinished(details);
+                    break;
+                case FILE_STARTED:
+                    target.fileStarted(details);
+                    break;
+                case FILE_FINISHED:
+                    target.fileFinished(details);
+                    break;
+                case ERROR:
+                    target.addError(details);
+                    break;
+                default:
+                    target.addException(details, throwable);
+                    break;
+            }
+        }
+    }
+
+    /** The kinds of events of an audit listener. */
+    private enum EventType {
+        /** An audit started. */
+        AUDIT_STARTED,
+        /** An audit finished. */
+        AUDIT_FINISHED,
+        /** A file started. */
+        FILE_STARTED,
+        /** A file finished. */
+        FILE_FINISHED,
+        /** An error was found. */
+        ERROR,
+        /** An exception happened. */
+        EXCEPTION,
+    }
+
+    /** What to do with an error when the queue is full. */
+    public enum OverflowPolicy {
+        /** Wait until the writer thread made space. */
+        BLOCK,
+        /**
+         * Drop the error. Other events always wait, so the listener still
+         * sees all files and the end of the audit.
+         */
+        DISCARD,
+    }
+}
@@ -0,0 +1,296 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * Serves audit requests with a Checker that is kept alive between them, so
+ * that only the first request pays for loading the configuration, creating
+ * the modules and warming up the JVM.
+ *
+ * <p>A request is a connection to the server socket of the daemon. The client
+ * sends the absolute paths of the files and directories to audit, one per
+ * line, and ends the list with an empty line or by shutting down its output.
+ * The daemon replies with the report in the configured format, followed by
+ * the same summary line as the command line, and closes the connection. Any
+ * line based socket tool can be the client, for example:
+ * <pre>
+ * printf '%s/src/main/java\n\n' "$PWD" | nc localhost 7777
+ * </pre>
+ *
+ * <p>Requests are served one at a time. A client which stays silent for
+ * {@link #READ_TIMEOUT} milliseconds while sending its list is
+ * disconnected, and a failure of a request is reported to its client
+ * without stopping the daemon.
+ *
+ * <p>The server socket only listens on the loopback interface, but there is
+ * no authentication: every local user can request audits of the files the
+ * daemon can read.
+ *
+ * <p>The Checker is created again when the configuration file or the
+ * properties file changed since the previous request.
+ *
+ * @author the original author or authors.
+ */
+final class AuditDaemon {
+
+    /** Milliseconds to wait for the files of a request. */
+    static final int READ_TIMEOUT = 30000;
+
+    /** The socket to accept requests on. */
+    private final ServerSocket serverSocket;
+
+    /** Location of the configuration. */
+    private final String configLocation;
+
+    /** Location of the properties file, null to use the system properties. */
+    private final String propertiesLocation;
+
+    /** Format of the reports. */
+    private final String format;
+
+    /** Number of threads to audit files with. */
+    private final int threadCount;
+
+    /** Names of the directories not to traverse. */
+    private final Set<String> excludedDirectories;
+
+    /** The Checker, null until the first request or after a failed request. */
+    private Checker checker;
+
+    /** Modification time of the configuration file the Checker was created from. */
+    private long configModified;
+
+    /** Modification time of the properties file the Checker was created from. */
+    private long propertiesModified;
+
+    /**
+     * Creates a new daemon.
+     * @param serverSocket the socket to accept requests on
+     * @param configLocation location of the configuration
+     * @param propertiesLocation location of the properties file, null to use
+     *     the system properties
+     * @param format format of the reports
+     * @param threadCount number of threads to audit files with, 0 to keep
+     *     the number of the configuration
+     * @param excludedDirectories names of the directories not to traverse
+     */
+    AuditDaemon(ServerSocket serverSocket, String configLocation, String propertiesLocation,
+            String format, int threadCount, Set<String> excludedDirectories) {
+        this.serverSocket = serverSocket;
+        this.configLocation = configLocation;
+        this.propertiesLocation = propertiesLocation;
+        this.format = format;
+        this.threadCount = threadCount;
+        this.excludedDirectories = excludedDirectories;
+    }
+
+    /**
+     * Serves requests until the server socket is closed.
+     * @throws IOException if a request can not be accepted
+     */
+    void run() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                final Socket socket = acceptRequest();
+                if (socket != null) {
+                    try {
+                        serve(socket);
+                    }
+                    catch (final IOException ignored) {
+                        // the client is gone or too slow, there is nobody to report to
+                    }
+                    finally {
+                        socket.close();
+                    }
+                }
+            }
+        }
+        finally {
+            destroyChecker();
+        }
+    }
+
+    /**
+     * Waits for the next request.
+     * @return the connection of the request, null if the server socket was closed
+     * @throws IOException if a request can not be accepted
+     */
+    private Socket acceptRequest() throws IOException {
+        Socket socket = null;
+        try {
+            socket = serverSocket.accept();
+        }
+        catch (final IOException ex) {
+            if (!serverSocket.isClosed()) {
+                throw ex;
+            }
+        }
+        return socket;
+    }
+
+    /**
+     * Audits the files of a request and writes the report to its connection.
+     * @param socket the connection of the request
+     * @throws IOException if the connection fails
+     */
+    private void serve(Socket socket) throws IOException {
+        socket.setSoTimeout(READ_TIMEOUT);
+        final List<String> names = readNames(socket);
+        final OutputStream out = socket.getOutputStream();
+        final PrintWriter summary =
+            new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final int errorCounter = serve(names, out, summary);
+        if (errorCounter != 0) {
+            summary.println(String.format("Checkstyle ends with %d errors.", errorCounter));
+        }
+        summary.flush();
+    }
+
+    /**
+     * Audits the files of a request, reporting a failure of the request to
+     * its client instead of stopping the daemon.
+     * @param names the names of the files and directories to audit
+     * @param out the stream to write the report to
+     * @param summary the writer to report a failure to
+     * @return number of violations of ERROR level, 1 if the request failed
+     */
+    private int serve(List<String> names, OutputStream out, PrintWriter summary) {
+        int errorCounter = 1;
+        final String relativeName = findRelativeName(names);
+        if (relativeName == null) {
+            try {
+                errorCounter = audit(Main.getFilesToProcess(excludedDirectories,
+                    names.toArray(new String[names.size()])), out);
+            }
+            catch (final CheckstyleException ex) {
+                destroyChecker();
+                summary.println(ex.getMessage());
+                if (ex.getCause() != null) {
+                    summary.println("Cause: " + ex.getCause());
+                }
+            }
+            catch (final RuntimeException ex) {
+                destroyChecker();
+                summary.println("Unexpected error: " + ex);
+            }
+        }
+        else {
+            summary.println(String.format(
+                "Path '%s' is not absolute, the daemon only audits absolute paths.",
+                relativeName));
+        }
+        return errorCounter;
+    }
+
+    /**
+     * Reads the names of the files and directories to audit from a connection.
+     * @param socket the connection of the request
+     * @return the names of the files and directories
+     * @throws IOException if the connection fails
+     */
+    private static List<String> readNames(Socket socket) throws IOException {
+        final BufferedReader reader = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        final List<String> names = Lists.newArrayList();
+        String line = reader.readLine();
+        while (line != null && !line.isEmpty()) {
+            names.add(line);
+            line = reader.readLine();
+        }
+        return names;
+    }
+
+    /**
+     * Finds a name which is not an absolute path. The daemon resolves
+     * relative paths against its own working directory, which is not the
+     * one of its clients, so they are rejected.
+     * @param names the names of the files and directories to audit
+     * @return the first relative name, null if all names are absolute
+     */
+    private static String findRelativeName(List<String> names) {
+        String result = null;
+        for (String name : names) {
+            if (!new File(name).isAbsolute()) {
+                result = name;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Audits files with the Checker, after creating it again if its
+     * configuration changed.
+     * @param files the files to audit
+     * @param out the stream to write the report to
+     * @return number of violations of ERROR level
+     * @throws CheckstyleException if the audit fails
+     */
+    private int audit(Iterable<File> files, OutputStream out) throws CheckstyleException {
+        final long currentConfigModified = new File(configLocation).lastModified();
+        long currentPropertiesModified = 0;
+        if (propertiesLocation != null) {
+            currentPropertiesModified = new File(propertiesLocation).lastModified();
+        }
+        if (currentConfigModified != configModified
+                || currentPropertiesModified != propertiesModified) {
+            destroyChecker();
+        }
+        if (checker == null) {
+            checker = Main.createChecker(configLocation, propertiesLocation, threadCount);
+            configModified = currentConfigModified;
+            propertiesModified = currentPropertiesModified;
+        }
+
+        final AuditListener listener = Main.createListener(format, out, false);
+        checker.addListener(listener);
+        try {
+            return checker.process(files);
+        }
+        finally {
+            checker.removeListener(listener);
+        }
+    }
+
+    /** Destroys the Checker, so that the next request creates it again. */
+    private void destroyChecker() {
+        if (checker != null) {
+            checker.destroy();
+            checker = null;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.List;
+import java.util.SortedSet;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractViolationReporter;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AuditProfile;
+import com.puppycrawl.tools.checkstyle.api.BatchFilterAdapter;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.ProfileListener;
+
+/**
+ * Records the profile of an audit of a {@link Checker}: the time spent in
+ * the {@code process} calls of its FileSetChecks and the {@code accept}
+ * calls of its Filters. TreeWalkers record the time of their own phases and
+ * of their Checks. A profile is only recorded while a
+ * {@link ProfileListener} is registered, otherwise {@link #NONE} invokes
+ * the modules directly.
+ *
+ * @author the original author or authors.
+ */
+final class AuditProfiler {
+
+    /** A profiler which records nothing. */
+    static final AuditProfiler NONE = new AuditProfiler(null);
+
+    /** Name of the phase of FileSetChecks which processes a file. */
+    private static final String PROCESS_PHASE = "process";
+
+    /** The profile, null for {@link #NONE}. */
+    private final AuditProfile profile;
+
+    /**
+     * Creates a new instance.
+     * @param profile the profile to record
+     */
+    private AuditProfiler(AuditProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Starts to profile an audit if any of the listeners receives the profile.
+     * @param listeners the listeners of the Checker
+     * @param checks the FileSetChecks of the Checker
+     * @return the profiler of the audit
+     */
+    static AuditProfiler start(List<AuditListener> listeners, List<FileSetCheck> checks) {
+        AuditProfiler profiler = NONE;
+        for (AuditListener listener : listeners) {
+            if (listener instanceof ProfileListener) {
+                profiler = new AuditProfiler(new AuditProfile());
+                profiler.attach(checks);
+                break;
+            }
+        }
+        return profiler;
+    }
+
+    /**
+     * Lets the TreeWalkers among FileSetChecks profile their Checks.
+     * @param checks the FileSetChecks
+     */
+    void attach(List<FileSetCheck> checks) {
+        if (profile != null) {
+            for (FileSetCheck fsc : checks) {
+                if (fsc instanceof TreeWalker) {
+                    final TreeWalker walker = (TreeWalker) fsc;
+                    walker.startProfiling(new TreeWalkerProfile(profile, walker));
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes a file with a FileSetCheck.
+     * @param fsc the FileSetCheck
+     * @param file the file
+     * @param text the contents of the file
+     * @return the messages logged by the FileSetCheck
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     */
+    SortedSet<LocalizedMessage> process(FileSetCheck fsc, File file, FileText text)
+        throws CheckstyleException {
+        final SortedSet<LocalizedMessage> messages;
+        if (profile == null) {
+            messages = fsc.process(file, text);
+        }
+        else {
+            final long start = System.nanoTime();
+            messages = fsc.process(file, text);
+            profile.getSection(getModuleName(fsc), PROCESS_PHASE)
+                .add(System.nanoTime() - start);
+        }
+        return messages;
+    }
+
+    /**
+     * Applies filters to the messages of a file.
+     * @param filters the filters
+     * @param source the source of the audit events
+     * @param fileName the name of the file
+     * @param messages the messages of the file
+     * @return the messages accepted by all filters
+     */
+    SortedSet<LocalizedMessage> accept(FilterSet filters, Object source, String fileName,
+            SortedSet<LocalizedMessage> messages) {
+        SortedSet<LocalizedMessage> accepted = messages;
+        if (profile == null) {
+            accepted = filters.accept(source, fileName, messages);
+        }
+        else {
+            for (Filter filter : filters.getFilters()) {
+                if (accepted.isEmpty()) {
+                    break;
+                }
+                final long start = System.nanoTime();
+                accepted = BatchFilterAdapter.adapt(filter).accept(source, fileName, accepted);
+                profile.getSection(getModuleName(filter), "accept")
+                    .add(System.nanoTime() - start);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Passes the profile to the listeners which receive it. The FileSetChecks
+     * must have been destroyed before, so that the TreeWalkers have added the
+     * time of their Checks to the profile.
+     * @param listeners the listeners of the Checker
+     * @param event the event for the listeners
+     */
+    void finish(List<AuditListener> listeners, AuditEvent event) {
+        if (profile != null) {
+            for (AuditListener listener : listeners) {
+                if (listener instanceof ProfileListener) {
+                    ((ProfileListener) listener).auditProfiled(event, profile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the name a module is profiled with: its id if it is a reporter
+     * with an id, the simple name of its class otherwise.
+     * @param module the module
+     * @return the name of the module
+     */
+    static String getModuleName(Object module) {
+        String name = null;
+        if (module instanceof AbstractViolationReporter) {
+            name = ((AbstractViolationReporter) module).getId();
+        }
+        if (name == null) {
+            name = module.getClass().getSimpleName();
+        }
+        return name;
+    }
+}
@@ -25,6 +25,7 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -33,6 +34,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
@@ -45,7 +47,10 @@ import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Filter;
 import com.puppycrawl.tools.checkstyle.api.FilterSet;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessages;
+import com.puppycrawl.tools.checkstyle.api.MergeableFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
+import com.puppycrawl.tools.checkstyle.api.ProfileListener;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevelCounter;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
@@ -70,6 +75,18 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
     /** Vector of fileset checks. */
     private final List<FileSetCheck> fileSetChecks = Lists.newArrayList();
 
+    /**
+     * Configurations of the fileset checks created by {@link #setupChild},
+     * used to create the copies of the checks for worker threads.
+     */
+    private final List<Configuration> fileSetCheckConfigs = Lists.newArrayList();
+
+    /**
+     * Configurations of the filters created by {@link #setupChild}, used to
+     * create the copies of the filters for worker threads.
+     */
+    private final Map<Filter, Configuration> filterConfigs = Maps.newHashMap();
+
     /** Class loader to resolve classes with. **/
     private ClassLoader classLoader = Thread.currentThread()
             .getContextClassLoader();
@@ -112,6 +129,18 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
     /** Name of a charset. */
     private String charset = System.getProperty("file.encoding", "UTF-8");
 
+    /** Number of threads to audit files with. */
+    private int threadCount = 1;
+
+    /** Name of the file to cache the messages of the FileSetChecks in. */
+    private String cacheFile;
+
+    /** Cache of the messages of the FileSetChecks, loaded by the first audit. */
+    private CheckerCache cache = CheckerCache.NONE;
+
+    /** Profiler of the current audit. */
+    private AuditProfiler profiler = AuditProfiler.NONE;
+
     /**
      * Creates a new {@code Checker} instance.
      * The instance needs to be contextualized and configured.
@@ -143,6 +172,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
         context.add("charset", charset);
         context.add("classLoader", classLoader);
         context.add("moduleFactory", moduleFactory);
+        context.add("moduleClassLoader", moduleClassLoader);
         context.add("severity", severityLevel.getName());
         context.add("basedir", basedir);
         childContext = context;
@@ -152,29 +182,17 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
     protected void setupChild(Configuration childConf)
         throws CheckstyleException {
         final String name = childConf.getName();
-        final Object child;
-
-        try {
-            child = moduleFactory.createModule(name);
-
-            if (child instanceof AutomaticBean) {
-                final AutomaticBean bean = (AutomaticBean) child;
-                bean.contextualize(childContext);
-                bean.configure(childConf);
-            }
-        }
-        catch (final CheckstyleException ex) {
-            throw new CheckstyleException("cannot initialize module " + name
-                    + " - " + ex.getMessage(), ex);
-        }
+        final Object child = createChildModule(childConf);
         if (child instanceof FileSetCheck) {
             final FileSetCheck fsc = (FileSetCheck) child;
             fsc.init();
             addFileSetCheck(fsc);
+            fileSetCheckConfigs.add(childConf);
         }
         else if (child instanceof Filter) {
             final Filter filter = (Filter) child;
             addFilter(filter);
+            filterConfigs.put(filter, childConf);
         }
         else if (child instanceof AuditListener) {
             final AuditListener listener = (AuditListener) child;
@@ -186,6 +204,33 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
         }
     }
 
+    /**
+     * Creates, contextualizes and configures a child module.
+     * @param childConf the configuration of the child module
+     * @return the child module
+     * @throws CheckstyleException if the module cannot be initialized
+     */
+    private Object createChildModule(Configuration childConf)
+        throws CheckstyleException {
+        final String name = childConf.getName();
+        final Object child;
+
+        try {
+            child = moduleFactory.createModule(name);
+
+            if (child instanceof AutomaticBean) {
+                final AutomaticBean bean = (AutomaticBean) child;
+                bean.contextualize(childContext);
+                bean.configure(childConf);
+            }
+        }
+        catch (final CheckstyleException ex) {
+            throw new CheckstyleException("cannot initialize module " + name
+                    + " - " + ex.getMessage(), ex);
+        }
+        return child;
+    }
+
     /**
      * Adds a FileSetCheck to the list of FileSetChecks
      * that is executed in process().
@@ -210,12 +255,20 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
      */
     public void removeFilter(Filter filter) {
         filters.removeFilter(filter);
+        filterConfigs.remove(filter);
     }
 
     /** Cleans up the object. **/
     public void destroy() {
         listeners.clear();
         filters.clear();
+        filterConfigs.clear();
+        try {
+            cache.persist();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unable to persist cache file", e);
+        }
     }
 
     /**
@@ -241,39 +294,63 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
      * @param files the list of files to be audited.
      * @return the total number of errors found
      * @throws CheckstyleException if error condition within Checkstyle occurs
+     * @see #process(Iterable)
      * @see #destroy()
      */
     public int process(List<File> files) throws CheckstyleException {
+        return process((Iterable<File>) files);
+    }
+
+    /**
+     * Processes a set of files with all FileSetChecks.
+     * Once this is done, it is highly recommended to call for
+     * the destroy method to close and remove the listeners.
+     *
+     * <p>The files are iterated only once, while they are audited, so they
+     * may be found while the audit is running.
+     *
+     * <p>While a {@link ProfileListener} is registered, the time spent in the
+     * FileSetChecks, their Checks and the filters is recorded and passed to it
+     * at the end of the audit.
+     * @param files the files to be audited.
+     * @return the total number of errors found
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     * @see #destroy()
+     */
+    public int process(Iterable<File> files) throws CheckstyleException {
+        if (cacheFile != null && cache == CheckerCache.NONE) {
+            try {
+                cache = CheckerCache.load(cacheFile, getConfiguration(), childContext,
+                        fileSetChecks, fileSetCheckConfigs);
+            }
+            catch (final IOException ex) {
+                throw new CheckstyleException("Unable to load cache file " + cacheFile, ex);
+            }
+        }
+
         // Prepare to start
+        profiler = AuditProfiler.start(listeners, fileSetChecks);
         fireAuditStarted();
         for (final FileSetCheck fsc : fileSetChecks) {
             fsc.beginProcessing(charset);
         }
 
-        // Process each file
-        for (final File file : files) {
-            if (!CommonUtils.matchesFileExtension(file, fileExtensions)) {
-                continue;
-            }
-            final String fileName = file.getAbsolutePath();
-            fireFileStarted(fileName);
-            final SortedSet<LocalizedMessage> fileMessages = Sets.newTreeSet();
-            try {
-                final FileText theText = new FileText(file.getAbsoluteFile(),
-                        charset);
-                for (final FileSetCheck fsc : fileSetChecks) {
-                    fileMessages.addAll(fsc.process(file, theText));
+        if (isParallelProcessingEnabled()) {
+            processInParallel(files);
+        }
+        else {
+            // Process each file
+            for (final File file : files) {
+                if (!CommonUtils.matchesFileExtension(file, fileExtensions)) {
+                    continue;
                 }
+                final String fileName = file.getAbsolutePath();
+                fireFileStarted(fileName);
+                final SortedSet<LocalizedMessage> fileMessages =
+                        processFile(file, fileSetChecks, filters);
+                fireAcceptedErrors(fileName, fileMessages);
+                fireFileFinished(fileName);
             }
-            catch (final IOException ioe) {
-                LOG.debug("IOException occurred.", ioe);
-                fileMessages.add(new LocalizedMessage(0,
-                        Definitions.CHECKSTYLE_BUNDLE, "general.exception",
-                        new String[] {ioe.getMessage()}, null, getClass(),
-                        null));
-            }
-            fireErrors(fileName, fileMessages);
-            fireFileFinished(fileName);
         }
 
         // Finish up
@@ -288,10 +365,221 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
         }
 
         final int errorCount = counter.getCount();
+        profiler.finish(listeners, new AuditEvent(this));
+        profiler = AuditProfiler.NONE;
         fireAuditFinished();
         return errorCount;
     }
 
+    /**
+     * Processes a single file with the given FileSetChecks. The FileSetChecks
+     * whose messages are cached do not process the file if their messages
+     * for its current contents can be replayed from the cache. The other
+     * FileSetChecks always process the file; if they log messages for a
+     * replayed file, the cached TreeWalkers with holders process it as well,
+     * so that the filters do not see the state of another file.
+     * @param file the file to process
+     * @param checks the FileSetChecks to process the file with
+     * @param fileFilters the filters to apply to the messages of the file,
+     *     which belong to the same thread as {@code checks}
+     * @return the messages logged for the file which were accepted by the filters
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     */
+    SortedSet<LocalizedMessage> processFile(File file, List<FileSetCheck> checks,
+            FilterSet fileFilters) throws CheckstyleException {
+        final String fileName = file.getAbsolutePath();
+        SortedSet<LocalizedMessage> fileMessages = Sets.newTreeSet();
+        try {
+            final LocalizedMessages replayed = new LocalizedMessages();
+            final boolean replayable = cache.replay(file, replayed);
+            final List<SortedSet<LocalizedMessage>> processed =
+                    processChecks(file, checks, replayable);
+
+            // filters are applied once all checks have processed the file,
+            // as they may depend on the state the checks collected for it
+            fileMessages.addAll(replayed.getMessages());
+            for (int i = 0; i < checks.size(); i++) {
+                if (processed.get(i) != null) {
+                    final SortedSet<LocalizedMessage> accepted =
+                            filterErrors(fileName, processed.get(i), fileFilters);
+                    if (cache.isCached(i)) {
+                        cache.put(file, i, accepted);
+                    }
+                    fileMessages.addAll(accepted);
+                }
+            }
+        }
+        catch (final IOException ioe) {
+            LOG.debug("IOException occurred.", ioe);
+            fileMessages.add(new LocalizedMessage(0,
+                    Definitions.CHECKSTYLE_BUNDLE, "general.exception",
+                    new String[] {ioe.getMessage()}, null, getClass(),
+                    null));
+            fileMessages = filterErrors(fileName, fileMessages, fileFilters);
+        }
+        return fileMessages;
+    }
+
+    /**
+     * Processes a file with the FileSetChecks whose messages are not replayed.
+     * @param file the file to process
+     * @param checks the FileSetChecks to process the file with
+     * @param replayable whether the messages of the cached FileSetChecks are replayed
+     * @return the messages of the FileSetChecks, null for a FileSetCheck
+     *     which did not process the file
+     * @throws IOException if the file can not be read
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     */
+    private List<SortedSet<LocalizedMessage>> processChecks(File file,
+            List<FileSetCheck> checks, boolean replayable)
+            throws IOException, CheckstyleException {
+        final List<SortedSet<LocalizedMessage>> processed = Lists.newArrayList();
+        FileText theText = null;
+        if (!replayable) {
+            theText = new FileText(file.getAbsoluteFile(), charset);
+        }
+        for (int i = 0; i < checks.size(); i++) {
+            SortedSet<LocalizedMessage> messages = null;
+            if (!replayable || !cache.isCached(i)) {
+                if (theText == null) {
+                    theText = new FileText(file.getAbsoluteFile(), charset);
+                }
+                messages = profiler.process(checks.get(i), file, theText);
+            }
+            processed.add(messages);
+        }
+        if (replayable && hasMessages(processed)) {
+            processHolders(file, checks, theText);
+        }
+        return processed;
+    }
+
+    /**
+     * Checks whether FileSetChecks which processed a file logged messages.
+     * @param processed the messages of the FileSetChecks, null for a
+     *     FileSetCheck which did not process the file
+     * @return true if any messages were logged
+     */
+    private static boolean hasMessages(List<SortedSet<LocalizedMessage>> processed) {
+        boolean result = false;
+        for (SortedSet<LocalizedMessage> messages : processed) {
+            if (messages != null && !messages.isEmpty()) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lets the cached TreeWalkers with holders process a file whose messages
+     * were replayed. The messages of the FileSetChecks which are not cached
+     * are filtered like any other messages, but the filters get the state of
+     * the file, like its comments, from the holders of the TreeWalkers. The
+     * messages of the TreeWalkers are dropped, as they are replayed already.
+     * @param file the file to process
+     * @param checks the FileSetChecks to process the file with
+     * @param text the contents of the file
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     */
+    private void processHolders(File file, List<FileSetCheck> checks, FileText text)
+            throws CheckstyleException {
+        for (int i = 0; i < checks.size(); i++) {
+            final FileSetCheck check = checks.get(i);
+            if (cache.isCached(i) && check instanceof TreeWalker
+                    && ((TreeWalker) check).hasHolders()) {
+                profiler.process(check, file, text);
+            }
+        }
+    }
+
+    /**
+     * Checks whether files can be audited on several threads. This requires
+     * more than one thread to be configured and every FileSetCheck and every
+     * filter to be created from the configuration, so that they can be
+     * copied for each worker.
+     * @return true if files are to be processed in parallel
+     */
+    private boolean isParallelProcessingEnabled() {
+        return threadCount > 1
+                && fileSetCheckConfigs.size() == fileSetChecks.size()
+                && filterConfigs.size() == filters.getFilters().size();
+    }
+
+    /**
+     * Processes the files on several threads. The first worker uses the
+     * FileSetChecks and filters of this Checker, every other worker gets its
+     * own copies of them, as filters may keep the state of the file they
+     * filter. When all files are processed the state of the copies of the
+     * FileSetChecks is merged into the FileSetChecks of this Checker.
+     * @param files the files to process
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     */
+    private void processInParallel(Iterable<File> files) throws CheckstyleException {
+        final List<List<FileSetCheck>> workerChecks = Lists.newArrayList();
+        final List<FilterSet> workerFilters = Lists.newArrayList();
+        workerChecks.add(fileSetChecks);
+        workerFilters.add(filters);
+        try {
+            for (int i = 1; i < threadCount; i++) {
+                workerChecks.add(createFileSetCheckCopies());
+                final FilterSet filterCopies = new FilterSet();
+                for (final Configuration filterConf : filterConfigs.values()) {
+                    filterCopies.addFilter((Filter) createChildModule(filterConf));
+                }
+                workerFilters.add(filterCopies);
+            }
+            final ParallelAuditor auditor =
+                    new ParallelAuditor(this, workerChecks, workerFilters);
+            for (final File file : files) {
+                if (CommonUtils.matchesFileExtension(file, fileExtensions)) {
+                    auditor.submit(file);
+                }
+            }
+            auditor.finish();
+        }
+        finally {
+            for (final List<FileSetCheck> copies : workerChecks.subList(1, workerChecks.size())) {
+                mergeAndDestroy(copies);
+            }
+        }
+    }
+
+    /**
+     * Creates copies of the FileSetChecks from their configuration.
+     * @return the copies, in the same order as the FileSetChecks
+     * @throws CheckstyleException if a copy cannot be initialized
+     */
+    private List<FileSetCheck> createFileSetCheckCopies() throws CheckstyleException {
+        final List<FileSetCheck> copies = Lists.newArrayList();
+        for (final Configuration childConf : fileSetCheckConfigs) {
+            final FileSetCheck fsc = (FileSetCheck) createChildModule(childConf);
+            fsc.init();
+            fsc.setMessageDispatcher(this);
+            fsc.beginProcessing(charset);
+            copies.add(fsc);
+        }
+        cache.attach(copies);
+        profiler.attach(copies);
+        return copies;
+    }
+
+    /**
+     * Merges the state of the worker copies into the FileSetChecks of this
+     * Checker and destroys the copies.
+     * @param copies the copies of the FileSetChecks used by a worker
+     */
+    private void mergeAndDestroy(List<FileSetCheck> copies) {
+        for (int i = 0; i < copies.size(); i++) {
+            final FileSetCheck original = fileSetChecks.get(i);
+            final FileSetCheck copy = copies.get(i);
+            if (original instanceof MergeableFileSetCheck) {
+                ((MergeableFileSetCheck) original).merge(copy);
+            }
+            copy.destroy();
+        }
+    }
+
     /**
      * Sets base directory.
      * @param basedir the base directory to strip off in file names
@@ -300,6 +588,18 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
         this.basedir = basedir;
     }
 
+    /**
+     * Notify all listeners about the audit of a file: its start, the
+     * errors found in it and its end.
+     * @param fileName the audited file
+     * @param errors the audit errors from the file, already accepted by the filters
+     */
+    void fireFileAudit(String fileName, SortedSet<LocalizedMessage> errors) {
+        fireFileStarted(fileName);
+        fireAcceptedErrors(fileName, errors);
+        fireFileFinished(fileName);
+    }
+
     /** Notify all listeners about the audit start. */
     void fireAuditStarted() {
         final AuditEvent evt = new AuditEvent(this);
@@ -354,13 +654,34 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
      */
     @Override
     public void fireErrors(String fileName, SortedSet<LocalizedMessage> errors) {
+        fireAcceptedErrors(fileName, filterErrors(fileName, errors, filters));
+    }
+
+    /**
+     * Applies the filters to the errors in a file.
+     * @param fileName the audited file
+     * @param errors the audit errors from the file
+     * @param fileFilters the filters to apply
+     * @return the errors accepted by the filters
+     */
+    private SortedSet<LocalizedMessage> filterErrors(String fileName,
+            SortedSet<LocalizedMessage> errors, FilterSet fileFilters) {
+        final String stripped = CommonUtils.relativizeAndNormalizePath(basedir, fileName);
+        return profiler.accept(fileFilters, this, stripped, errors);
+    }
+
+    /**
+     * Notify all listeners about the errors in a file which were accepted
+     * by the filters.
+     * @param fileName the audited file
+     * @param errors the accepted audit errors from the file
+     */
+    private void fireAcceptedErrors(String fileName, SortedSet<LocalizedMessage> errors) {
         final String stripped = CommonUtils.relativizeAndNormalizePath(basedir, fileName);
         for (final LocalizedMessage element : errors) {
             final AuditEvent evt = new AuditEvent(this, stripped, element);
-            if (filters.accept(evt)) {
-                for (final AuditListener listener : listeners) {
-                    listener.addError(evt);
-                }
+            for (final AuditListener listener : listeners) {
+                listener.addError(evt);
             }
         }
     }
@@ -460,6 +781,34 @@ public class Checker extends AutomaticBean implements MessageDispatcher {
         this.moduleClassLoader = moduleClassLoader;
     }
 
+    /**
+     * Sets the number of threads to audit files with. With more than one
+     * thread every worker uses its own copies of the configured
+     * FileSetChecks, while listeners still receive the events of the
+     * files in the order the files were passed to {@link #process(List)}.
+     * @param threadCount the number of threads, at least 1
+     * @throws IllegalArgumentException if the number is less than 1
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive, but was "
+                    + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Sets the file to cache the messages of the FileSetChecks in. A file is
+     * not processed again while it and the configuration of the checks do
+     * not change, the messages accepted by the filters for it are reported
+     * from the cache instead. MergeableFileSetChecks, which need to see every
+     * file, always process the files.
+     * @param fileName the cache file
+     */
+    public void setCacheFile(String fileName) {
+        cacheFile = fileName;
+    }
+
     /**
      * Sets a named charset.
      * @param charset the name of a charset
@@ -0,0 +1,218 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Context;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessages;
+import com.puppycrawl.tools.checkstyle.api.MergeableFileSetCheck;
+
+/**
+ * Caches the messages of the FileSetChecks of a {@link Checker} per file.
+ * The messages of every FileSetCheck are recorded with the hashcode of its
+ * configuration, the cache as a whole depends on the properties of the
+ * Checker and the configuration of its other children, like the filters.
+ *
+ * <p>A file is assumed to be unchanged without reading it while its size and
+ * modification time are the ones recorded, otherwise the digest of its bytes
+ * decides.
+ *
+ * @author the original author or authors.
+ */
+final class CheckerCache {
+
+    /** A cache which records nothing, used if no cache file is set. */
+    static final CheckerCache NONE = new CheckerCache(null, new String[0], null);
+
+    /** The cache file, null for {@link #NONE}. */
+    private final PropertyCacheFile cacheFile;
+
+    /**
+     * Keys the messages of the FileSetChecks are recorded with, in the order
+     * of the FileSetChecks. The key of a check whose messages can not be
+     * cached is null.
+     */
+    private final String[] checkKeys;
+
+    /** Class loader to load the sources of messages with. */
+    private final ClassLoader moduleClassLoader;
+
+    /**
+     * Creates a new instance.
+     * @param cacheFile the cache file
+     * @param checkKeys the keys of the FileSetChecks
+     * @param moduleClassLoader class loader to load the sources of messages with
+     */
+    private CheckerCache(PropertyCacheFile cacheFile, String[] checkKeys,
+            ClassLoader moduleClassLoader) {
+        this.cacheFile = cacheFile;
+        this.checkKeys = checkKeys;
+        this.moduleClassLoader = moduleClassLoader;
+    }
+
+    /**
+     * Loads the cache of a Checker.
+     * @param fileName the cache file
+     * @param checkerConfig the configuration of the Checker
+     * @param checkerContext the context the Checker passes to its children
+     * @param checks the FileSetChecks of the Checker
+     * @param checkConfigs the configurations of {@code checks}, in the same order
+     * @return the cache
+     * @throws IOException when there is a problems with file read
+     */
+    static CheckerCache load(String fileName, Configuration checkerConfig,
+            Context checkerContext, List<FileSetCheck> checks,
+            List<Configuration> checkConfigs) throws IOException {
+        final DefaultConfiguration cacheConfig = new DefaultConfiguration("Checker");
+        for (String property : new String[] {"basedir", "charset", "severity"}) {
+            cacheConfig.addAttribute(property, String.valueOf(checkerContext.get(property)));
+        }
+        if (checkerConfig != null) {
+            for (Configuration childConf : checkerConfig.getChildren()) {
+                if (!checkConfigs.contains(childConf)) {
+                    cacheConfig.addChild(childConf);
+                }
+            }
+        }
+        final PropertyCacheFile cacheFile = new PropertyCacheFile(cacheConfig, fileName);
+        cacheFile.load();
+
+        final String[] checkKeys = new String[checks.size()];
+        if (checkConfigs.size() == checks.size()) {
+            for (int i = 0; i < checkKeys.length; i++) {
+                if (isCacheable(checks.get(i))) {
+                    checkKeys[i] = PropertyCacheFile.getConfigHashCode(checkConfigs.get(i));
+                }
+            }
+        }
+        final CheckerCache cache = new CheckerCache(cacheFile, checkKeys,
+            (ClassLoader) checkerContext.get("moduleClassLoader"));
+        cache.attach(checks);
+        return cache;
+    }
+
+    /**
+     * Lets the TreeWalkers among FileSetChecks record the messages of their
+     * Checks in the cache file, so that after a change to the configuration
+     * of a TreeWalker only its added or changed Checks process unchanged files.
+     * A TreeWalker which processes a file while another FileSetCheck is added
+     * still parses it for its holders, so the filters get the comments of
+     * the file for the replayed messages.
+     * @param checks the FileSetChecks
+     */
+    void attach(List<FileSetCheck> checks) {
+        if (cacheFile != null) {
+            for (FileSetCheck fsc : checks) {
+                if (fsc instanceof TreeWalker) {
+                    ((TreeWalker) fsc).useCacheFile(cacheFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the messages of a FileSetCheck only depend on the file
+     * it processes. MergeableFileSetChecks keep state across files and always
+     * need to process every file, except TreeWalker, which only merges its
+     * own cache.
+     * @param fsc the FileSetCheck
+     * @return true if the messages of {@code fsc} can be cached per file
+     */
+    private static boolean isCacheable(FileSetCheck fsc) {
+        return !(fsc instanceof MergeableFileSetCheck) || fsc instanceof TreeWalker;
+    }
+
+    /**
+     * Checks whether the messages of a FileSetCheck are cached.
+     * @param checkIndex the index of the FileSetCheck
+     * @return true if the messages of the FileSetCheck are cached
+     */
+    boolean isCached(int checkIndex) {
+        return cacheFile != null && checkKeys[checkIndex] != null;
+    }
+
+    /**
+     * Records the current contents of a file and adds the messages of all
+     * cached FileSetChecks to a collector, if they are recorded for these
+     * contents. Nothing is added if the messages of any cached FileSetCheck
+     * are missing.
+     * @param file the file to replay the messages for
+     * @param collector the collector to add the messages to
+     * @return true if the messages were added and the cached FileSetChecks
+     *     need not to process the file
+     * @throws IOException if the file can not be read
+     */
+    boolean replay(File file, LocalizedMessages collector) throws IOException {
+        boolean replayed = false;
+        if (cacheFile != null) {
+            final String fileName = file.getAbsolutePath();
+            final long lastModified = file.lastModified();
+            final long length = file.length();
+            if (!cacheFile.isUnmodified(fileName, lastModified, length)) {
+                final byte[] contentDigest =
+                    PropertyCacheFile.getContentDigest(Files.readAllBytes(file.toPath()));
+                cacheFile.setContents(fileName, contentDigest, lastModified, length);
+            }
+            final LocalizedMessages messages = new LocalizedMessages();
+            replayed = true;
+            for (String key : checkKeys) {
+                if (key != null && !cacheFile.replay(fileName, key, moduleClassLoader, messages)) {
+                    replayed = false;
+                    break;
+                }
+            }
+            if (replayed) {
+                for (LocalizedMessage message : messages.getMessages()) {
+                    collector.add(message);
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Records the messages of a cached FileSetCheck for the contents of a
+     * file recorded by {@link #replay}.
+     * @param file the processed file
+     * @param checkIndex the index of the FileSetCheck
+     * @param messages the messages of the FileSetCheck which were accepted by the filters
+     */
+    void put(File file, int checkIndex, Collection<LocalizedMessage> messages) {
+        cacheFile.put(file.getAbsolutePath(), checkKeys[checkIndex], messages);
+    }
+
+    /**
+     * Updates the cache file.
+     * @throws IOException when there is a problems with file save
+     */
+    void persist() throws IOException {
+        if (cacheFile != null) {
+            cacheFile.persist();
+        }
+    }
+}
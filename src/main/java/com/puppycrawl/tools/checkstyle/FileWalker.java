@@ -0,0 +1,205 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Lists the readable files in a set of files and directories, descending
+ * into subdirectories. The files are found while they are iterated, so that
+ * an audit can start with the first file found instead of waiting for the
+ * whole tree to be traversed, and only the entries of the directories being
+ * traversed are held in memory.
+ *
+ * <p>Subdirectories with an excluded name are not traversed. The files and
+ * directories the walk starts from are never excluded. Symbolic links are
+ * followed, except those which lead to a directory being traversed.
+ *
+ * @author the original author or authors.
+ */
+final class FileWalker implements Iterable<File> {
+    /** Names of the directories excluded by default, used by version control systems. */
+    static final Set<String> DEFAULT_EXCLUDED_DIRECTORIES =
+        ImmutableSet.of(".git", ".hg", ".svn", "CVS");
+
+    /** Stands for the key of a directory whose file system has no keys. */
+    private static final Object NO_KEY = new Object();
+
+    /** The files and directories to walk. */
+    private final List<File> roots;
+
+    /** Names of the subdirectories not to traverse. */
+    private final Set<String> excludedDirectories;
+
+    /**
+     * Creates a walker excluding the directories of version control systems.
+     * @param roots the files and directories to walk
+     */
+    FileWalker(Collection<File> roots) {
+        this(roots, DEFAULT_EXCLUDED_DIRECTORIES);
+    }
+
+    /**
+     * Creates a walker.
+     * @param roots the files and directories to walk
+     * @param excludedDirectories names of the subdirectories not to traverse
+     */
+    FileWalker(Collection<File> roots, Collection<String> excludedDirectories) {
+        this.roots = ImmutableList.copyOf(roots);
+        this.excludedDirectories = ImmutableSet.copyOf(excludedDirectories);
+    }
+
+    @Override
+    public Iterator<File> iterator() {
+        return new Walk();
+    }
+
+    /**
+     * Checks whether the walk finds no file at all.
+     * @return true if there is no file to walk
+     */
+    boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    /**
+     * A depth first traversal of the roots. The traversal keeps an iterator
+     * over the entries of every directory on the current path, the roots
+     * being the entries of the outermost level.
+     */
+    private final class Walk extends AbstractIterator<File> {
+        /** The entries left to visit on each level, the innermost level first. */
+        private final Deque<Iterator<Path>> levels = new ArrayDeque<>();
+
+        /** The keys of the directories being traversed, to detect link cycles. */
+        private final Deque<Object> directoryKeys = new ArrayDeque<>();
+
+        /** Creates a traversal which starts with the roots. */
+        Walk() {
+            final List<Path> paths = Lists.newArrayList();
+            for (final File root : roots) {
+                paths.add(root.toPath());
+            }
+            levels.push(paths.iterator());
+        }
+
+        @Override
+        protected File computeNext() {
+            while (!levels.isEmpty()) {
+                final Iterator<Path> entries = levels.peek();
+                if (entries.hasNext()) {
+                    final File file = visit(entries.next());
+                    if (file != null) {
+                        return file;
+                    }
+                }
+                else {
+                    levels.pop();
+                    if (!levels.isEmpty()) {
+                        directoryKeys.pop();
+                    }
+                }
+            }
+            return endOfData();
+        }
+
+        /**
+         * Visits an entry of the current level.
+         * @param path the entry
+         * @return the entry if it is a file to return, null otherwise
+         */
+        private File visit(Path path) {
+            File result = null;
+            try {
+                final BasicFileAttributes attributes =
+                    Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isDirectory()) {
+                    if (isTraversed(path, attributes)) {
+                        enter(path, attributes.fileKey());
+                    }
+                }
+                else if (attributes.isRegularFile() && Files.isReadable(path)) {
+                    result = path.toFile();
+                }
+            }
+            catch (final IOException ignored) {
+                // the entry vanished or cannot be read, like a missing root
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether a directory is to be traversed.
+         * @param directory the directory
+         * @param attributes the attributes of the directory
+         * @return true unless the directory is excluded or already traversed
+         */
+        private boolean isTraversed(Path directory, BasicFileAttributes attributes) {
+            final boolean root = levels.size() == 1;
+            final Path name = directory.getFileName();
+            final boolean excluded = !root && name != null
+                && excludedDirectories.contains(name.toString());
+            final Object key = attributes.fileKey();
+            return !excluded && (key == null || !directoryKeys.contains(key));
+        }
+
+        /**
+         * Makes the entries of a directory the current level.
+         * @param directory the directory
+         * @param key the key of the directory, may be null
+         * @throws IOException if the directory cannot be read
+         */
+        private void enter(Path directory, Object key) throws IOException {
+            final List<Path> entries = Lists.newArrayList();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (final Path entry : stream) {
+                    entries.add(entry);
+                }
+            }
+            catch (final DirectoryIteratorException ex) {
+                throw ex.getCause();
+            }
+            levels.push(entries.iterator());
+            if (key == null) {
+                directoryKeys.push(NO_KEY);
+            }
+            else {
+                directoryKeys.push(key);
+            }
+        }
+    }
+}
@@ -25,9 +25,12 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -36,7 +39,10 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.io.Closeables;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
@@ -67,6 +73,21 @@ public final class Main {
     /** Name for the option 'o'. */
     private static final String OPTION_O_NAME = "o";
 
+    /** Name for the option 't'. */
+    private static final String OPTION_T_NAME = "t";
+
+    /** Name for the option 'd'. */
+    private static final String OPTION_D_NAME = "d";
+
+    /** Name for the option 'e'. */
+    private static final String OPTION_E_NAME = "e";
+
+    /** Name for the option 'r'. */
+    private static final String OPTION_R_NAME = "r";
+
+    /** Largest TCP port number. */
+    private static final int MAX_PORT = 65535;
+
     /** Name for 'xml' format. */
     private static final String XML_FORMAT_NAME = "xml";
 
@@ -203,10 +224,8 @@ public final class Main {
                     result.add(String.format("Permission denied : '%s'.", outputLocation));
                 }
             }
-            final List<File> files = getFilesToProcess(cmdLine.getArgs());
-            if (files.isEmpty()) {
-                result.add("Must specify files to process, found 0.");
-            }
+            result.addAll(validateThreadCount(cmdLine));
+            result.addAll(validateFilesOrDaemon(cmdLine));
         }
         else {
             result.add("Must specify a config XML file.");
@@ -215,6 +234,83 @@ public final class Main {
         return result;
     }
 
+    /**
+     * Validates the number of threads if it is specified.
+     * @param cmdLine command line object
+     * @return list of violations
+     */
+    private static List<String> validateThreadCount(CommandLine cmdLine) {
+        final List<String> result = new ArrayList<>();
+        if (cmdLine.hasOption(OPTION_T_NAME)) {
+            final String threadCount = cmdLine.getOptionValue(OPTION_T_NAME);
+            if (!isPositiveInteger(threadCount)) {
+                result.add(String.format("Invalid number of threads."
+                        + " Found '%s' but expected a positive integer.", threadCount));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Validates the port of the daemon mode, or the files to process if
+     * Checkstyle is not run as a daemon.
+     * @param cmdLine command line object
+     * @return list of violations
+     */
+    private static List<String> validateFilesOrDaemon(CommandLine cmdLine) {
+        final List<String> result = new ArrayList<>();
+        if (cmdLine.hasOption(OPTION_D_NAME)) {
+            final String port = cmdLine.getOptionValue(OPTION_D_NAME);
+            if (!isPort(port)) {
+                result.add(String.format("Invalid port."
+                        + " Found '%s' but expected an integer from 0 to %d.", port, MAX_PORT));
+            }
+            if (cmdLine.hasOption(OPTION_O_NAME)) {
+                result.add("Output file can not be set in daemon mode.");
+            }
+            if (cmdLine.hasOption(OPTION_R_NAME)) {
+                result.add("Profile file can not be set in daemon mode.");
+            }
+        }
+        else {
+            final FileWalker files = getFilesToProcess(getExcludedDirectories(cmdLine),
+                    cmdLine.getArgs());
+            if (files.isEmpty()) {
+                result.add("Must specify files to process, found 0.");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a string is a TCP port number.
+     * @param value the string to check
+     * @return true if the string denotes an integer from 0 to {@link #MAX_PORT}
+     */
+    private static boolean isPort(String value) {
+        try {
+            final int port = Integer.parseInt(value);
+            return port >= 0 && port <= MAX_PORT;
+        }
+        catch (final NumberFormatException ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a string is a positive decimal integer.
+     * @param value the string to check
+     * @return true if the string denotes a positive integer
+     */
+    private static boolean isPositiveInteger(String value) {
+        try {
+            return Integer.parseInt(value) > 0;
+        }
+        catch (final NumberFormatException ignored) {
+            return false;
+        }
+    }
+
     /**
      * Util method to convert CommandLine type to POJO object.
      * @param cmdLine command line object
@@ -229,7 +325,15 @@ public final class Main {
         conf.outputLocation = cmdLine.getOptionValue(OPTION_O_NAME);
         conf.configLocation = cmdLine.getOptionValue(OPTION_C_NAME);
         conf.propertiesLocation = cmdLine.getOptionValue(OPTION_P_NAME);
-        conf.files = getFilesToProcess(cmdLine.getArgs());
+        conf.profileLocation = cmdLine.getOptionValue(OPTION_R_NAME);
+        if (cmdLine.hasOption(OPTION_T_NAME)) {
+            conf.threadCount = Integer.parseInt(cmdLine.getOptionValue(OPTION_T_NAME));
+        }
+        if (cmdLine.hasOption(OPTION_D_NAME)) {
+            conf.port = Integer.valueOf(cmdLine.getOptionValue(OPTION_D_NAME));
+        }
+        conf.excludedDirectories = getExcludedDirectories(cmdLine);
+        conf.files = getFilesToProcess(conf.excludedDirectories, cmdLine.getArgs());
         return conf;
     }
 
@@ -245,37 +349,26 @@ public final class Main {
      */
     private static int runCheckstyle(CliOptions cliOptions)
             throws CheckstyleException, FileNotFoundException {
-        // setup the properties
-        final Properties props;
-
-        if (cliOptions.propertiesLocation == null) {
-            props = System.getProperties();
-        }
-        else {
-            props = loadProperties(new File(cliOptions.propertiesLocation));
+        if (cliOptions.port != null) {
+            runDaemon(cliOptions);
+            return 0;
         }
 
-        // create a configuration
-        final Configuration config = ConfigurationLoader.loadConfiguration(
-                cliOptions.configLocation, new PropertiesExpander(props));
+        final Checker checker = createChecker(cliOptions.configLocation,
+                cliOptions.propertiesLocation, cliOptions.threadCount);
 
         // create a listener for output
         final AuditListener listener = createListener(cliOptions.format, cliOptions.outputLocation);
 
-        // create Checker object and run it
+        // run Checker
         int errorCounter = 0;
-        final Checker checker = new Checker();
-
         try {
-
-            final ClassLoader moduleClassLoader = Checker.class.getClassLoader();
-            checker.setModuleClassLoader(moduleClassLoader);
-            checker.configure(config);
             checker.addListener(listener);
-
-            // run Checker
+            if (cliOptions.profileLocation != null) {
+                checker.addListener(new ProfileLogger(System.out, false,
+                        new FileOutputStream(cliOptions.profileLocation), true));
+            }
             errorCounter = checker.process(cliOptions.files);
-
         }
         finally {
             checker.destroy();
@@ -284,6 +377,68 @@ public final class Main {
         return errorCounter;
     }
 
+    /**
+     * Serves audit requests on a loopback port until the process is stopped.
+     * @param cliOptions
+     *        pojo object that contains all options
+     * @throws CheckstyleException
+     *         when the port could not be opened
+     */
+    private static void runDaemon(CliOptions cliOptions) throws CheckstyleException {
+        try (ServerSocket serverSocket = new ServerSocket(cliOptions.port, 0,
+                InetAddress.getLoopbackAddress())) {
+            System.out.println(String.format("Checkstyle daemon listening on port %d.",
+                    serverSocket.getLocalPort()));
+            new AuditDaemon(serverSocket, cliOptions.configLocation,
+                    cliOptions.propertiesLocation, cliOptions.format,
+                    cliOptions.threadCount, cliOptions.excludedDirectories).run();
+        }
+        catch (final IOException ex) {
+            throw new CheckstyleException(String.format(
+                    "Unable to serve audit requests on port %d.", cliOptions.port), ex);
+        }
+    }
+
+    /**
+     * Creates a Checker and configures it.
+     * @param configLocation
+     *        location of the configuration
+     * @param propertiesLocation
+     *        location of the properties file, null to use the system properties
+     * @param threadCount
+     *        number of threads to audit files with, 0 to keep the number
+     *        of the configuration
+     * @return the configured Checker
+     * @throws CheckstyleException
+     *         when the properties file or the configuration could not be loaded
+     */
+    static Checker createChecker(String configLocation, String propertiesLocation,
+            int threadCount) throws CheckstyleException {
+        // setup the properties
+        final Properties props;
+
+        if (propertiesLocation == null) {
+            props = System.getProperties();
+        }
+        else {
+            props = loadProperties(new File(propertiesLocation));
+        }
+
+        // create a configuration
+        final Configuration config = ConfigurationLoader.loadConfiguration(
+                configLocation, new PropertiesExpander(props));
+
+        // create Checker object
+        final Checker checker = new Checker();
+        final ClassLoader moduleClassLoader = Checker.class.getClassLoader();
+        checker.setModuleClassLoader(moduleClassLoader);
+        checker.configure(config);
+        if (threadCount > 0) {
+            checker.setThreadCount(threadCount);
+        }
+        return checker;
+    }
+
     /**
      * Loads properties from a File.
      * @param file
@@ -336,6 +491,27 @@ public final class Main {
             closeOutputStream = false;
         }
 
+        try {
+            return createListener(format, out, closeOutputStream);
+        }
+        catch (final IllegalStateException ex) {
+            if (closeOutputStream) {
+                CommonUtils.close(out);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Creates the audit listener that writes to a stream.
+     *
+     * @param format format of the audit listener
+     * @param out the stream to write to
+     * @param closeOutputStream whether the listener closes the stream when the audit ends
+     * @return a fresh new {@code AuditListener}
+     */
+    static AuditListener createListener(String format, OutputStream out,
+                                        boolean closeOutputStream) {
         // setup a listener
         AuditListener listener;
         if (XML_FORMAT_NAME.equals(format)) {
@@ -347,9 +523,6 @@ public final class Main {
 
         }
         else {
-            if (closeOutputStream) {
-                CommonUtils.close(out);
-            }
             throw new IllegalStateException(String.format(
                     "Invalid output format. Found '%s' but expected '%s' or '%s'.",
                     format, PLAIN_FORMAT_NAME, XML_FORMAT_NAME));
@@ -359,47 +532,37 @@ public final class Main {
     }
 
     /**
-     * Determines the files to process.
-     * @param filesToProcess
-     *        arguments that were not processed yet but shall be
-     * @return list of files to process
+     * Determines the names of the directories not to traverse.
+     * @param cmdLine command line object
+     * @return the default names and those given with the 'e' option
      */
-    private static List<File> getFilesToProcess(String... filesToProcess) {
-        final List<File> files = Lists.newLinkedList();
-        for (String element : filesToProcess) {
-            files.addAll(listFiles(new File(element)));
+    private static Set<String> getExcludedDirectories(CommandLine cmdLine) {
+        final Set<String> result = Sets.newHashSet(FileWalker.DEFAULT_EXCLUDED_DIRECTORIES);
+        if (cmdLine.hasOption(OPTION_E_NAME)) {
+            for (final String names : cmdLine.getOptionValues(OPTION_E_NAME)) {
+                Iterables.addAll(result,
+                        Splitter.on(',').trimResults().omitEmptyStrings().split(names));
+            }
         }
-
-        return files;
+        return result;
     }
 
     /**
-     * Traverses a specified node looking for files to check. Found files are added to a specified
-     * list. Subdirectories are also traversed.
-     * @param node
-     *        the node to process
-     * @return found files
+     * Determines the files to process. The files are found while they are
+     * processed, so that the audit starts with the first file found.
+     * @param excludedDirectories
+     *        names of the directories not to traverse
+     * @param filesToProcess
+     *        arguments that were not processed yet but shall be
+     * @return the files to process
      */
-    private static List<File> listFiles(File node) {
-        // could be replaced with org.apache.commons.io.FileUtils.list() method
-        // if only we add commons-io library
-        final List<File> result = Lists.newLinkedList();
-
-        if (node.canRead()) {
-            if (node.isDirectory()) {
-                final File[] files = node.listFiles();
-                // listFiles() can return null, so we need to check it
-                if (files != null) {
-                    for (File element : files) {
-                        result.addAll(listFiles(element));
-                    }
-                }
-            }
-            else if (node.isFile()) {
-                result.add(node);
-            }
+    static FileWalker getFilesToProcess(Set<String> excludedDirectories,
+            String... filesToProcess) {
+        final List<File> roots = Lists.newArrayList();
+        for (String element : filesToProcess) {
+            roots.add(new File(element));
         }
-        return result;
+        return new FileWalker(roots, excludedDirectories);
     }
 
     /** Prints the usage information. **/
@@ -421,6 +584,14 @@ public final class Main {
         options.addOption(OPTION_F_NAME, true, String.format(
                 "Sets the output format. (%s|%s). Defaults to %s",
                 PLAIN_FORMAT_NAME, XML_FORMAT_NAME, PLAIN_FORMAT_NAME));
+        options.addOption(OPTION_T_NAME, true,
+                "Sets the number of threads to audit files with. Defaults to 1");
+        options.addOption(OPTION_D_NAME, true,
+                "Runs as a daemon that audits files sent to the given port");
+        options.addOption(OPTION_E_NAME, true,
+                "Sets names of directories to skip, separated by commas");
+        options.addOption(OPTION_R_NAME, true,
+                "Prints where the time goes and writes it to the given file");
         options.addOption(OPTION_V_NAME, false, "Print product version and exit");
         return options;
     }
@@ -435,7 +606,15 @@ public final class Main {
         private String format;
         /** Output file location. */
         private String outputLocation;
-        /** List of file to validate. */
-        private List<File> files;
+        /** Profile file location, null if the audit is not profiled. */
+        private String profileLocation;
+        /** Files to validate. */
+        private FileWalker files;
+        /** Names of the directories not to traverse. */
+        private Set<String> excludedDirectories;
+        /** Number of threads to audit files with, 0 if not given. */
+        private int threadCount;
+        /** Port of the daemon mode, null if not run as a daemon. */
+        private Integer port;
     }
 }
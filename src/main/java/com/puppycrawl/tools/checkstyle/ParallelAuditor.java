@@ -0,0 +1,378 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+
+/**
+ * Audits files on several worker threads for a {@link Checker}.
+ *
+ * <p>Every worker owns its own FileSetChecks and filters and processes the
+ * files assigned to it in the order they were submitted. All files of a
+ * directory are assigned to the same worker, so checks which look at
+ * sibling files see them in the same order as in a single threaded run.
+ * The directories are assigned to the workers round-robin, in the order
+ * of their first files.
+ *
+ * <p>Workers never wait for each other. They store the messages of every
+ * file they processed, and the thread which submits the files fires the
+ * events of the files in submission order, whenever the next file is done.
+ * This way listeners receive the events of the files on one thread, in
+ * submission order and never interleaved.
+ *
+ * @author the original author or authors.
+ */
+final class ParallelAuditor {
+    /** Marks the end of the files for a worker. */
+    private static final FileTask END_OF_FILES = new FileTask(-1, null);
+
+    /** The checker to process files and dispatch events with. */
+    private final Checker checker;
+
+    /** The queues of files, one per worker. */
+    private final List<BlockingQueue<FileTask>> queues = Lists.newArrayList();
+
+    /** The queue of the worker of each directory seen so far. */
+    private final Map<String, BlockingQueue<FileTask>> directoryQueues = Maps.newHashMap();
+
+    /** The worker threads. */
+    private final List<Thread> workers = Lists.newArrayList();
+
+    /** Lock guarding the results and the failure state. */
+    private final Object lock = new Object();
+
+    /** The results of the processed files whose events were not fired yet. */
+    private final Map<Integer, FileResult> results = Maps.newHashMap();
+
+    /** Number of files submitted so far. */
+    private int submitted;
+
+    /** Index of the file whose events are to be fired next. */
+    private int nextToDispatch;
+
+    /**
+     * Index of the first file which failed, or -1 if processing was
+     * aborted. Workers skip all files after it.
+     */
+    private int failedIndex = Integer.MAX_VALUE;
+
+    /** The unexpected error which terminated a worker. */
+    private Throwable unexpectedError;
+
+    /**
+     * Creates the auditor and starts its worker threads.
+     * @param checker the checker to process files and dispatch events with
+     * @param workerChecks the FileSetChecks of each worker
+     * @param workerFilters the filters of each worker, in the same order
+     */
+    ParallelAuditor(Checker checker, List<List<FileSetCheck>> workerChecks,
+            List<FilterSet> workerFilters) {
+        this.checker = checker;
+        final Thread.UncaughtExceptionHandler handler = new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread thread, Throwable error) {
+                synchronized (lock) {
+                    if (unexpectedError == null) {
+                        unexpectedError = error;
+                    }
+                    failedIndex = -1;
+                    lock.notifyAll();
+                }
+            }
+        };
+        for (int i = 0; i < workerChecks.size(); i++) {
+            final BlockingQueue<FileTask> queue = new LinkedBlockingQueue<>();
+            final Thread worker = new Thread(
+                    new Worker(queue, workerChecks.get(i), workerFilters.get(i)),
+                    "checkstyle-worker-" + workers.size());
+            worker.setDaemon(true);
+            worker.setUncaughtExceptionHandler(handler);
+            queues.add(queue);
+            workers.add(worker);
+        }
+        for (final Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Submits a file for processing and fires the events of the files
+     * processed so far, as far as they are next in submission order.
+     * @param file the file to process
+     */
+    void submit(File file) {
+        final String directory = file.getAbsoluteFile().getParent();
+        BlockingQueue<FileTask> queue = directoryQueues.get(directory);
+        if (queue == null) {
+            queue = queues.get(directoryQueues.size() % queues.size());
+            directoryQueues.put(directory, queue);
+        }
+        queue.add(new FileTask(submitted, file));
+        synchronized (lock) {
+            submitted++;
+        }
+        FileResult result = takeNextResult();
+        while (result != null && result.exception == null) {
+            checker.fireFileAudit(result.fileName, result.messages);
+            result = takeNextResult();
+        }
+    }
+
+    /**
+     * Waits until all submitted files are processed and fires their events.
+     * @throws CheckstyleException if processing of a file failed
+     */
+    void finish() throws CheckstyleException {
+        for (final BlockingQueue<FileTask> queue : queues) {
+            queue.add(END_OF_FILES);
+        }
+        try {
+            FileResult result = awaitNextResult();
+            while (result != null) {
+                if (result.exception != null) {
+                    checker.fireFileStarted(result.fileName);
+                    throw result.exception;
+                }
+                checker.fireFileAudit(result.fileName, result.messages);
+                result = awaitNextResult();
+            }
+        }
+        finally {
+            abort();
+            joinWorkers();
+        }
+    }
+
+    /**
+     * Takes the result of the file whose events are to be fired next, if it
+     * is processed successfully.
+     * @return the result, or null if the file is not processed yet or failed
+     */
+    private FileResult takeNextResult() {
+        synchronized (lock) {
+            FileResult result = results.get(nextToDispatch);
+            if (result != null && result.exception == null) {
+                results.remove(nextToDispatch);
+                nextToDispatch++;
+            }
+            else {
+                result = null;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Waits for the result of the file whose events are to be fired next.
+     * @return the result, or null if the events of all files are fired
+     * @throws CheckstyleException if interrupted while waiting
+     */
+    private FileResult awaitNextResult() throws CheckstyleException {
+        synchronized (lock) {
+            FileResult result = null;
+            if (nextToDispatch < submitted) {
+                try {
+                    while (unexpectedError == null && !results.containsKey(nextToDispatch)) {
+                        lock.wait();
+                    }
+                }
+                catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new CheckstyleException("Interrupted while waiting for workers", ex);
+                }
+                if (unexpectedError != null) {
+                    throw new IllegalStateException("Worker terminated unexpectedly",
+                            unexpectedError);
+                }
+                result = results.remove(nextToDispatch);
+                nextToDispatch++;
+            }
+            return result;
+        }
+    }
+
+    /** Stops all workers after their current file. */
+    private void abort() {
+        synchronized (lock) {
+            failedIndex = -1;
+        }
+        for (final BlockingQueue<FileTask> queue : queues) {
+            queue.add(END_OF_FILES);
+        }
+    }
+
+    /** Waits until all workers stopped, unless the waiting thread is interrupted. */
+    private void joinWorkers() {
+        try {
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+        }
+        catch (final InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records the result of a processed file.
+     * @param index the index of the file
+     * @param result the result
+     */
+    private void complete(int index, FileResult result) {
+        synchronized (lock) {
+            results.put(index, result);
+            if (result.exception != null && index < failedIndex) {
+                failedIndex = index;
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Checks whether a file still needs to be processed, which is not the
+     * case after an earlier file failed.
+     * @param index the index of the file
+     * @return true if the file is to be processed
+     */
+    private boolean isNeeded(int index) {
+        synchronized (lock) {
+            return index < failedIndex;
+        }
+    }
+
+    /**
+     * Processes the files of a queue with the FileSetChecks of one worker.
+     */
+    private final class Worker implements Runnable {
+        /** The files to process. */
+        private final BlockingQueue<FileTask> queue;
+
+        /** The FileSetChecks of this worker. */
+        private final List<FileSetCheck> checks;
+
+        /** The filters of this worker. */
+        private final FilterSet filters;
+
+        /**
+         * Creates a new worker.
+         * @param queue the files to process
+         * @param checks the FileSetChecks of this worker
+         * @param filters the filters of this worker
+         */
+        Worker(BlockingQueue<FileTask> queue, List<FileSetCheck> checks, FilterSet filters) {
+            this.queue = queue;
+            this.checks = checks;
+            this.filters = filters;
+        }
+
+        @Override
+        public void run() {
+            try {
+                FileTask task = queue.take();
+                while (task != END_OF_FILES && isNeeded(task.index)) {
+                    complete(task.index, process(task));
+                    task = queue.take();
+                }
+            }
+            catch (final InterruptedException ignored) {
+                abort();
+            }
+        }
+
+        /**
+         * Processes a file.
+         * @param task the file to process
+         * @return the result of the file
+         */
+        private FileResult process(FileTask task) {
+            final String fileName = task.file.getAbsolutePath();
+            SortedSet<LocalizedMessage> messages = null;
+            CheckstyleException exception = null;
+            try {
+                messages = checker.processFile(task.file, checks, filters);
+            }
+            catch (final CheckstyleException ex) {
+                exception = ex;
+            }
+            return new FileResult(fileName, messages, exception);
+        }
+    }
+
+    /**
+     * A file together with its position in the submission order.
+     */
+    private static final class FileTask {
+        /** The position of the file in the submission order. */
+        private final int index;
+
+        /** The file. */
+        private final File file;
+
+        /**
+         * Creates a new task.
+         * @param index the position of the file in the submission order
+         * @param file the file
+         */
+        FileTask(int index, File file) {
+            this.index = index;
+            this.file = file;
+        }
+    }
+
+    /**
+     * The messages accepted by the filters for a processed file, or the
+     * exception which failed it.
+     */
+    private static final class FileResult {
+        /** The absolute name of the file. */
+        private final String fileName;
+
+        /** The accepted messages, null if the file failed. */
+        private final SortedSet<LocalizedMessage> messages;
+
+        /** The exception which failed the file, null if it succeeded. */
+        private final CheckstyleException exception;
+
+        /**
+         * Creates a new result.
+         * @param fileName the absolute name of the file
+         * @param messages the accepted messages, null if the file failed
+         * @param exception the exception which failed the file, null if it succeeded
+         */
+        FileResult(String fileName, SortedSet<LocalizedMessage> messages,
+                CheckstyleException exception) {
+            this.fileName = fileName;
+            this.messages = messages;
+            this.exception = exception;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditProfile;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.ProfileListener;
+
+/**
+ * Logger for the profile of an audit. It prints a table of the modules and
+ * phases the audit spent its time in, the hottest first, and can write the
+ * profile as comma separated values with the columns module, phase, calls
+ * and nanoseconds.
+ *
+ * @author the original author or authors.
+ */
+public class ProfileLogger
+    extends AutomaticBean
+    implements ProfileListener {
+    /** Nanoseconds in a millisecond. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** Format of the header and rows of the table. */
+    private static final String TABLE_FORMAT = "%-40s %-18s %12s %12s%n";
+
+    /** Where to print the table. */
+    private final PrintWriter tableWriter;
+    /** Close table stream after use. */
+    private final boolean closeTable;
+
+    /** Where to write the profile, null if it is not written. */
+    private final PrintWriter profileWriter;
+    /** Close profile stream after use. */
+    private final boolean closeProfile;
+
+    /** The profile of the current audit. */
+    private AuditProfile profile;
+
+    /**
+     * Creates a new {@code ProfileLogger} instance.
+     * @param tableStream the {@code OutputStream} for the table
+     * @param closeTableAfterUse auditFinished should close tableStream
+     * @param profileStream the {@code OutputStream} for the profile, may be null
+     * @param closeProfileAfterUse auditFinished should close profileStream
+     */
+    public ProfileLogger(OutputStream tableStream,
+                         boolean closeTableAfterUse,
+                         OutputStream profileStream,
+                         boolean closeProfileAfterUse) {
+        tableWriter = createWriter(tableStream);
+        closeTable = closeTableAfterUse;
+        if (profileStream == null) {
+            profileWriter = null;
+        }
+        else {
+            profileWriter = createWriter(profileStream);
+        }
+        closeProfile = closeProfileAfterUse;
+    }
+
+    /**
+     * Creates a UTF-8 writer for a stream.
+     * @param stream the stream
+     * @return the writer
+     */
+    private static PrintWriter createWriter(OutputStream stream) {
+        return new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void auditStarted(AuditEvent evt) {
+        profile = null;
+    }
+
+    @Override
+    public void auditProfiled(AuditEvent evt, AuditProfile auditProfile) {
+        profile = auditProfile;
+    }
+
+    @Override
+    public void auditFinished(AuditEvent evt) {
+        if (profile != null) {
+            printTable();
+            if (profileWriter != null) {
+                writeProfile();
+            }
+        }
+        closeStreams();
+    }
+
+    /** Prints the sections of the profile as a table, the hottest first. */
+    private void printTable() {
+        tableWriter.format(Locale.ROOT, TABLE_FORMAT, "Module", "Phase", "Calls", "Time (ms)");
+        for (AuditProfile.Section section : profile.getSections()) {
+            tableWriter.format(Locale.ROOT, TABLE_FORMAT, section.getModule(),
+                section.getPhase(), section.getCount(),
+                String.format(Locale.ROOT, "%.3f", section.getNanos() / NANOS_PER_MILLI));
+        }
+    }
+
+    /** Writes the sections of the profile as comma separated values. */
+    private void writeProfile() {
+        profileWriter.println("module,phase,calls,nanos");
+        for (AuditProfile.Section section : profile.getSections()) {
+            profileWriter.format(Locale.ROOT, "%s,%s,%d,%d%n", section.getModule(),
+                section.getPhase(), section.getCount(), section.getNanos());
+        }
+    }
+
+    @Override
+    public void fileStarted(AuditEvent evt) {
+        // No need to implement this method in this class
+    }
+
+    @Override
+    public void fileFinished(AuditEvent evt) {
+        // No need to implement this method in this class
+    }
+
+    @Override
+    public void addError(AuditEvent evt) {
+        // No need to implement this method in this class
+    }
+
+    @Override
+    public void addException(AuditEvent evt, Throwable throwable) {
+        // No need to implement this method in this class
+    }
+
+    /**
+     * Flushes the output streams and closes them if needed.
+     */
+    private void closeStreams() {
+        tableWriter.flush();
+        if (closeTable) {
+            tableWriter.close();
+        }
+
+        if (profileWriter != null) {
+            profileWriter.flush();
+            if (closeProfile) {
+                profileWriter.close();
+            }
+        }
+    }
+}
@@ -19,43 +19,73 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Properties;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import com.google.common.collect.Maps;
 import com.google.common.io.Closeables;
 import com.google.common.io.Flushables;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessages;
 
 /**
  * This class maintains a persistent(on file-system) store of the files
- * that have checked ok(no validation events) and their associated
- * timestamp. It is used to optimize Checkstyle between few launches.
+ * that have been checked, a digest of their contents and the messages
+ * reported for them. It is used to optimize Checkstyle between few launches:
+ * a file whose contents did not change does not need to be checked again,
+ * its messages can be replayed instead.
  * It is mostly useful for plugin and extensions of Checkstyle.
- * It uses a property file
- * for storage.  A hashcode of the Configuration is stored in the
- * cache file to ensure the cache is invalidated when the
+ * The store is a binary file. A hashcode of the Configuration is stored in
+ * the cache file to ensure the cache is invalidated when the
  * configuration has changed.
  *
+ * <p>The messages of a file are recorded per module key, usually the
+ * hashcode of the configuration of the module which reported them, so
+ * a change to one module does not invalidate the messages of the others.
+ * The messages are kept in their binary form until they are requested,
+ * so loading the cache only costs reading the file.
+ *
  * @author Oliver Burn
  */
 final class PropertyCacheFile {
 
     /**
-     * The property key to use for storing the hashcode of the
-     * configuration. To avoid name clashes with the files that are
-     * checked the key is chosen in such a way that it cannot be a
-     * valid file name.
+     * Marks the start of a cache file in the current format. Files which
+     * start differently were written by another version and are discarded.
      */
-    private static final String CONFIG_HASH_KEY = "configuration*?";
+    private static final int FILE_HEADER = 0x43534302;
+
+    /** Algorithm to digest configurations and file contents with. */
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    /** Name of the attribute which sets a cache file. */
+    private static final String CACHE_FILE_ATTRIBUTE = "cacheFile";
 
     /** Hex digits. */
     private static final char[] HEX_CHARS = {
@@ -69,8 +99,8 @@ final class PropertyCacheFile {
     /** Bit shift. */
     private static final int SHIFT_4 = 4;
 
-    /** The details on files. **/
-    private final Properties details = new Properties();
+    /** The details on files, updated by the threads auditing the files. **/
+    private final Map<String, CachedFile> details = Maps.newConcurrentMap();
 
     /** Configuration object. **/
     private final Configuration config;
@@ -78,6 +108,9 @@ final class PropertyCacheFile {
     /** File name of cache. **/
     private final String fileName;
 
+    /** Hashcode of the configuration, calculated on load. **/
+    private String configHash;
+
     /**
      * Creates a new {@code PropertyCacheFile} instance.
      *
@@ -100,28 +133,38 @@ final class PropertyCacheFile {
      * @throws IOException when there is a problems with file read
      */
     void load() throws IOException {
-        // get the current config so if the file isn't found
-        // the first time the hash will be added to output file
-        final String currentConfigHash = getConfigHashCode(config);
-        if (new File(fileName).exists()) {
-            FileInputStream inStream = null;
+        configHash = getConfigHashCode(config);
+        final Path path = Paths.get(fileName);
+        if (Files.exists(path)) {
+            DataInputStream inStream = null;
             try {
-                inStream = new FileInputStream(fileName);
-                details.load(inStream);
-                final String cachedConfigHash = details.getProperty(CONFIG_HASH_KEY);
-                if (!currentConfigHash.equals(cachedConfigHash)) {
-                    // Detected configuration change - clear cache
-                    details.clear();
-                    details.setProperty(CONFIG_HASH_KEY, currentConfigHash);
-                }
+                inStream = new DataInputStream(
+                        new BufferedInputStream(Files.newInputStream(path)));
+                loadDetails(inStream);
+            }
+            catch (final EOFException ignored) {
+                // empty or truncated cache file, start over
+                details.clear();
             }
             finally {
                 Closeables.closeQuietly(inStream);
             }
         }
-        else {
-            // put the hash in the file if the file is going to be created
-            details.setProperty(CONFIG_HASH_KEY, currentConfigHash);
+    }
+
+    /**
+     * Reads the details on files, unless they were stored in another format
+     * or for another configuration.
+     * @param input the input to read from
+     * @throws IOException when there is a problems with file read
+     */
+    private void loadDetails(DataInput input) throws IOException {
+        if (input.readInt() == FILE_HEADER && configHash.equals(input.readUTF())) {
+            final int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                final String checkedFileName = input.readUTF();
+                details.put(checkedFileName, CachedFile.readFrom(input));
+            }
         }
     }
 
@@ -130,10 +173,17 @@ final class PropertyCacheFile {
      * @throws IOException  when there is a problems with file save
      */
     void persist() throws IOException {
-        FileOutputStream out = null;
+        DataOutputStream out = null;
         try {
-            out = new FileOutputStream(fileName);
-            details.store(out, null);
+            out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(Paths.get(fileName))));
+            out.writeInt(FILE_HEADER);
+            out.writeUTF(configHash);
+            out.writeInt(details.size());
+            for (Map.Entry<String, CachedFile> entry : details.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
         }
         finally {
             flushAndCloseOutStream(out);
@@ -153,24 +203,141 @@ final class PropertyCacheFile {
     }
 
     /**
-     * Checks that file is in cache.
-     * @param uncheckedFileName the file to check
-     * @param timestamp the timestamp of the file to check
-     * @return whether the specified file has already been checked ok
+     * Checks whether a file still has the size and modification time it had
+     * when its contents were recorded, so it can be assumed to be unchanged
+     * without reading it.
+     * @param checkedFileName the file to look up
+     * @param lastModified the current modification time of the file
+     * @param length the current length of the file
+     * @return true if the file is recorded with the same modification time and length
+     */
+    boolean isUnmodified(String checkedFileName, long lastModified, long length) {
+        final CachedFile cachedFile = details.get(checkedFileName);
+        return cachedFile != null
+            && cachedFile.lastModified == lastModified
+            && cachedFile.length == length;
+    }
+
+    /**
+     * Records the current contents of a file. The messages recorded for the
+     * file are kept if the contents did not change and dropped otherwise.
+     * @param checkedFileName the file to record
+     * @param contentDigest the digest of the current contents of the file
+     * @param lastModified the current modification time of the file
+     * @param length the current length of the file
      */
-    boolean isInCache(String uncheckedFileName, long timestamp) {
-        final String lastChecked = details.getProperty(uncheckedFileName);
-        return lastChecked != null
-            && lastChecked.equals(Long.toString(timestamp));
+    void setContents(String checkedFileName, byte[] contentDigest,
+            long lastModified, long length) {
+        final CachedFile cachedFile = details.get(checkedFileName);
+        final CachedFile updated = new CachedFile(contentDigest, lastModified, length);
+        if (cachedFile != null && Arrays.equals(cachedFile.contentDigest, contentDigest)) {
+            updated.messages.putAll(cachedFile.messages);
+        }
+        details.put(checkedFileName, updated);
     }
 
     /**
-     * Records that a file checked ok.
-     * @param checkedFileName name of the file that checked ok
-     * @param timestamp the timestamp of the file
+     * Adds the messages a module reported for the recorded contents of a
+     * file to a collector.
+     * @param checkedFileName the file to look up
+     * @param moduleKey the key the messages of the module are recorded with
+     * @param classLoader the class loader to load the sources of messages with
+     * @param collector the collector to add the messages to
+     * @return true if the messages were added, false if the file needs to be checked
      */
-    void put(String checkedFileName, long timestamp) {
-        details.setProperty(checkedFileName, Long.toString(timestamp));
+    boolean replay(String checkedFileName, String moduleKey, ClassLoader classLoader,
+            LocalizedMessages collector) {
+        final CachedFile cachedFile = details.get(checkedFileName);
+        List<LocalizedMessage> messages = null;
+        if (cachedFile != null) {
+            try {
+                messages = cachedFile.decodeMessages(moduleKey, classLoader);
+            }
+            catch (final IOException ignored) {
+                // the messages can not be restored, the file needs to be checked
+                messages = null;
+            }
+        }
+        if (messages != null) {
+            for (LocalizedMessage message : messages) {
+                collector.add(message);
+            }
+        }
+        return messages != null;
+    }
+
+    /**
+     * Records the messages a module reported for the recorded contents of a
+     * file. Nothing is recorded if the contents of the file were not recorded
+     * by {@link #setContents} before, or if the messages can not be stored.
+     * @param checkedFileName name of the file that was checked
+     * @param moduleKey the key to record the messages of the module with
+     * @param messages the messages reported for the file
+     */
+    void put(String checkedFileName, String moduleKey, Collection<LocalizedMessage> messages) {
+        final CachedFile cachedFile = details.get(checkedFileName);
+        if (cachedFile != null) {
+            try {
+                cachedFile.messages.put(moduleKey, encodeMessages(messages));
+            }
+            catch (final IOException ignored) {
+                cachedFile.messages.remove(moduleKey);
+            }
+        }
+    }
+
+    /**
+     * Records all files of another cache.
+     * @param other the cache to copy the records from
+     */
+    void putAll(PropertyCacheFile other) {
+        details.putAll(other.details);
+    }
+
+    /**
+     * Calculates the digest of the contents of a file.
+     * @param bytes the contents of the file
+     * @return the digest of {@code bytes}
+     */
+    static byte[] getContentDigest(byte... bytes) {
+        return createMessageDigest().digest(bytes);
+    }
+
+    /**
+     * Calculates the digest of the contents of a file.
+     * @param lines the lines of the file
+     * @return the digest of {@code lines}
+     */
+    static byte[] getContentDigest(List<String> lines) {
+        final MessageDigest digest = createMessageDigest();
+        for (String line : lines) {
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Writes a byte array prefixed with its length.
+     * @param output the output to write to
+     * @param bytes the bytes to write
+     * @throws IOException when there is a problems with file save
+     */
+    private static void writeBytes(DataOutput output, byte... bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a byte array written by {@link #writeBytes(DataOutput, byte...)}.
+     * @param input the input to read from
+     * @return the bytes
+     * @throws IOException when there is a problems with file read
+     */
+    private static byte[] readBytes(DataInput input) throws IOException {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
     }
 
     /**
@@ -179,7 +346,7 @@ final class PropertyCacheFile {
      * @param object the GlobalProperties
      * @return the hashcode for {@code object}
      */
-    private static String getConfigHashCode(Serializable object) {
+    static String getConfigHashCode(Serializable object) {
         try {
             // im-memory serialization of Configuration
 
@@ -197,7 +364,7 @@ final class PropertyCacheFile {
             // use a message digest here to keep the length of the
             // hashcode reasonable
 
-            final MessageDigest md = MessageDigest.getInstance("SHA-1");
+            final MessageDigest md = MessageDigest.getInstance(DIGEST_ALGORITHM);
             md.update(outputStream.toByteArray());
 
             return hexEncode(md.digest());
@@ -208,6 +375,80 @@ final class PropertyCacheFile {
         }
     }
 
+    /**
+     * Calculates the hashcode for a configuration. Besides the configuration
+     * itself it covers the contents of every file named by an attribute of
+     * the configuration or of its children, like a suppressions or a header
+     * file, so that the hashcode changes when such a file is edited. The
+     * cache files themselves are skipped.
+     *
+     * @param config the configuration
+     * @return the hashcode for {@code config}
+     */
+    static String getConfigHashCode(Configuration config) {
+        final String hashCode = getConfigHashCode((Serializable) config);
+        final MessageDigest digest = createMessageDigest();
+        String result = hashCode;
+        if (addResourceDigests(config, digest)) {
+            digest.update(hashCode.getBytes(StandardCharsets.UTF_8));
+            result = hexEncode(digest.digest());
+        }
+        return result;
+    }
+
+    /**
+     * Adds the digests of the files named by the attributes of a
+     * configuration and of its children to a digest.
+     * @param config the configuration
+     * @param digest the digest to add to
+     * @return true if any file was added
+     */
+    private static boolean addResourceDigests(Configuration config, MessageDigest digest) {
+        boolean added = false;
+        try {
+            for (String name : config.getAttributeNames()) {
+                final Path path = getResourcePath(config, name);
+                if (path != null) {
+                    digest.update(getContentDigest(Files.readAllBytes(path)));
+                    added = true;
+                }
+            }
+        }
+        catch (final IOException | CheckstyleException ex) {
+            throw new IllegalStateException("Unable to digest the files of a configuration.", ex);
+        }
+        for (Configuration child : config.getChildren()) {
+            added |= addResourceDigests(child, digest);
+        }
+        return added;
+    }
+
+    /**
+     * Gets the file named by an attribute of a configuration.
+     * @param config the configuration
+     * @param name the name of the attribute
+     * @return the path of the file, or null if the attribute does not name an
+     *     existing file or names a cache file
+     * @throws CheckstyleException if the attribute does not exist
+     */
+    private static Path getResourcePath(Configuration config, String name)
+            throws CheckstyleException {
+        final String value = config.getAttribute(name);
+        Path path = null;
+        if (value != null && !CACHE_FILE_ATTRIBUTE.equals(name)) {
+            try {
+                path = Paths.get(value);
+            }
+            catch (final InvalidPathException ignored) {
+                // not a file name
+            }
+            if (path != null && !Files.isRegularFile(path)) {
+                path = null;
+            }
+        }
+        return path;
+    }
+
     /**
      * Hex-encodes a byte array.
      * @param byteArray the byte array
@@ -223,4 +464,121 @@ final class PropertyCacheFile {
         }
         return buf.toString();
     }
+
+    /**
+     * Creates a digest to calculate the digest of file contents with.
+     * @return a new message digest
+     */
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to calculate content digest.", ex);
+        }
+    }
+
+    /**
+     * Encodes messages into their binary form.
+     * @param messages the messages to encode
+     * @return the binary form of the messages
+     * @throws IOException if a message can not be encoded
+     */
+    private static byte[] encodeMessages(Collection<LocalizedMessage> messages)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(messages.size());
+        for (LocalizedMessage message : messages) {
+            message.writeTo(out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The contents of a file and the messages recorded for them.
+     */
+    private static final class CachedFile {
+        /** The digest of the contents the messages were reported for. */
+        private final byte[] contentDigest;
+
+        /** The modification time of the file. */
+        private final long lastModified;
+
+        /** The length of the file. */
+        private final long length;
+
+        /** The binary form of the messages, by module key. */
+        private final Map<String, byte[]> messages = new HashMap<>();
+
+        /**
+         * Creates a new record without messages.
+         * @param contentDigest the digest of the contents of the file
+         * @param lastModified the modification time of the file
+         * @param length the length of the file
+         */
+        CachedFile(byte[] contentDigest, long lastModified, long length) {
+            this.contentDigest = contentDigest;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        /**
+         * Reads a record written by {@link #writeTo(DataOutput)}.
+         * @param input the input to read from
+         * @return the record
+         * @throws IOException when there is a problems with file read
+         */
+        static CachedFile readFrom(DataInput input) throws IOException {
+            final long lastModified = input.readLong();
+            final long length = input.readLong();
+            final CachedFile cachedFile =
+                new CachedFile(readBytes(input), lastModified, length);
+            final int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                final String moduleKey = input.readUTF();
+                cachedFile.messages.put(moduleKey, readBytes(input));
+            }
+            return cachedFile;
+        }
+
+        /**
+         * Writes this record.
+         * @param output the output to write to
+         * @throws IOException when there is a problems with file save
+         */
+        void writeTo(DataOutput output) throws IOException {
+            output.writeLong(lastModified);
+            output.writeLong(length);
+            writeBytes(output, contentDigest);
+            output.writeInt(messages.size());
+            for (Map.Entry<String, byte[]> entry : messages.entrySet()) {
+                output.writeUTF(entry.getKey());
+                writeBytes(output, entry.getValue());
+            }
+        }
+
+        /**
+         * Decodes the messages recorded for a module from their binary form.
+         * @param moduleKey the key the messages of the module are recorded with
+         * @param classLoader the class loader to load the sources of messages with
+         * @return the messages, or null if none are recorded for the module
+         * @throws IOException if the messages can not be decoded
+         */
+        List<LocalizedMessage> decodeMessages(String moduleKey, ClassLoader classLoader)
+                throws IOException {
+            final byte[] bytes = messages.get(moduleKey);
+            List<LocalizedMessage> result = null;
+            if (bytes != null) {
+                final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                final int count = in.readInt();
+                result = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    result.add(LocalizedMessage.readFrom(in, classLoader));
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -21,15 +21,15 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
 import antlr.CommonHiddenStreamToken;
 import antlr.RecognitionException;
 import antlr.Token;
@@ -37,8 +37,6 @@ import antlr.TokenStreamException;
 import antlr.TokenStreamHiddenTokenFilter;
 import antlr.TokenStreamRecognitionException;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.Check;
@@ -47,8 +45,12 @@ import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.Context;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.MergeableFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocModel;
+import com.puppycrawl.tools.checkstyle.grammars.CharSequenceInputBuffer;
 import com.puppycrawl.tools.checkstyle.grammars.GeneratedJavaLexer;
 import com.puppycrawl.tools.checkstyle.grammars.GeneratedJavaRecognizer;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
@@ -61,7 +63,8 @@ import com.puppycrawl.tools.checkstyle.utils.TokenUtils;
  * @author Oliver Burn
  */
 public final class TreeWalker
-    extends AbstractFileSetCheck {
+    extends AbstractFileSetCheck
+    implements MergeableFileSetCheck {
     /**
      * State of AST.
      * Indicates whether tree contains certain nodes.
@@ -81,13 +84,18 @@ public final class TreeWalker
     /** Default distance between tab stops. */
     private static final int DEFAULT_TAB_WIDTH = 8;
 
-    /** Maps from token name to ordinary checks. */
-    private final Multimap<String, Check> tokenToOrdinaryChecks =
-        HashMultimap.create();
+    /** Number of slots in the dispatch tables, the largest token id plus one. */
+    private static final int TOKEN_TABLE_SIZE =
+        NumberUtils.max(TokenUtils.getAllTokenIds()) + 1;
+
+    /** Checks registered for no token. */
+    private static final Check[] NO_CHECKS = new Check[0];
 
-    /** Maps from token name to comment checks. */
-    private final Multimap<String, Check> tokenToCommentChecks =
-            HashMultimap.create();
+    /** Ordinary checks indexed by the id of the token they are registered for. */
+    private final Check[][] tokenToOrdinaryChecks = createDispatchTable();
+
+    /** Comment checks indexed by the id of the token they are registered for. */
+    private final Check[][] tokenToCommentChecks = createDispatchTable();
 
     /** Registered ordinary checks, that don't use comment nodes. */
     private final Set<Check> ordinaryChecks = Sets.newHashSet();
@@ -95,21 +103,42 @@ public final class TreeWalker
     /** Registered comment checks. */
     private final Set<Check> commentChecks = Sets.newHashSet();
 
+    /** Ordinary checks which walk the current file. */
+    private Set<Check> walkingOrdinaryChecks = ordinaryChecks;
+
+    /** Comment checks which walk the current file. */
+    private Set<Check> walkingCommentChecks = commentChecks;
+
+    /** Ordinary checks which walk the current file, indexed by token id. */
+    private Check[][] walkingOrdinaryTable = tokenToOrdinaryChecks;
+
+    /** Comment checks which walk the current file, indexed by token id. */
+    private Check[][] walkingCommentTable = tokenToCommentChecks;
+
     /** The distance between tab stops. */
     private int tabWidth = DEFAULT_TAB_WIDTH;
 
-    /** Cache file. **/
-    private PropertyCacheFile cache;
+    /** Cache of the messages of the checks. **/
+    private final TreeWalkerCache cache = new TreeWalkerCache();
+
+    /** The parsed Javadoc comments of the current file. */
+    private final JavadocModel javadocModel = new JavadocModel();
 
     /** Class loader to resolve classes with. **/
     private ClassLoader classLoader;
 
+    /** Class loader the Checks were loaded with. **/
+    private ClassLoader moduleClassLoader = TreeWalker.class.getClassLoader();
+
     /** Context of child components. */
     private Context childContext;
 
     /** A factory for creating submodules (i.e. the Checks) */
     private ModuleFactory moduleFactory;
 
+    /** The time spent in the phases of this TreeWalker, null if not profiling. */
+    private TreeWalkerProfile profile;
+
     /**
      * Creates a new {@code TreeWalker} instance.
      */
@@ -131,10 +160,26 @@ public final class TreeWalker
      * @throws IOException if there are some problems with file loading
      */
     public void setCacheFile(String fileName) throws IOException {
-        final Configuration configuration = getConfiguration();
-        cache = new PropertyCacheFile(configuration, fileName);
+        cache.loadCacheFile(getConfiguration(), fileName);
+    }
+
+    /**
+     * Records the messages of the checks in the cache file of the Checker,
+     * unless a cache file is set for this TreeWalker.
+     * @param checkerCacheFile the cache file of the Checker
+     */
+    void useCacheFile(PropertyCacheFile checkerCacheFile) {
+        cache.useCacheFile(checkerCacheFile);
+    }
 
-        cache.load();
+    /**
+     * Checks whether this TreeWalker has holders, like
+     * {@link com.puppycrawl.tools.checkstyle.checks.FileContentsHolder},
+     * which keep the state of the current file for the filters.
+     * @return true if a holder is registered
+     */
+    boolean hasHolders() {
+        return cache.hasHolders();
     }
 
     /**
@@ -144,6 +189,15 @@ public final class TreeWalker
         this.classLoader = classLoader;
     }
 
+    /**
+     * Sets the class loader the Checks are loaded with. It is used to restore
+     * the messages of files from the cache.
+     * @param moduleClassLoader the class loader of the Checks
+     */
+    public void setModuleClassLoader(ClassLoader moduleClassLoader) {
+        this.moduleClassLoader = moduleClassLoader;
+    }
+
     /**
      * Sets the module factory for creating child modules (Checks).
      * @param moduleFactory the factory
@@ -152,11 +206,20 @@ public final class TreeWalker
         this.moduleFactory = moduleFactory;
     }
 
+    /**
+     * Starts to record the time spent in the phases of this TreeWalker and
+     * in its Checks. The time is added to the profile of the audit when this
+     * TreeWalker is destroyed.
+     * @param walkerProfile the profile to record the time in
+     */
+    void startProfiling(TreeWalkerProfile walkerProfile) {
+        profile = walkerProfile;
+    }
+
     @Override
     public void finishLocalSetup() {
         final DefaultContext checkContext = new DefaultContext();
         checkContext.add("classLoader", classLoader);
-        checkContext.add("messages", getMessageCollector());
         checkContext.add("severity", getSeverity());
         checkContext.add("tabWidth", String.valueOf(tabWidth));
 
@@ -178,16 +241,19 @@ public final class TreeWalker
         check.init();
 
         registerCheck(check);
+        cache.addCheck(check, getConfiguration(), childConf);
     }
 
     @Override
     protected void processFiltered(File file, List<String> lines) throws CheckstyleException {
-        // check if already checked and passed the file
-        final String fileName = file.getPath();
-        final long timestamp = file.lastModified();
-        if (cache != null
-                && (cache.isInCache(fileName, timestamp)
-                    || !CommonUtils.matchesFileExtension(file, getFileExtensions()))) {
+        if (!CommonUtils.matchesFileExtension(file, getFileExtensions())) {
+            return;
+        }
+
+        // checks replay their messages for unchanged files
+        final Set<Check> walkingChecks =
+            cache.replay(file, lines, moduleClassLoader, getMessageCollector());
+        if (cache.isReplayed(walkingChecks)) {
             return;
         }
 
@@ -196,31 +262,74 @@ public final class TreeWalker
         try {
             final FileText text = FileText.fromLines(file, lines);
             final FileContents contents = new FileContents(text);
+            final long parseStart = System.nanoTime();
             final DetailAST rootAST = parse(contents);
+            recordTime("parse", parseStart);
 
-            getMessageCollector().reset();
+            selectWalkingChecks(walkingChecks);
 
-            walk(rootAST, contents, AstState.ORDINARY);
-
-            final DetailAST astWithComments = appendHiddenCommentNodes(rootAST);
-
-            walk(astWithComments, contents, AstState.WITH_COMMENTS);
+            // checks share the parsed Javadoc comments until they finished
+            // the file
+            javadocModel.open();
+            try {
+                walkTrees(rootAST, contents);
+            }
+            finally {
+                javadocModel.release();
+            }
         }
         catch (final TokenStreamRecognitionException tre) {
             final String exceptionMsg = String.format(msg, "TokenStreamRecognitionException",
-                     fileName);
+                     file.getPath());
             throw new CheckstyleException(exceptionMsg, tre);
         }
         catch (RecognitionException | TokenStreamException ex) {
-            final String exceptionMsg = String.format(msg, ex.getClass().getSimpleName(), fileName);
+            final String exceptionMsg = String.format(msg, ex.getClass().getSimpleName(),
+                file.getPath());
             throw new CheckstyleException(exceptionMsg, ex);
         }
 
-        if (cache != null && getMessageCollector().size() == 0) {
-            cache.put(fileName, timestamp);
+        cache.collect(file, walkingChecks, getMessageCollector());
+    }
+
+    /**
+     * Records the time of a phase of this TreeWalker, if profiling.
+     * @param phase the name of the phase
+     * @param start the value of {@link System#nanoTime()} at the start of the phase
+     */
+    private void recordTime(String phase, long start) {
+        if (profile != null) {
+            profile.recordPhase(phase, start);
         }
     }
 
+    /**
+     * Restricts the walk of the current file to some of the registered checks.
+     * @param walkingChecks the checks to walk the file
+     */
+    private void selectWalkingChecks(Set<Check> walkingChecks) {
+        if (walkingChecks.size() == ordinaryChecks.size() + commentChecks.size()) {
+            walkingOrdinaryChecks = ordinaryChecks;
+            walkingCommentChecks = commentChecks;
+            walkingOrdinaryTable = tokenToOrdinaryChecks;
+            walkingCommentTable = tokenToCommentChecks;
+        }
+        else if (!Sets.union(walkingOrdinaryChecks, walkingCommentChecks)
+                .equals(walkingChecks)) {
+            walkingOrdinaryChecks = Sets.intersection(ordinaryChecks, walkingChecks)
+                .immutableCopy();
+            walkingCommentChecks = Sets.intersection(commentChecks, walkingChecks)
+                .immutableCopy();
+            walkingOrdinaryTable = filterDispatchTable(tokenToOrdinaryChecks, walkingChecks);
+            walkingCommentTable = filterDispatchTable(tokenToCommentChecks, walkingChecks);
+        }
+    }
+
+    @Override
+    public void merge(FileSetCheck other) {
+        cache.merge(((TreeWalker) other).cache);
+    }
+
     /**
      * Register a check for a given configuration.
      * @param check the check to register
@@ -243,7 +352,7 @@ public final class TreeWalker
             for (String token : checkTokens) {
                 final int tokenId = TokenUtils.getTokenId(token);
                 if (Arrays.binarySearch(acceptableTokens, tokenId) >= 0) {
-                    registerCheck(token, check);
+                    registerCheck(tokenId, check);
                 }
                 else {
                     final String message = String.format("Token \"%s\" was not found in "
@@ -266,33 +375,64 @@ public final class TreeWalker
 
     /**
      * Register a check for a specified token id.
-     * @param tokenID the id of the token
+     * @param tokenId the id of the token
      * @param check the check to register
      * @throws CheckstyleException if Check is misconfigured
      */
-    private void registerCheck(int tokenID, Check check) throws CheckstyleException {
-        registerCheck(TokenUtils.getTokenName(tokenID), check);
-    }
-
-    /**
-     * Register a check for a specified token name.
-     * @param token the name of the token
-     * @param check the check to register
-     * @throws CheckstyleException if Check is misconfigured
-     */
-    private void registerCheck(String token, Check check) throws CheckstyleException {
+    private void registerCheck(int tokenId, Check check) throws CheckstyleException {
         if (check.isCommentNodesRequired()) {
-            tokenToCommentChecks.put(token, check);
+            addToDispatchTable(tokenToCommentChecks, tokenId, check);
         }
-        else if (TokenUtils.isCommentType(token)) {
+        else if (TokenUtils.isCommentType(tokenId)) {
             final String message = String.format("Check '%s' waits for comment type "
                     + "token ('%s') and should override 'isCommentNodesRequired()' "
-                    + "method to return 'true'", check.getClass().getName(), token);
+                    + "method to return 'true'", check.getClass().getName(),
+                    TokenUtils.getTokenName(tokenId));
             throw new CheckstyleException(message);
         }
         else {
-            tokenToOrdinaryChecks.put(token, check);
+            addToDispatchTable(tokenToOrdinaryChecks, tokenId, check);
+        }
+    }
+
+    /**
+     * Creates a dispatch table with an empty list of checks for every token id.
+     * @return the new dispatch table
+     */
+    private static Check[][] createDispatchTable() {
+        final Check[][] table = new Check[TOKEN_TABLE_SIZE][];
+        Arrays.fill(table, NO_CHECKS);
+        return table;
+    }
+
+    /**
+     * Adds a check to the dispatch table slot of a token, unless it is already there.
+     * @param table the dispatch table
+     * @param tokenId the id of the token
+     * @param check the check to add
+     */
+    private static void addToDispatchTable(Check[][] table, int tokenId, Check check) {
+        if (!ArrayUtils.contains(table[tokenId], check)) {
+            table[tokenId] = ArrayUtils.add(table[tokenId], check);
+        }
+    }
+
+    /**
+     * Creates a copy of a dispatch table with some of its checks only.
+     * @param table the dispatch table
+     * @param checks the checks to keep
+     * @return the new dispatch table
+     */
+    private static Check[][] filterDispatchTable(Check[][] table, Set<Check> checks) {
+        final Check[][] result = createDispatchTable();
+        for (int tokenId = 0; tokenId < table.length; tokenId++) {
+            for (Check check : table[tokenId]) {
+                if (checks.contains(check)) {
+                    addToDispatchTable(result, tokenId, check);
+                }
+            }
         }
+        return result;
     }
 
     /**
@@ -315,6 +455,27 @@ public final class TreeWalker
         }
     }
 
+    /**
+     * Walks the AST of a file with the ordinary checks and then with the
+     * checks which require comment nodes.
+     * @param rootAST the root AST
+     * @param contents the contents of the file the AST was generated from.
+     */
+    private void walkTrees(DetailAST rootAST, FileContents contents) {
+        // ordinary checks must not see comment nodes, so they walk the
+        // tree before comments are appended to it
+        if (!walkingOrdinaryChecks.isEmpty()) {
+            walk(rootAST, contents, AstState.ORDINARY);
+        }
+
+        if (!walkingCommentChecks.isEmpty()) {
+            final long commentsStart = System.nanoTime();
+            final DetailAST astWithComments = appendHiddenCommentNodes(rootAST);
+            recordTime("appendCommentNodes", commentsStart);
+            walk(astWithComments, contents, AstState.WITH_COMMENTS);
+        }
+    }
+
     /**
      * Initiates the walk of an AST.
      * @param ast the root AST
@@ -343,15 +504,25 @@ public final class TreeWalker
         Set<Check> checks;
 
         if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+            checks = walkingCommentChecks;
         }
         else {
-            checks = ordinaryChecks;
+            checks = walkingOrdinaryChecks;
         }
 
-        for (Check check : checks) {
-            check.setFileContents(contents);
-            check.beginTree(rootAST);
+        if (profile == null) {
+            for (Check check : checks) {
+                check.setFileContents(contents);
+                check.beginTree(rootAST);
+            }
+        }
+        else {
+            for (Check check : checks) {
+                final long start = System.nanoTime();
+                check.setFileContents(contents);
+                check.beginTree(rootAST);
+                profile.recordBeginTree(check, start);
+            }
         }
     }
 
@@ -364,14 +535,23 @@ public final class TreeWalker
         Set<Check> checks;
 
         if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+            checks = walkingCommentChecks;
         }
         else {
-            checks = ordinaryChecks;
+            checks = walkingOrdinaryChecks;
         }
 
-        for (Check check : checks) {
-            check.finishTree(rootAST);
+        if (profile == null) {
+            for (Check check : checks) {
+                check.finishTree(rootAST);
+            }
+        }
+        else {
+            for (Check check : checks) {
+                final long start = System.nanoTime();
+                check.finishTree(rootAST);
+                profile.recordFinishTree(check, start);
+            }
         }
     }
 
@@ -381,13 +561,18 @@ public final class TreeWalker
      * @param astState state of AST.
      */
     private void notifyVisit(DetailAST ast, AstState astState) {
-        final Collection<Check> visitors = getListOfChecks(ast, astState);
-
-        if (visitors != null) {
-            for (Check check : visitors) {
+        if (profile == null) {
+            for (Check check : getListOfChecks(ast, astState)) {
                 check.visitToken(ast);
             }
         }
+        else {
+            for (Check check : getListOfChecks(ast, astState)) {
+                final long start = System.nanoTime();
+                check.visitToken(ast);
+                profile.recordVisitToken(check, start);
+            }
+        }
     }
 
     /**
@@ -397,13 +582,18 @@ public final class TreeWalker
      * @param astState state of AST.
      */
     private void notifyLeave(DetailAST ast, AstState astState) {
-        final Collection<Check> visitors = getListOfChecks(ast, astState);
-
-        if (visitors != null) {
-            for (Check check : visitors) {
+        if (profile == null) {
+            for (Check check : getListOfChecks(ast, astState)) {
                 check.leaveToken(ast);
             }
         }
+        else {
+            for (Check check : getListOfChecks(ast, astState)) {
+                final long start = System.nanoTime();
+                check.leaveToken(ast);
+                profile.recordLeaveToken(check, start);
+            }
+        }
     }
 
     /**
@@ -415,19 +605,13 @@ public final class TreeWalker
      *            state of AST.
      * @return list of visitors
      */
-    private Collection<Check> getListOfChecks(DetailAST ast, AstState astState) {
-        Collection<Check> visitors = null;
-        final String tokenType = TokenUtils.getTokenName(ast.getType());
-
+    private Check[] getListOfChecks(DetailAST ast, AstState astState) {
+        final Check[] visitors;
         if (astState == AstState.WITH_COMMENTS) {
-            if (tokenToCommentChecks.containsKey(tokenType)) {
-                visitors = tokenToCommentChecks.get(tokenType);
-            }
+            visitors = walkingCommentTable[ast.getType()];
         }
         else {
-            if (tokenToOrdinaryChecks.containsKey(tokenType)) {
-                visitors = tokenToOrdinaryChecks.get(tokenType);
-            }
+            visitors = walkingOrdinaryTable[ast.getType()];
         }
         return visitors;
     }
@@ -445,9 +629,8 @@ public final class TreeWalker
      */
     public static DetailAST parse(FileContents contents)
         throws RecognitionException, TokenStreamException {
-        final String fullText = contents.getText().getFullText().toString();
-        final Reader sr = new StringReader(fullText);
-        final GeneratedJavaLexer lexer = new GeneratedJavaLexer(sr);
+        final GeneratedJavaLexer lexer = new GeneratedJavaLexer(
+                new CharSequenceInputBuffer(contents.getText().getFullText()));
         lexer.setFilename(contents.getFileName());
         lexer.setCommentListener(contents);
         lexer.setTreatAssertAsKeyword(true);
@@ -476,13 +659,15 @@ public final class TreeWalker
         for (Check check : commentChecks) {
             check.destroy();
         }
-        if (cache != null) {
-            try {
-                cache.persist();
-            }
-            catch (IOException e) {
-                throw new IllegalStateException("Unable to persist cache file", e);
-            }
+        try {
+            cache.persist();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unable to persist cache file", e);
+        }
+        if (profile != null) {
+            profile.finish();
+            profile = null;
         }
         super.destroy();
     }
@@ -695,5 +880,4 @@ public final class TreeWalker
         }
         return new SimpleEntry<>(lines, columns);
     }
-
 }
@@ -0,0 +1,225 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.puppycrawl.tools.checkstyle.api.Check;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessages;
+import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+
+/**
+ * Records the messages of the Checks of a {@link TreeWalker} per Check.
+ * The messages of a Check are recorded with the hashcode of its configuration
+ * and the properties of the TreeWalker, so after a change to the configuration
+ * only the added or changed Checks need to walk unchanged files again.
+ *
+ * <p>The messages are recorded before they are filtered. The holders the
+ * filters get the state of the current file from, like
+ * {@link FileContentsHolder}, are never replayed.
+ *
+ * @author the original author or authors.
+ */
+final class TreeWalkerCache {
+
+    /** Prefix of the keys, to keep them apart from the keys of the Checker. */
+    private static final String KEY_PREFIX = "TreeWalker/";
+
+    /** Keys of the Checks, null for a Check whose messages are not recorded. */
+    private final Map<Check, String> checkKeys = Maps.newLinkedHashMap();
+
+    /** The collectors the Checks log their messages to. */
+    private final Map<Check, LocalizedMessages> checkMessages = Maps.newHashMap();
+
+    /** The cache file to record the messages in, null if no cache is used. */
+    private PropertyCacheFile cacheFile;
+
+    /** Whether the cache file is the own cache file of the TreeWalker. */
+    private boolean ownCacheFile;
+
+    /**
+     * Loads the own cache file of the TreeWalker. It depends on the
+     * properties of the TreeWalker only, not on its Checks.
+     * @param treeWalkerConfig the configuration of the TreeWalker
+     * @param fileName the cache file
+     * @throws IOException if there are some problems with file loading
+     */
+    void loadCacheFile(Configuration treeWalkerConfig, String fileName) throws IOException {
+        cacheFile = new PropertyCacheFile(copyProperties(treeWalkerConfig), fileName);
+        ownCacheFile = true;
+        cacheFile.load();
+    }
+
+    /**
+     * Records the messages in the cache file of the Checker, unless the
+     * TreeWalker has its own cache file.
+     * @param checkerCacheFile the cache file of the Checker
+     */
+    void useCacheFile(PropertyCacheFile checkerCacheFile) {
+        if (!ownCacheFile) {
+            cacheFile = checkerCacheFile;
+        }
+    }
+
+    /**
+     * Checks whether all messages of a file were replayed, so that its tree
+     * needs not to be walked. The holders are never replayed, so a file is
+     * still parsed while a {@link FileContentsHolder} is registered, as the
+     * filters need the comments of the file.
+     * @param walkingChecks the Checks whose messages were not replayed
+     * @return true if the cache is used and no Check has to walk the file
+     */
+    boolean isReplayed(Set<Check> walkingChecks) {
+        return cacheFile != null && walkingChecks.isEmpty();
+    }
+
+    /**
+     * Checks whether a holder, whose messages are never recorded, is added.
+     * @return true if a holder is added
+     */
+    boolean hasHolders() {
+        return checkKeys.containsValue(null);
+    }
+
+    /**
+     * Adds a Check and lets it log to its own collector.
+     * @param check the Check
+     * @param treeWalkerConfig the configuration of the TreeWalker
+     * @param checkConfig the configuration of the Check
+     */
+    void addCheck(Check check, Configuration treeWalkerConfig, Configuration checkConfig) {
+        String key = null;
+        if (!(check instanceof FileContentsHolder) && !(check instanceof SuppressWarningsHolder)) {
+            final DefaultConfiguration keyConfig = copyProperties(treeWalkerConfig);
+            keyConfig.addChild(checkConfig);
+            key = KEY_PREFIX + PropertyCacheFile.getConfigHashCode(keyConfig);
+        }
+        final LocalizedMessages messages = new LocalizedMessages();
+        check.setMessages(messages);
+        checkKeys.put(check, key);
+        checkMessages.put(check, messages);
+    }
+
+    /**
+     * Adds the messages recorded for the current contents of a file to a
+     * collector and determines the Checks which have to walk the file.
+     * @param file the file
+     * @param lines the lines of the file
+     * @param classLoader the class loader to load the sources of messages with
+     * @param collector the collector to add the messages to
+     * @return the Checks whose messages were not replayed
+     */
+    Set<Check> replay(File file, List<String> lines, ClassLoader classLoader,
+            LocalizedMessages collector) {
+        final Set<Check> walkingChecks = Sets.newHashSet();
+        if (cacheFile == null) {
+            walkingChecks.addAll(checkKeys.keySet());
+        }
+        else {
+            final String fileName = file.getAbsolutePath();
+            if (ownCacheFile) {
+                cacheFile.setContents(fileName, PropertyCacheFile.getContentDigest(lines),
+                    file.lastModified(), file.length());
+            }
+            for (Map.Entry<Check, String> entry : checkKeys.entrySet()) {
+                final String key = entry.getValue();
+                if (key == null || !cacheFile.replay(fileName, key, classLoader, collector)) {
+                    walkingChecks.add(entry.getKey());
+                }
+            }
+        }
+        for (Check check : walkingChecks) {
+            checkMessages.get(check).reset();
+        }
+        return walkingChecks;
+    }
+
+    /**
+     * Moves the messages the walking Checks logged for a file to a collector
+     * and records them.
+     * @param file the file
+     * @param walkingChecks the Checks which walked the file
+     * @param collector the collector to add the messages to
+     */
+    void collect(File file, Set<Check> walkingChecks, LocalizedMessages collector) {
+        for (Check check : walkingChecks) {
+            final SortedSet<LocalizedMessage> messages = checkMessages.get(check).getMessages();
+            for (LocalizedMessage message : messages) {
+                collector.add(message);
+            }
+            final String key = checkKeys.get(check);
+            if (cacheFile != null && key != null) {
+                cacheFile.put(file.getAbsolutePath(), key, messages);
+            }
+        }
+    }
+
+    /**
+     * Records the files of the own cache file of another TreeWalker.
+     * @param other the cache of the other TreeWalker
+     */
+    void merge(TreeWalkerCache other) {
+        if (ownCacheFile && other.ownCacheFile) {
+            cacheFile.putAll(other.cacheFile);
+        }
+    }
+
+    /**
+     * Updates the own cache file of the TreeWalker.
+     * @throws IOException when there is a problems with file save
+     */
+    void persist() throws IOException {
+        if (ownCacheFile) {
+            cacheFile.persist();
+        }
+    }
+
+    /**
+     * Copies a configuration without its children.
+     * @param config the configuration to copy
+     * @return the copy, null if {@code config} is null
+     */
+    private static DefaultConfiguration copyProperties(Configuration config) {
+        DefaultConfiguration copy = null;
+        if (config != null) {
+            copy = new DefaultConfiguration(config.getName());
+            try {
+                for (String name : config.getAttributeNames()) {
+                    copy.addAttribute(name, config.getAttribute(name));
+                }
+            }
+            catch (final CheckstyleException ex) {
+                throw new IllegalStateException("Unable to copy configuration", ex);
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,151 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+import com.puppycrawl.tools.checkstyle.api.AuditProfile;
+import com.puppycrawl.tools.checkstyle.api.Check;
+
+/**
+ * Records the time a {@link TreeWalker} spends in its own phases and in the
+ * phases of its Checks. The time is recorded in a profile of its own, as the
+ * TreeWalker may run on a worker thread, and added to the profile of the
+ * audit when the TreeWalker is done.
+ *
+ * @author the original author or authors.
+ */
+final class TreeWalkerProfile {
+    /** The profile of the audit. */
+    private final AuditProfile auditProfile;
+
+    /** The time recorded by the TreeWalker. */
+    private final AuditProfile localProfile = new AuditProfile();
+
+    /** The name the TreeWalker is profiled with. */
+    private final String moduleName;
+
+    /** The sections of the Checks. */
+    private final Map<Check, CheckSections> checkSections = Maps.newHashMap();
+
+    /**
+     * Creates a new instance.
+     * @param auditProfile the profile of the audit
+     * @param walker the TreeWalker
+     */
+    TreeWalkerProfile(AuditProfile auditProfile, TreeWalker walker) {
+        this.auditProfile = auditProfile;
+        moduleName = AuditProfiler.getModuleName(walker);
+    }
+
+    /**
+     * Records the time of a phase of the TreeWalker.
+     * @param phase the name of the phase
+     * @param start the value of {@link System#nanoTime()} at the start of the phase
+     */
+    void recordPhase(String phase, long start) {
+        localProfile.getSection(moduleName, phase).add(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a call of {@link Check#beginTree}.
+     * @param check the Check
+     * @param start the value of {@link System#nanoTime()} at the start of the call
+     */
+    void recordBeginTree(Check check, long start) {
+        getSections(check).beginTree.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a call of {@link Check#visitToken}.
+     * @param check the Check
+     * @param start the value of {@link System#nanoTime()} at the start of the call
+     */
+    void recordVisitToken(Check check, long start) {
+        getSections(check).visitToken.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a call of {@link Check#leaveToken}.
+     * @param check the Check
+     * @param start the value of {@link System#nanoTime()} at the start of the call
+     */
+    void recordLeaveToken(Check check, long start) {
+        getSections(check).leaveToken.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a call of {@link Check#finishTree}.
+     * @param check the Check
+     * @param start the value of {@link System#nanoTime()} at the start of the call
+     */
+    void recordFinishTree(Check check, long start) {
+        getSections(check).finishTree.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the sections of a Check, which are created for its first call.
+     * @param check the Check
+     * @return the sections of the Check
+     */
+    private CheckSections getSections(Check check) {
+        CheckSections sections = checkSections.get(check);
+        if (sections == null) {
+            sections = new CheckSections(localProfile, AuditProfiler.getModuleName(check));
+            checkSections.put(check, sections);
+        }
+        return sections;
+    }
+
+    /** Adds the recorded time to the profile of the audit. */
+    void finish() {
+        auditProfile.add(localProfile);
+    }
+
+    /**
+     * The profile sections of the phases of a Check.
+     */
+    private static final class CheckSections {
+        /** The section of {@link Check#beginTree}. */
+        private final AuditProfile.Section beginTree;
+
+        /** The section of {@link Check#visitToken}. */
+        private final AuditProfile.Section visitToken;
+
+        /** The section of {@link Check#leaveToken}. */
+        private final AuditProfile.Section leaveToken;
+
+        /** The section of {@link Check#finishTree}. */
+        private final AuditProfile.Section finishTree;
+
+        /**
+         * Creates the sections of a Check.
+         * @param profile the profile to record the sections in
+         * @param name the name of the Check
+         */
+        CheckSections(AuditProfile profile, String name) {
+            beginTree = profile.getSection(name, "beginTree");
+            visitToken = profile.getSection(name, "visitToken");
+            leaveToken = profile.getSection(name, "leaveToken");
+            finishTree = profile.getSection(name, "finishTree");
+        }
+    }
+}
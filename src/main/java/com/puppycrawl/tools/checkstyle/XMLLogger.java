@@ -19,6 +19,7 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.BufferedWriter;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -37,6 +38,8 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
  * It outputs everything in UTF-8 (default XML encoding is UTF-8) in case
  * we want to localize error messages or simply that file names are
  * localized and takes care about escaping as well.
+ * Values are escaped straight into a large buffer, which is flushed
+ * according to the {@link FlushPolicy} of the logger.
 
  * @author <a href="mailto:stephane.bailliez@wanadoo.fr">Stephane Bailliez</a>
  */
@@ -49,6 +52,15 @@ public class XMLLogger
     /** Hex radix. */
     private static final int BASE_16 = 16;
 
+    /** Size of the output buffer in chars. */
+    private static final int BUFFER_SIZE = 65_536;
+
+    /** Most chars of a decimal int: sign and ten digits. */
+    private static final int MAX_INT_LENGTH = 11;
+
+    /** Closing quote of an attribute value. */
+    private static final String QUOTE = "\"";
+
     /** Some known entities to detect. */
     private static final String[] ENTITIES = {"gt", "amp", "lt", "apos",
                                               "quot", };
@@ -56,18 +68,37 @@ public class XMLLogger
     /** Close output stream in auditFinished. */
     private final boolean closeStream;
 
+    /** When the output is flushed. */
+    private final FlushPolicy flushPolicy;
+
+    /** Buffer for the digits of numbers. */
+    private final char[] digits = new char[MAX_INT_LENGTH];
+
     /** Helper writer that allows easy encoding and printing. */
     private PrintWriter writer;
 
     /**
-     * Creates a new {@code XMLLogger} instance.
+     * Creates a new {@code XMLLogger} instance which flushes its output
+     * when the audit is finished.
      * Sets the output to a defined stream.
      * @param os the stream to write logs to.
      * @param closeStream close oS in auditFinished
      */
     public XMLLogger(OutputStream os, boolean closeStream) {
+        this(os, closeStream, FlushPolicy.AUDIT);
+    }
+
+    /**
+     * Creates a new {@code XMLLogger} instance.
+     * Sets the output to a defined stream.
+     * @param os the stream to write logs to.
+     * @param closeStream close oS in auditFinished
+     * @param flushPolicy when to flush the output
+     */
+    public XMLLogger(OutputStream os, boolean closeStream, FlushPolicy flushPolicy) {
         setOutputStream(os);
         this.closeStream = closeStream;
+        this.flushPolicy = flushPolicy;
     }
 
     /**
@@ -76,7 +107,7 @@ public class XMLLogger
      **/
     private void setOutputStream(OutputStream oS) {
         final OutputStreamWriter osw = new OutputStreamWriter(oS, StandardCharsets.UTF_8);
-        writer = new PrintWriter(osw);
+        writer = new PrintWriter(new BufferedWriter(osw, BUFFER_SIZE));
     }
 
     @Override
@@ -88,7 +119,9 @@ public class XMLLogger
         final String version =
             compilationProperties.getString("checkstyle.compile.version");
 
-        writer.println("<checkstyle version=\"" + version + "\">");
+        writer.print("<checkstyle version=\"");
+        writer.print(version);
+        writer.println("\">");
     }
 
     @Override
@@ -104,31 +137,57 @@ public class XMLLogger
 
     @Override
     public void fileStarted(AuditEvent evt) {
-        writer.println("<file name=\"" + encode(evt.getFileName()) + "\">");
+        writer.print("<file name=\"");
+        encode(evt.getFileName(), writer);
+        writer.println("\">");
     }
 
     @Override
     public void fileFinished(AuditEvent evt) {
         writer.println("</file>");
+        if (flushPolicy == FlushPolicy.FILE) {
+            writer.flush();
+        }
     }
 
     @Override
     public void addError(AuditEvent evt) {
         if (evt.getSeverityLevel() != SeverityLevel.IGNORE) {
-            writer.print("<error" + " line=\"" + evt.getLine() + "\"");
+            writer.print("<error line=\"");
+            printNumber(evt.getLine());
+            writer.print(QUOTE);
             if (evt.getColumn() > 0) {
-                writer.print(" column=\"" + evt.getColumn() + "\"");
+                writer.print(" column=\"");
+                printNumber(evt.getColumn());
+                writer.print(QUOTE);
             }
-            writer.print(" severity=\""
-                + evt.getSeverityLevel().getName()
-                + "\"");
-            writer.print(" message=\""
-                + encode(evt.getMessage())
-                + "\"");
-            writer.println(" source=\""
-                + encode(evt.getSourceName())
-                + "\"/>");
+            writer.print(" severity=\"");
+            writer.print(evt.getSeverityLevel().getName());
+            writer.print("\" message=\"");
+            encode(evt.getMessage(), writer);
+            writer.print("\" source=\"");
+            encode(evt.getSourceName(), writer);
+            writer.println("\"/>");
+        }
+    }
+
+    /**
+     * Prints a number in decimal without creating a string for it.
+     * @param number the number
+     */
+    private void printNumber(int number) {
+        int remaining = number;
+        int start = digits.length;
+        do {
+            start--;
+            digits[start] = (char) ('0' + Math.abs(remaining % BASE_10));
+            remaining /= BASE_10;
+        } while (remaining != 0);
+        if (number < 0) {
+            start--;
+            digits[start] = '-';
         }
+        writer.write(digits, start, digits.length - start);
     }
 
     @Override
@@ -141,7 +200,8 @@ public class XMLLogger
         pw.println("]]>");
         pw.println("</exception>");
         pw.flush();
-        writer.println(encode(sw.toString()));
+        encode(sw.toString(), writer);
+        writer.println();
     }
 
     /**
@@ -150,38 +210,62 @@ public class XMLLogger
      * @return the escaped value if necessary.
      */
     public static String encode(String value) {
-        final StringBuilder sb = new StringBuilder();
+        final StringWriter sw = new StringWriter(value.length());
+        encode(value, new PrintWriter(sw));
+        return sw.toString();
+    }
+
+    /**
+     * Escape &lt;, &gt; &amp; &#39; and &quot; as their entities, writing
+     * the runs of chars between them unchanged.
+     * @param value the value to escape.
+     * @param out the writer to write the escaped value to.
+     */
+    private static void encode(String value, PrintWriter out) {
+        int start = 0;
         for (int i = 0; i < value.length(); i++) {
-            final char c = value.charAt(i);
-            switch (c) {
-                case '<':
-                    sb.append("&lt;");
-                    break;
-                case '>':
-                    sb.append("&gt;");
-                    break;
-                case '\'':
-                    sb.append("&apos;");
-                    break;
-                case '\"':
-                    sb.append("&quot;");
-                    break;
-                case '&':
-                    final int nextSemi = value.indexOf(';', i);
-                    if (nextSemi < 0
-                        || !isReference(value.substring(i, nextSemi + 1))) {
-                        sb.append("&amp;");
-                    }
-                    else {
-                        sb.append('&');
-                    }
-                    break;
-                default:
-                    sb.append(c);
-                    break;
+            final String entity = getEntity(value, i);
+            if (entity != null) {
+                out.write(value, start, i - start);
+                out.write(entity);
+                start = i + 1;
             }
         }
-        return sb.toString();
+        out.write(value, start, value.length() - start);
+    }
+
+    /**
+     * Returns the entity a char of a value is escaped as.
+     * @param value the value to escape.
+     * @param index the index of the char.
+     * @return the entity, {@code null} if the char is not escaped.
+     */
+    private static String getEntity(String value, int index) {
+        String entity = null;
+        switch (value.charAt(index)) {
+            case '<':
+                entity = "&lt;";
+                break;
+            case '>':
+                entity = "&gt;";
+                break;
+            case '\'':
+                entity = "&apos;";
+                break;
+            case '\"':
+                entity = "&quot;";
+                break;
+            case '&':
+                final int nextSemi = value.indexOf(';', index);
+                if (nextSemi < 0
+                    || !isReference(value.substring(index, nextSemi + 1))) {
+                    entity = "&amp;";
+                }
+                break;
+            default:
+                break;
+        }
+        return entity;
     }
 
     /**
@@ -223,4 +307,12 @@ public class XMLLogger
         }
         return reference;
     }
+
+    /** When an {@code XMLLogger} flushes its output. */
+    public enum FlushPolicy {
+        /** Flush when the buffer is full and when the audit is finished. */
+        AUDIT,
+        /** Flush after every file as well. */
+        FILE,
+    }
 }
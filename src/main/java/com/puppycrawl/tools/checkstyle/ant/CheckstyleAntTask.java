@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
@@ -109,6 +110,9 @@ public class CheckstyleAntTask extends Task {
      */
     private boolean omitIgnoredModules = true;
 
+    /** The number of threads to audit files with, 0 if not given. */
+    private int threadCount;
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for ANT specific attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -248,6 +252,15 @@ public class CheckstyleAntTask extends Task {
         omitIgnoredModules = omit;
     }
 
+    /**
+     * Sets the number of threads to audit files with. Default is the
+     * number of the configuration, which is 1 unless set there.
+     * @param threadCount the number of threads
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for Checker configuration attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -400,6 +413,9 @@ public class CheckstyleAntTask extends Task {
             checker = new Checker();
             checker.contextualize(context);
             checker.configure(config);
+            if (threadCount > 0) {
+                checker.setThreadCount(threadCount);
+            }
         }
         catch (final CheckstyleException e) {
             throw new BuildException(String.format("Unable to create a Checker: "
@@ -523,6 +539,19 @@ public class CheckstyleAntTask extends Task {
         }
     }
 
+    /**
+     * Poor mans enumeration for the flush policies of the XML formatter.
+     */
+    public static class FlushPolicyType extends EnumeratedAttribute {
+        /** My possible values. */
+        private static final String[] VALUES = {"audit", "file"};
+
+        @Override
+        public String[] getValues() {
+            return VALUES.clone();
+        }
+    }
+
     /**
      * Details about a formatter to be used.
      * @author Oliver Burn
@@ -534,6 +563,8 @@ public class CheckstyleAntTask extends Task {
         private File toFile;
         /** Whether or not the write to the named file. */
         private boolean useFile = true;
+        /** When the XML formatter flushes its output. */
+        private XMLLogger.FlushPolicy flushPolicy = XMLLogger.FlushPolicy.AUDIT;
 
         /**
          * Set the type of the formatter.
@@ -564,6 +595,16 @@ public class CheckstyleAntTask extends Task {
             useFile = use;
         }
 
+        /**
+         * Sets when the XML formatter flushes its output, after the audit
+         * or after every file.
+         * @param policy the flush policy
+         */
+        public void setFlushPolicy(FlushPolicyType policy) {
+            flushPolicy = XMLLogger.FlushPolicy.valueOf(
+                    policy.getValue().toUpperCase(Locale.ENGLISH));
+        }
+
         /**
          * Creates a listener for the formatter.
          * @param task the task running
@@ -604,9 +645,9 @@ public class CheckstyleAntTask extends Task {
         private AuditListener createXMLLogger(Task task) throws IOException {
             if (toFile == null || !useFile) {
                 return new XMLLogger(new LogOutputStream(task,
-                        Project.MSG_INFO), true);
+                        Project.MSG_INFO), true, flushPolicy);
             }
-            return new XMLLogger(new FileOutputStream(toFile), true);
+            return new XMLLogger(new FileOutputStream(toFile), true, flushPolicy);
         }
     }
 
@@ -0,0 +1,179 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Lists;
+
+/**
+ * The wall time spent in the modules of an audit, and how often they were
+ * invoked. The time is recorded per module and phase, like the
+ * {@code visitToken} calls of a Check or the {@code accept} calls of a Filter.
+ * Sections may be recorded by several threads.
+ *
+ * @author the original author or authors.
+ * @see ProfileListener
+ */
+public final class AuditProfile {
+    /** Orders sections by decreasing time, then by module and phase. */
+    private static final Comparator<Section> HOTTEST_FIRST = new Comparator<Section>() {
+        @Override
+        public int compare(Section first, Section second) {
+            int result = Long.compare(second.getNanos(), first.getNanos());
+            if (result == 0) {
+                result = first.getModule().compareTo(second.getModule());
+            }
+            if (result == 0) {
+                result = first.getPhase().compareTo(second.getPhase());
+            }
+            return result;
+        }
+    };
+
+    /** The sections, keyed by the list of their module and phase. */
+    private final ConcurrentMap<List<String>, Section> sections = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the section of a module and phase, which is created when it
+     * is requested for the first time.
+     * @param module the name of the module
+     * @param phase the name of the phase
+     * @return the section
+     */
+    public Section getSection(String module, String phase) {
+        final List<String> key = Arrays.asList(module, phase);
+        Section section = sections.get(key);
+        if (section == null) {
+            final Section created = new Section(module, phase);
+            section = sections.putIfAbsent(key, created);
+            if (section == null) {
+                section = created;
+            }
+        }
+        return section;
+    }
+
+    /**
+     * Adds the time and invocations recorded by another profile to this one.
+     * @param other the profile to add
+     */
+    public void add(AuditProfile other) {
+        for (Section section : other.sections.values()) {
+            getSection(section.getModule(), section.getPhase())
+                .add(section.getCount(), section.getNanos());
+        }
+    }
+
+    /**
+     * Returns the sections which were recorded, the ones which took the most
+     * time first.
+     * @return the sections
+     */
+    public List<Section> getSections() {
+        final List<Section> result = Lists.newArrayList(sections.values());
+        Collections.sort(result, HOTTEST_FIRST);
+        return result;
+    }
+
+    /**
+     * The time spent in a phase of a module, like the {@code visitToken}
+     * calls of a Check.
+     */
+    public static final class Section {
+        /** The name of the module. */
+        private final String module;
+
+        /** The name of the phase. */
+        private final String phase;
+
+        /** The number of invocations. */
+        private final AtomicLong count = new AtomicLong();
+
+        /** The wall time of the invocations in nanoseconds. */
+        private final AtomicLong nanos = new AtomicLong();
+
+        /**
+         * Creates a new section.
+         * @param module the name of the module
+         * @param phase the name of the phase
+         */
+        private Section(String module, String phase) {
+            this.module = module;
+            this.phase = phase;
+        }
+
+        /**
+         * Records an invocation.
+         * @param elapsedNanos the wall time of the invocation in nanoseconds
+         */
+        public void add(long elapsedNanos) {
+            add(1, elapsedNanos);
+        }
+
+        /**
+         * Records invocations.
+         * @param invocations the number of invocations
+         * @param elapsedNanos the wall time of the invocations in nanoseconds
+         */
+        private void add(long invocations, long elapsedNanos) {
+            count.addAndGet(invocations);
+            nanos.addAndGet(elapsedNanos);
+        }
+
+        /**
+         * Returns the name of the module.
+         * @return the name of the module
+         */
+        public String getModule() {
+            return module;
+        }
+
+        /**
+         * Returns the name of the phase.
+         * @return the name of the phase
+         */
+        public String getPhase() {
+            return phase;
+        }
+
+        /**
+         * Returns the number of invocations.
+         * @return the number of invocations
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * Returns the wall time of the invocations.
+         * @return the wall time of the invocations in nanoseconds
+         */
+        public long getNanos() {
+            return nanos.get();
+        }
+    }
+}
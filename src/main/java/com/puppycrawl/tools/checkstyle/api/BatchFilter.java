@@ -0,0 +1,42 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.util.SortedSet;
+
+/**
+ * A filter which decides on all messages of a file at once, so that it can
+ * compute what it needs to know about the file only once. Filters which
+ * only implement {@link Filter} take part in batches through a
+ * {@link BatchFilterAdapter}.
+ * @author the original author or authors.
+ */
+public interface BatchFilter extends Filter {
+    /**
+     * Determines which messages of a file are accepted. The given set must
+     * not be modified, it may be returned if all messages are accepted.
+     * @param source the source of the audit events, usually the Checker
+     * @param fileName the name of the file
+     * @param messages the messages of the file
+     * @return the accepted messages
+     */
+    SortedSet<LocalizedMessage> accept(Object source, String fileName,
+            SortedSet<LocalizedMessage> messages);
+}
@@ -0,0 +1,80 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.util.SortedSet;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Lets a {@link Filter} decide on the messages of a batch one by one.
+ * @author the original author or authors.
+ */
+public final class BatchFilterAdapter implements BatchFilter {
+    /** The adapted filter. */
+    private final Filter filter;
+
+    /**
+     * Creates a new instance.
+     * @param filter the filter to adapt
+     */
+    private BatchFilterAdapter(Filter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Returns a filter as a batch filter, the filter itself if it already
+     * is one.
+     * @param filter the filter
+     * @return the batch filter
+     */
+    public static BatchFilter adapt(Filter filter) {
+        final BatchFilter result;
+        if (filter instanceof BatchFilter) {
+            result = (BatchFilter) filter;
+        }
+        else {
+            result = new BatchFilterAdapter(filter);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        return filter.accept(event);
+    }
+
+    @Override
+    public SortedSet<LocalizedMessage> accept(Object source, String fileName,
+            SortedSet<LocalizedMessage> messages) {
+        final SortedSet<LocalizedMessage> accepted = Sets.newTreeSet();
+        for (LocalizedMessage message : messages) {
+            if (filter.accept(new AuditEvent(source, fileName, message))) {
+                accepted.add(message);
+            }
+        }
+        return accepted;
+    }
+
+    @Override
+    public String toString() {
+        return filter.toString();
+    }
+}
@@ -170,13 +170,23 @@ public abstract class Check extends AbstractViolationReporter {
     }
 
     /**
-     * Returns the lines associated with the tree.
+     * Returns the lines associated with the tree. The lines are copied on
+     * every call, so {@link #getLine(int)} and {@link #getLineCount()} are
+     * cheaper when only some lines are needed.
      * @return the file contents
      */
     public final String[] getLines() {
         return fileContents.getLines();
     }
 
+    /**
+     * Returns the number of lines associated with the tree.
+     * @return the number of lines in the file contents
+     */
+    public final int getLineCount() {
+        return fileContents.getLineCount();
+    }
+
     /**
      * Returns the line associated with the tree.
      * @param index index of the line
@@ -252,7 +262,7 @@ public abstract class Check extends AbstractViolationReporter {
     public final void log(int lineNo, int colNo, String key,
             Object... args) {
         final int col = 1 + CommonUtils.lengthExpandedTabs(
-            getLines()[lineNo - 1], colNo, tabWidth);
+            getLine(lineNo - 1), colNo, tabWidth);
         messages.add(
             new LocalizedMessage(
                 lineNo,
@@ -87,7 +87,7 @@ public final class FileContents implements CommentListener {
      */
     public FileContents(FileText text) {
         fileName = text.getFile().toString();
-        this.text = new FileText(text);
+        this.text = text;
     }
 
     @Override
@@ -224,21 +224,32 @@ public final class FileContents implements CommentListener {
     }
 
     /**
-     * Get the full text of the file.
+     * Get the full text of the file. The text is immutable, so it is not
+     * copied.
      * @return an object containing the full text of the file
      */
     public FileText getText() {
-        return new FileText(text);
+        return text;
     }
 
     /**
-     * Gets the lines in the file.
+     * Gets the lines in the file. The lines are copied on every call, so
+     * {@link #getLine(int)} and {@link #getLineCount()} are cheaper when
+     * only some lines are needed.
      * @return the lines in the file
      */
     public String[] getLines() {
         return text.toLinesArray();
     }
 
+    /**
+     * Gets the number of lines in the file.
+     * @return the number of lines in the file
+     */
+    public int getLineCount() {
+        return text.size();
+    }
+
     /**
      * Get the line from text of the file.
      * @param index index of the line
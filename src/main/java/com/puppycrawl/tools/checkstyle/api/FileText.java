@@ -19,29 +19,14 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CodingErrorAction;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.AbstractList;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import org.apache.commons.lang3.ArrayUtils;
-
-import com.google.common.io.Closeables;
 
 /**
  * Represents the text contents of a file of arbitrary plain text type.
@@ -57,20 +42,9 @@ import com.google.common.io.Closeables;
  */
 public final class FileText extends AbstractList<String> {
 
-    /**
-     * The number of characters to read in one go.
-     */
-    private static final int READ_BUFFER_SIZE = 1024;
-
-    /**
-     * Regular expression pattern matching all line terminators.
-     */
-    private static final Pattern LINE_TERMINATOR = Pattern.compile("\\n|\\r\\n?");
-
-    // For now, we always keep both full text and lines array.
-    // In the long run, however, the one passed at initialization might be
-    // enough, while the other could be lazily created when requested.
-    // This would save memory but cost CPU cycles.
+    // The full text and the positions of its line breaks are kept; the
+    // lines are cut from the full text when they are first requested, as
+    // many checks need only the full text or a few lines.
 
     /**
      * The name of the file.
@@ -90,14 +64,16 @@ public final class FileText extends AbstractList<String> {
     private final String fullText;
 
     /**
-     * The lines of the file, without terminators.
+     * The lines of the file, without terminators. Null until a line is
+     * requested, a line is null until it is requested.
      */
-    private final String[] lines;
+    private String[] lines;
 
     /**
-     * The first position of each line within the full text.
+     * The first position of each line within the full text, followed by
+     * the position after the last line.
      */
-    private int[] lineBreaks;
+    private final int[] lineBreaks;
 
     /**
      * Creates a new file text representation.
@@ -114,14 +90,8 @@ public final class FileText extends AbstractList<String> {
     public FileText(File file, String charsetName) throws IOException {
         this.file = file;
 
-        // We use our own decoder, to be sure we have complete control
-        // about replacements.
-        final CharsetDecoder decoder;
         try {
             charset = Charset.forName(charsetName);
-            decoder = charset.newDecoder();
-            decoder.onMalformedInput(CodingErrorAction.REPLACE);
-            decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
         }
         catch (final UnsupportedCharsetException ex) {
             final String message = "Unsupported charset: " + charsetName;
@@ -130,22 +100,9 @@ public final class FileText extends AbstractList<String> {
             throw ex2;
         }
 
-        fullText = readFile(file, decoder);
-
-        // Use the BufferedReader to break down the lines as this
-        // is about 30% faster than using the
-        // LINE_TERMINATOR.split(fullText, -1) method
-        final ArrayList<String> textLines = new ArrayList<>();
-        final BufferedReader br =
-            new BufferedReader(new StringReader(fullText));
-        while (true) {
-            final String line = br.readLine();
-            if (line == null) {
-                break;
-            }
-            textLines.add(line);
-        }
-        lines = textLines.toArray(new String[textLines.size()]);
+        final FileTextDecoder decoder = new FileTextDecoder(file, charset);
+        fullText = decoder.getText();
+        lineBreaks = decoder.getLineBreaks();
     }
 
     /**
@@ -160,59 +117,48 @@ public final class FileText extends AbstractList<String> {
      * @throws NullPointerException if the lines array is null
      */
     private FileText(File file, List<String> lines) {
-        final StringBuilder buf = new StringBuilder();
-        for (final String line : lines) {
-            buf.append(line).append('\n');
-        }
-        buf.trimToSize();
-
         this.file = file;
         charset = null;
-        fullText = buf.toString();
         this.lines = lines.toArray(new String[lines.size()]);
+
+        lineBreaks = new int[this.lines.length + 1];
+        for (int i = 0; i < this.lines.length; i++) {
+            lineBreaks[i + 1] = lineBreaks[i] + this.lines[i].length() + 1;
+        }
+        final StringBuilder buf = new StringBuilder(lineBreaks[this.lines.length]);
+        for (final String line : this.lines) {
+            buf.append(line).append('\n');
+        }
+        fullText = buf.toString();
     }
 
     /**
-     * Copy constructor.
+     * Copy constructor. As the text is immutable, the copy shares the
+     * contents of the original.
      * @param fileText to make copy of
      */
     public FileText(FileText fileText) {
         file = fileText.file;
         charset = fileText.charset;
         fullText = fileText.fullText;
-        lines = fileText.lines.clone();
-        lineBreaks = ArrayUtils.clone(fileText.lineBreaks);
+        lines = fileText.lines;
+        lineBreaks = fileText.lineBreaks;
     }
 
     /**
-     * Reads file using specific decoder and returns all its content as a String.
-     * @param inputFile File to read
-     * @param decoder Charset decoder
-     * @return File's text
-     * @throws IOException Unable to open or read the file
+     * Finds the end of a line, before its terminator.
+     * @param lineNo the number of the line, starting at zero
+     * @return the position after the last character of the line
      */
-    private static String readFile(final File inputFile, final CharsetDecoder decoder)
-            throws IOException {
-        if (!inputFile.exists()) {
-            throw new FileNotFoundException(inputFile.getPath() + " (No such file or directory)");
-        }
-        final StringBuilder buf = new StringBuilder();
-        final FileInputStream stream = new FileInputStream(inputFile);
-        final Reader reader = new InputStreamReader(stream, decoder);
-        try {
-            final char[] chars = new char[READ_BUFFER_SIZE];
-            while (true) {
-                final int len = reader.read(chars);
-                if (len < 0) {
-                    break;
-                }
-                buf.append(chars, 0, len);
-            }
+    private int findLineEnd(int lineNo) {
+        int end = lineBreaks[lineNo + 1];
+        if (end > lineBreaks[lineNo] && fullText.charAt(end - 1) == '\n') {
+            end--;
         }
-        finally {
-            Closeables.closeQuietly(reader);
+        if (end > lineBreaks[lineNo] && fullText.charAt(end - 1) == '\r') {
+            end--;
         }
-        return buf.toString();
+        return end;
     }
 
     /**
@@ -269,29 +215,11 @@ public final class FileText extends AbstractList<String> {
      * @return an array of all lines of the text
      */
     public String[] toLinesArray() {
-        return lines.clone();
-    }
-
-    /**
-     * Find positions of line breaks in the full text.
-     * @return an array giving the first positions of each line.
-     */
-    private int[] findLineBreaks() {
-        if (lineBreaks == null) {
-            final int[] lineBreakPositions = new int[size() + 1];
-            lineBreakPositions[0] = 0;
-            int lineNo = 1;
-            final Matcher matcher = LINE_TERMINATOR.matcher(fullText);
-            while (matcher.find()) {
-                lineBreakPositions[lineNo] = matcher.end();
-                lineNo++;
-            }
-            if (lineNo < lineBreakPositions.length) {
-                lineBreakPositions[lineNo] = fullText.length();
-            }
-            lineBreaks = lineBreakPositions;
+        final String[] result = new String[size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = get(i);
         }
-        return lineBreaks;
+        return result;
     }
 
     /**
@@ -300,14 +228,13 @@ public final class FileText extends AbstractList<String> {
      * @return the line and column numbers of this character
      */
     public LineColumn lineColumn(int pos) {
-        final int[] lineBreakPositions = findLineBreaks();
-        int lineNo = Arrays.binarySearch(lineBreakPositions, pos);
+        int lineNo = Arrays.binarySearch(lineBreaks, pos);
         if (lineNo < 0) {
             // we have: lineNo = -(insertion point) - 1
             // we want: lineNo =  (insertion point) - 1
             lineNo = -lineNo - 2;
         }
-        final int startOfLine = lineBreakPositions[lineNo];
+        final int startOfLine = lineBreaks[lineNo];
         final int columnNo = pos - startOfLine;
         // now we have lineNo and columnNo, both starting at zero.
         return new LineColumn(lineNo + 1, columnNo);
@@ -321,7 +248,18 @@ public final class FileText extends AbstractList<String> {
      */
     @Override
     public String get(final int lineNo) {
-        return lines[lineNo];
+        // concurrent callers at worst cut the same line twice
+        String[] cachedLines = lines;
+        if (cachedLines == null) {
+            cachedLines = new String[size()];
+            lines = cachedLines;
+        }
+        String line = cachedLines[lineNo];
+        if (line == null) {
+            line = fullText.substring(lineBreaks[lineNo], findLineEnd(lineNo));
+            cachedLines[lineNo] = line;
+        }
+        return line;
     }
 
     /**
@@ -330,7 +268,7 @@ public final class FileText extends AbstractList<String> {
      */
     @Override
     public int size() {
-        return lines.length;
+        return lineBreaks.length - 1;
     }
 
 }
@@ -0,0 +1,206 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the text of a file for {@link FileText} and finds its line breaks.
+ *
+ * <p>Files are read through NIO in one go. They are not mapped into memory,
+ * as a mapping is only released by the garbage collector and keeps the file
+ * locked on Windows until then. For UTF-8, US-ASCII and ISO-8859-1 the line
+ * breaks are found in the bytes while they are checked for the first byte
+ * which does not stand for the character of the same value; the characters
+ * before it are at the same positions as their bytes, so only the text after
+ * it has to be scanned again once it is decoded. The bytes are decoded in a
+ * single call, which replaces malformed input and unmappable characters with
+ * the default replacement character.
+ *
+ * @author the original author or authors.
+ */
+final class FileTextDecoder {
+    /** The initial capacity of the array of line breaks. */
+    private static final int INITIAL_LINE_CAPACITY = 64;
+
+    /** The decoded text. */
+    private final String text;
+
+    /** The first position of each line, followed by the position after the last line. */
+    private int[] lineBreaks = new int[INITIAL_LINE_CAPACITY];
+
+    /** The number of entries of {@link #lineBreaks} in use. */
+    private int lineBreakCount = 1;
+
+    /**
+     * Reads and decodes a file.
+     * @param file the file to read
+     * @param charset the charset of the file
+     * @throws IOException if the file cannot be read
+     */
+    FileTextDecoder(File file, Charset charset) throws IOException {
+        if (!file.exists()) {
+            throw new FileNotFoundException(file.getPath() + " (No such file or directory)");
+        }
+        final ByteBuffer bytes;
+        try (FileInputStream stream = new FileInputStream(file)) {
+            bytes = read(stream.getChannel());
+        }
+
+        int scanned = 0;
+        if (StandardCharsets.ISO_8859_1.equals(charset)) {
+            scanned = findLineBreaks(bytes, false);
+        }
+        else if (StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)) {
+            scanned = findLineBreaks(bytes, true);
+        }
+        text = decode(bytes, charset);
+        findLineBreaks(scanned);
+    }
+
+    /**
+     * Returns the decoded text.
+     * @return the decoded text
+     */
+    String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the positions of the line breaks.
+     * @return the first position of each line, followed by the position
+     *     after the last line
+     */
+    int[] getLineBreaks() {
+        return Arrays.copyOf(lineBreaks, lineBreakCount);
+    }
+
+    /**
+     * Reads the contents of a file.
+     * @param channel the channel of the file
+     * @return the contents of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static ByteBuffer read(FileChannel channel) throws IOException {
+        final ByteBuffer result = ByteBuffer.allocate((int) channel.size());
+        while (result.hasRemaining() && channel.read(result) >= 0) {
+            // keep on reading until the buffer is full or the file ends
+        }
+        result.flip();
+        return result;
+    }
+
+    /**
+     * Decodes bytes.
+     * @param bytes the bytes to decode
+     * @param charset the charset of the bytes
+     * @return the decoded text
+     * @throws CharacterCodingException never, as coding errors are replaced
+     */
+    private static String decode(ByteBuffer bytes, Charset charset)
+            throws CharacterCodingException {
+        final String result;
+        if (bytes.hasArray()) {
+            result = new String(bytes.array(), bytes.arrayOffset(), bytes.limit(), charset);
+        }
+        else {
+            result = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes).toString();
+        }
+        return result;
+    }
+
+    /**
+     * Finds the line breaks in bytes which stand for the characters of the
+     * same value, up to the first byte which does not.
+     * @param bytes the bytes to scan
+     * @param asciiOnly whether only bytes up to 127 stand for their character
+     * @return the number of bytes scanned
+     */
+    private int findLineBreaks(ByteBuffer bytes, boolean asciiOnly) {
+        final int limit = bytes.limit();
+        int pos = 0;
+        while (pos < limit) {
+            final byte value = bytes.get(pos);
+            if (asciiOnly && value < 0) {
+                break;
+            }
+            if (value == '\n') {
+                addLineBreak(pos + 1, pos > 0 && bytes.get(pos - 1) == '\r');
+            }
+            else if (value == '\r') {
+                addLineBreak(pos + 1, false);
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Finds the line breaks in the decoded text, starting at a position.
+     * @param start the position to start at
+     */
+    private void findLineBreaks(int start) {
+        final int length = text.length();
+        for (int pos = start; pos < length; pos++) {
+            final char chr = text.charAt(pos);
+            if (chr == '\n' || chr == '\r') {
+                addLineBreak(pos + 1, chr == '\n' && pos > 0 && text.charAt(pos - 1) == '\r');
+            }
+        }
+        if (length > lineBreaks[lineBreakCount - 1]) {
+            addLineBreak(length, false);
+        }
+    }
+
+    /**
+     * Records a line break. A carriage return followed by a line feed
+     * counts as a single line break, so the line feed moves the line break
+     * of the carriage return.
+     * @param nextLineStart the first position of the next line
+     * @param afterCarriageReturn whether the line break is a line feed
+     *     following a carriage return
+     */
+    private void addLineBreak(int nextLineStart, boolean afterCarriageReturn) {
+        if (afterCarriageReturn) {
+            lineBreaks[lineBreakCount - 1] = nextLineStart;
+        }
+        else {
+            if (lineBreakCount == lineBreaks.length) {
+                lineBreaks = Arrays.copyOf(lineBreaks, lineBreakCount * 2);
+            }
+            lineBreaks[lineBreakCount] = nextLineStart;
+            lineBreakCount++;
+        }
+    }
+}
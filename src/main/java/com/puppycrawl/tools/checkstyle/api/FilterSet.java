@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.api;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedSet;
 
 import com.google.common.collect.Sets;
 
@@ -29,10 +30,12 @@ import com.google.common.collect.Sets;
  * A filter set applies filters to AuditEvents.
  * If a filter in the set rejects an AuditEvent, then the
  * AuditEvent is rejected. Otherwise, the AuditEvent is accepted.
+ * Batches of messages pass the filters one after the other, a filter
+ * only gets the messages accepted by the filters before it.
  * @author Rick Giles
  */
 public class FilterSet
-    implements Filter {
+    implements BatchFilter {
     /** Filter set. */
     private final Set<Filter> filters = Sets.newHashSet();
 
@@ -92,6 +95,19 @@ public class FilterSet
         return true;
     }
 
+    @Override
+    public SortedSet<LocalizedMessage> accept(Object source, String fileName,
+            SortedSet<LocalizedMessage> messages) {
+        SortedSet<LocalizedMessage> accepted = messages;
+        for (Filter filter : filters) {
+            if (accepted.isEmpty()) {
+                break;
+            }
+            accepted = BatchFilterAdapter.adapt(filter).accept(source, fileName, accepted);
+        }
+        return accepted;
+    }
+
     /** Clears the FilterSet. */
     public void clear() {
         filters.clear();
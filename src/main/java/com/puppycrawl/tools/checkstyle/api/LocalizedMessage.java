@@ -19,17 +19,24 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.NotSerializableException;
 import java.io.Reader;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.URL;
 import java.net.URLConnection;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
@@ -37,12 +44,21 @@ import java.util.Objects;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
 import java.util.ResourceBundle.Control;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.ObjectUtils;
 
 /**
  * Represents a message that can be localised. The translations come from
  * message.properties files. The underlying implementation uses
  * java.text.MessageFormat.
  *
+ * <p>The message is kept as its key and arguments and formatted when it is
+ * first requested, with a pattern that is parsed once per bundle, key and
+ * locale. Messages are ordered by their position, module id and key, the
+ * formatted message only decides between messages which agree on these.
+ *
  * @author Oliver Burn
  * @author lkuehne
  */
@@ -61,9 +77,38 @@ public final class LocalizedMessage
     private static final Map<String, ResourceBundle> BUNDLE_CACHE =
         Collections.synchronizedMap(new HashMap<String, ResourceBundle>());
 
+    /**
+     * Parsed message patterns, keyed by the list of bundle name, key and
+     * locale, or by the singleton list of a custom message. A MessageFormat
+     * is not thread safe, so it is locked while it formats a message.
+     */
+    private static final ConcurrentMap<List<Object>, MessageFormat> FORMAT_CACHE =
+        new ConcurrentHashMap<>();
+
     /** The default severity level if one is not specified. */
     private static final SeverityLevel DEFAULT_SEVERITY = SeverityLevel.ERROR;
 
+    /** Binary tag of a {@code null} argument. */
+    private static final byte NULL_ARGUMENT = 0;
+
+    /** Binary tag of an argument stored as its string representation. */
+    private static final byte STRING_ARGUMENT = 1;
+
+    /** Binary tag of an {@link Integer} argument. */
+    private static final byte INTEGER_ARGUMENT = 2;
+
+    /** Binary tag of a {@link Long} argument. */
+    private static final byte LONG_ARGUMENT = 3;
+
+    /** Binary tag of a {@link Double} argument. */
+    private static final byte DOUBLE_ARGUMENT = 4;
+
+    /** Binary tag of a {@link BigInteger} argument. */
+    private static final byte BIG_INTEGER_ARGUMENT = 5;
+
+    /** Binary tag of a {@link BigDecimal} argument. */
+    private static final byte BIG_DECIMAL_ARGUMENT = 6;
+
     /** The line number. **/
     private final int lineNo;
     /** The column number. **/
@@ -90,6 +135,9 @@ public final class LocalizedMessage
     /** A custom message overriding the default message from the bundle. */
     private final String customMessage;
 
+    /** The formatted message, null until it is first requested. */
+    private transient String message;
+
     /**
      * Creates a new {@code LocalizedMessage} instance.
      *
@@ -239,47 +287,75 @@ public final class LocalizedMessage
         synchronized (BUNDLE_CACHE) {
             BUNDLE_CACHE.clear();
         }
+        FORMAT_CACHE.clear();
     }
 
     /**
-     * Gets the translated message.
+     * Gets the translated message. It is formatted when it is first
+     * requested, later calls return the same string.
      * @return the translated message
      */
     public String getMessage() {
-        String message = getCustomMessage();
+        String result = message;
+        if (result == null) {
+            final MessageFormat format = getFormat();
+            synchronized (format) {
+                result = format.format(args);
+            }
+            message = result;
+        }
+        return result;
+    }
 
-        if (message == null) {
+    /**
+     * Returns the parsed pattern of the message, the custom message if one
+     * is configured.
+     * @return the parsed pattern
+     */
+    private MessageFormat getFormat() {
+        final List<Object> cacheKey;
+        if (customMessage == null) {
+            cacheKey = Arrays.<Object>asList(bundle, key, sLocale);
+        }
+        else {
+            cacheKey = Collections.<Object>singletonList(customMessage);
+        }
+        MessageFormat format = FORMAT_CACHE.get(cacheKey);
+        if (format == null) {
+            format = new MessageFormat(getPattern());
+            final MessageFormat cached = FORMAT_CACHE.putIfAbsent(cacheKey, format);
+            if (cached != null) {
+                format = cached;
+            }
+        }
+        return format;
+    }
+
+    /**
+     * Returns the pattern of the message, the custom message if one is
+     * configured.
+     * @return the pattern
+     */
+    private String getPattern() {
+        String pattern = customMessage;
+
+        if (pattern == null) {
             try {
                 // Important to use the default class loader, and not the one in
                 // the GlobalProperties object. This is because the class loader in
                 // the GlobalProperties is specified by the user for resolving
                 // custom classes.
                 final ResourceBundle resourceBundle = getBundle(bundle);
-                final String pattern = resourceBundle.getString(key);
-                message = MessageFormat.format(pattern, args);
+                pattern = resourceBundle.getString(key);
             }
             catch (final MissingResourceException ignored) {
                 // If the Check author didn't provide i18n resource bundles
                 // and logs error messages directly, this will return
                 // the author's original message
-                message = MessageFormat.format(key, args);
+                pattern = key;
             }
         }
-        return message;
-    }
-
-    /**
-     * Returns the formatted custom message if one is configured.
-     * @return the formatted custom message or {@code null}
-     *          if there is no custom message
-     */
-    private String getCustomMessage() {
-
-        if (customMessage == null) {
-            return null;
-        }
-
-        return MessageFormat.format(customMessage, args);
+        return pattern;
     }
 
     /**
@@ -364,6 +440,193 @@ public final class LocalizedMessage
         }
     }
 
+    /**
+     * Writes this message in a compact binary form, that can be read back
+     * with {@link #readFrom(DataInput, ClassLoader)}. Arguments are stored as
+     * strings unless they are numbers, so that the restored message
+     * is formatted exactly like this one.
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written
+     * @throws NotSerializableException if an argument is a number or date
+     *     of a type that cannot be restored
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(lineNo);
+        out.writeInt(columnNo);
+        out.writeByte(severityLevel.ordinal());
+        writeNullableString(out, moduleId);
+        writeNullableString(out, key);
+        writeNullableString(out, bundle);
+        out.writeUTF(sourceClass.getName());
+        writeNullableString(out, customMessage);
+        if (args == null) {
+            out.writeInt(-1);
+        }
+        else {
+            out.writeInt(args.length);
+            for (Object arg : args) {
+                writeArgument(out, arg);
+            }
+        }
+    }
+
+    /**
+     * Reads a message written by {@link #writeTo(DataOutput)}.
+     * @param in the input to read from
+     * @param classLoader the class loader to load the source class of the message with
+     * @return the message
+     * @throws IOException if the input cannot be read or the source class is not found
+     */
+    public static LocalizedMessage readFrom(DataInput in, ClassLoader classLoader)
+            throws IOException {
+        final int lineNo = in.readInt();
+        final int columnNo = in.readInt();
+        final SeverityLevel severityLevel = SeverityLevel.values()[in.readByte()];
+        final String moduleId = readNullableString(in);
+        final String key = readNullableString(in);
+        final String bundle = readNullableString(in);
+        final String sourceName = in.readUTF();
+        final String customMessage = readNullableString(in);
+        final int argCount = in.readInt();
+        Object[] args = null;
+        if (argCount >= 0) {
+            args = new Object[argCount];
+            for (int i = 0; i < argCount; i++) {
+                args[i] = readArgument(in);
+            }
+        }
+
+        final Class<?> sourceClass;
+        try {
+            sourceClass = Class.forName(sourceName, false, classLoader);
+        }
+        catch (final ClassNotFoundException ex) {
+            throw new IOException("Unable to load source class " + sourceName, ex);
+        }
+        return new LocalizedMessage(lineNo, columnNo, bundle, key, args, severityLevel,
+                moduleId, sourceClass, customMessage);
+    }
+
+    /**
+     * Writes a string that may be {@code null}.
+     * @param out the output to write to
+     * @param value the string to write
+     * @throws IOException if the output cannot be written
+     */
+    private static void writeNullableString(DataOutput out, String value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeNullableString(DataOutput, String)}.
+     * @param in the input to read from
+     * @return the string, or {@code null}
+     * @throws IOException if the input cannot be read
+     */
+    private static String readNullableString(DataInput in) throws IOException {
+        String value = null;
+        if (in.readBoolean()) {
+            value = in.readUTF();
+        }
+        return value;
+    }
+
+    /**
+     * Writes a message argument together with its binary tag.
+     * @param out the output to write to
+     * @param arg the argument to write
+     * @throws IOException if the output cannot be written
+     */
+    private static void writeArgument(DataOutput out, Object arg) throws IOException {
+        if (arg == null) {
+            out.writeByte(NULL_ARGUMENT);
+        }
+        else if (arg instanceof Number) {
+            writeNumberArgument(out, (Number) arg);
+        }
+        else if (arg instanceof Date) {
+            throw new NotSerializableException(arg.getClass().getName());
+        }
+        else {
+            // MessageFormat formats all other objects with their toString()
+            out.writeByte(STRING_ARGUMENT);
+            out.writeUTF(arg.toString());
+        }
+    }
+
+    /**
+     * Writes a number argument together with its binary tag.
+     * @param out the output to write to
+     * @param arg the argument to write
+     * @throws IOException if the output cannot be written
+     */
+    private static void writeNumberArgument(DataOutput out, Number arg) throws IOException {
+        if (arg instanceof Integer) {
+            out.writeByte(INTEGER_ARGUMENT);
+            out.writeInt(arg.intValue());
+        }
+        else if (arg instanceof Long) {
+            out.writeByte(LONG_ARGUMENT);
+            out.writeLong(arg.longValue());
+        }
+        else if (arg instanceof Double) {
+            out.writeByte(DOUBLE_ARGUMENT);
+            out.writeDouble(arg.doubleValue());
+        }
+        else if (arg instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER_ARGUMENT);
+            out.writeUTF(arg.toString());
+        }
+        else if (arg instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL_ARGUMENT);
+            out.writeUTF(arg.toString());
+        }
+        else {
+            throw new NotSerializableException(arg.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a message argument written by {@link #writeArgument(DataOutput, Object)}.
+     * @param in the input to read from
+     * @return the argument
+     * @throws IOException if the input cannot be read or holds an unknown tag
+     */
+    private static Object readArgument(DataInput in) throws IOException {
+        final byte tag = in.readByte();
+        final Object arg;
+        switch (tag) {
+            case NULL_ARGUMENT:
+                arg = null;
+                break;
+            case STRING_ARGUMENT:
+                arg = in.readUTF();
+                break;
+            case INTEGER_ARGUMENT:
+                arg = in.readInt();
+                break;
+            case LONG_ARGUMENT:
+                arg = in.readLong();
+                break;
+            case DOUBLE_ARGUMENT:
+                arg = in.readDouble();
+                break;
+            case BIG_INTEGER_ARGUMENT:
+                arg = new BigInteger(in.readUTF());
+                break;
+            case BIG_DECIMAL_ARGUMENT:
+                arg = new BigDecimal(in.readUTF());
+                break;
+            default:
+                throw new IOException("Unknown argument tag " + tag);
+        }
+        return arg;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Interface Comparable methods
     ////////////////////////////////////////////////////////////////////////////
@@ -371,14 +634,17 @@ public final class LocalizedMessage
     @Override
     public int compareTo(LocalizedMessage other) {
         int result = Integer.compare(lineNo, other.lineNo);
-
-        if (lineNo == other.lineNo) {
-            if (columnNo == other.columnNo) {
-                result = getMessage().compareTo(other.getMessage());
-            }
-            else {
-                result = Integer.compare(columnNo, other.columnNo);
-            }
+        if (result == 0) {
+            result = Integer.compare(columnNo, other.columnNo);
+        }
+        if (result == 0) {
+            result = ObjectUtils.compare(moduleId, other.moduleId);
+        }
+        if (result == 0) {
+            result = ObjectUtils.compare(key, other.key);
+        }
+        if (result == 0) {
+            result = getMessage().compareTo(other.getMessage());
         }
         return result;
     }
@@ -0,0 +1,39 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+/**
+ * A FileSetCheck which collects state across the files it processes.
+ * When the Checker audits files on several threads, every worker gets its
+ * own copy of the check, built from the same configuration. Before
+ * {@link #finishProcessing()} is called the state of all copies is merged
+ * into the instance the Checker was configured with.
+ *
+ * @author the original author or authors.
+ */
+public interface MergeableFileSetCheck extends FileSetCheck {
+    /**
+     * Merges the state collected by another copy of this check into
+     * this instance.
+     * @param other a copy of this check, created from the same configuration
+     *     and used to process a disjoint part of the audited files
+     */
+    void merge(FileSetCheck other);
+}
@@ -0,0 +1,38 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+/**
+ * Listener which also receives the profile of the audit, the wall time spent
+ * in the FileSetChecks, Checks and Filters. The Checker records the profile
+ * only while such a listener is registered.
+ *
+ * @author the original author or authors.
+ */
+public interface ProfileListener
+    extends AuditListener {
+    /**
+     * Notify that the profile of the audit is complete. This happens right
+     * before {@link #auditFinished(AuditEvent)}.
+     * @param evt the event details
+     * @param profile the profile of the audit
+     */
+    void auditProfiled(AuditEvent evt, AuditProfile profile);
+}
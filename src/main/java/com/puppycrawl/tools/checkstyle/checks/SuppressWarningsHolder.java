@@ -19,23 +19,28 @@
 
 package com.puppycrawl.tools.checkstyle.checks;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.beanutils.ConversionException;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
 /**
  * Maintains a set of check suppressions from {@link SuppressWarnings}
- * annotations.
+ * annotations. When the suppressions of a file are first queried they are
+ * indexed by check name in interval trees, so a query does not depend on
+ * the number of annotations in the file.
  * @author Trevor Robinson
  */
 public class SuppressWarningsHolder
@@ -63,7 +68,11 @@ public class SuppressWarningsHolder
     private static final String CHECK_SUFFIX = "Check";
 
     /** A map from check source names to suppression aliases. */
-    private static final Map<String, String> CHECK_ALIAS_MAP = new HashMap<>();
+    private static final Map<String, String> CHECK_ALIAS_MAP = new ConcurrentHashMap<>();
+
+    /** A map from check source names to their default aliases. */
+    private static final ConcurrentMap<String, String> DEFAULT_ALIAS_MAP =
+        new ConcurrentHashMap<>();
 
     /**
      * A thread-local holder for the list of suppression entries for the last
@@ -71,6 +80,12 @@ public class SuppressWarningsHolder
      */
     private static final ThreadLocal<List<Entry>> ENTRIES = new ThreadLocal<>();
 
+    /**
+     * A thread-local holder for the index of the suppression entries for the
+     * last file parsed, built when the entries are first queried.
+     */
+    private static final ThreadLocal<EntryIndex> ENTRY_INDEX = new ThreadLocal<>();
+
     /**
      * Returns the default alias for the source name of a check, which is the
      * source name in lower case with any dotted prefix or "Check" suffix
@@ -99,7 +114,11 @@ public class SuppressWarningsHolder
     public static String getAlias(String sourceName) {
         String checkAlias = CHECK_ALIAS_MAP.get(sourceName);
         if (checkAlias == null) {
-            checkAlias = getDefaultAlias(sourceName);
+            checkAlias = DEFAULT_ALIAS_MAP.get(sourceName);
+            if (checkAlias == null) {
+                checkAlias = getDefaultAlias(sourceName);
+                DEFAULT_ALIAS_MAP.putIfAbsent(sourceName, checkAlias);
+            }
         }
         return checkAlias;
     }
@@ -147,23 +166,23 @@ public class SuppressWarningsHolder
     public static boolean isSuppressed(String sourceName, int line,
         int column) {
         final List<Entry> entries = ENTRIES.get();
-        final String checkAlias = getAlias(sourceName);
-        for (Entry entry : entries) {
-            final boolean afterStart =
-                entry.getFirstLine() < line
-                    || entry.getFirstLine() == line
-                            && entry.getFirstColumn() <= column;
-            final boolean beforeEnd =
-                entry.getLastLine() > line
-                    || entry.getLastLine() == line && entry
-                        .getLastColumn() >= column;
-            final boolean nameMatches =
-                entry.getCheckName().equals(checkAlias);
-            if (afterStart && beforeEnd && nameMatches) {
-                return true;
-            }
+        EntryIndex index = ENTRY_INDEX.get();
+        if (index == null || !index.isIndexOf(entries)) {
+            index = new EntryIndex(entries);
+            ENTRY_INDEX.set(index);
         }
-        return false;
+        return index.isSuppressed(getAlias(sourceName), getPosition(line, column));
+    }
+
+    /**
+     * Returns a position in a file as a number, positions later in the file
+     * having greater numbers.
+     * @param line the line of the position
+     * @param column the column of the position, may be -1
+     * @return the position as a number
+     */
+    private static long getPosition(int line, int column) {
+        return ((long) line << Integer.SIZE) + column;
     }
 
     @Override
@@ -183,7 +202,8 @@ public class SuppressWarningsHolder
 
     @Override
     public void beginTree(DetailAST rootAST) {
-        ENTRIES.set(new LinkedList<Entry>());
+        ENTRIES.set(Lists.<Entry>newArrayList());
+        ENTRY_INDEX.remove();
     }
 
     @Override
@@ -429,6 +449,138 @@ public class SuppressWarningsHolder
         }
     }
 
+    /** The suppression entries of a file, indexed by check name. */
+    private static final class EntryIndex {
+        /** The indexed entries. */
+        private final List<Entry> entries;
+
+        /** The number of indexed entries. */
+        private final int size;
+
+        /** The trees of entries by check name. */
+        private final Map<String, EntryTree> trees = Maps.newHashMap();
+
+        /**
+         * Creates the index of the suppression entries of a file.
+         * @param entries the entries
+         */
+        EntryIndex(List<Entry> entries) {
+            this.entries = entries;
+            size = entries.size();
+            final Map<String, List<Entry>> entriesByName = Maps.newHashMap();
+            for (Entry entry : entries) {
+                List<Entry> nameEntries = entriesByName.get(entry.getCheckName());
+                if (nameEntries == null) {
+                    nameEntries = Lists.newArrayList();
+                    entriesByName.put(entry.getCheckName(), nameEntries);
+                }
+                nameEntries.add(entry);
+            }
+            for (Map.Entry<String, List<Entry>> nameEntries : entriesByName.entrySet()) {
+                trees.put(nameEntries.getKey(), new EntryTree(nameEntries.getValue()));
+            }
+        }
+
+        /**
+         * Checks whether this index is up to date with a list of entries.
+         * @param list the list of entries
+         * @return true if the index contains all entries of the list
+         */
+        boolean isIndexOf(List<Entry> list) {
+            return entries == list && size == list.size();
+        }
+
+        /**
+         * Checks for a suppression of a check at a position.
+         * @param checkAlias the alias of the check
+         * @param position the position
+         * @return whether the check is suppressed at the position
+         */
+        boolean isSuppressed(String checkAlias, long position) {
+            final EntryTree tree = trees.get(checkAlias);
+            return tree != null && tree.contains(position);
+        }
+    }
+
+    /**
+     * An interval tree of the regions of the entries of a check. The entries
+     * sorted by their start form an implicit balanced tree, the middle entry
+     * of a range being the root of the range. Each root knows the greatest
+     * end of the entries in its range, so ranges which end before a position
+     * and ranges which start after it are skipped.
+     */
+    private static final class EntryTree {
+        /** The entries sorted by their start. */
+        private final List<Entry> sortedEntries;
+
+        /** The greatest end of the range rooted at each entry. */
+        private final long[] maxEnds;
+
+        /**
+         * Creates the tree of the entries of a check.
+         * @param entries the entries, not empty
+         */
+        EntryTree(List<Entry> entries) {
+            sortedEntries = entries;
+            Collections.sort(sortedEntries, new Comparator<Entry>() {
+                @Override
+                public int compare(Entry entry1, Entry entry2) {
+                    return Long.compare(entry1.getStart(), entry2.getStart());
+                }
+            });
+            maxEnds = new long[entries.size()];
+            computeMaxEnds(0, entries.size());
+        }
+
+        /**
+         * Computes the greatest ends of a non-empty range of entries.
+         * @param low the first index of the range
+         * @param high the index after the range
+         * @return the greatest end of the range
+         */
+        private long computeMaxEnds(int low, int high) {
+            final int middle = (low + high) >>> 1;
+            long max = sortedEntries.get(middle).getEnd();
+            if (low < middle) {
+                max = Math.max(max, computeMaxEnds(low, middle));
+            }
+            if (middle + 1 < high) {
+                max = Math.max(max, computeMaxEnds(middle + 1, high));
+            }
+            maxEnds[middle] = max;
+            return max;
+        }
+
+        /**
+         * Checks whether the region of an entry contains a position.
+         * @param position the position
+         * @return true if an entry contains the position
+         */
+        boolean contains(long position) {
+            return contains(position, 0, sortedEntries.size());
+        }
+
+        /**
+         * Checks whether the region of an entry of a range contains a position.
+         * @param position the position
+         * @param low the first index of the range
+         * @param high the index after the range
+         * @return true if an entry of the range contains the position
+         */
+        private boolean contains(long position, int low, int high) {
+            boolean result = false;
+            final int middle = (low + high) >>> 1;
+            if (low < high && maxEnds[middle] >= position) {
+                final Entry entry = sortedEntries.get(middle);
+                result = contains(position, low, middle)
+                    || entry.getStart() <= position
+                        && (entry.getEnd() >= position
+                            || contains(position, middle + 1, high));
+            }
+            return result;
+        }
+    }
+
     /** Records a particular suppression for a region of a file. */
     private static class Entry {
         /** The source name of the suppressed check. */
@@ -498,5 +650,21 @@ public class SuppressWarningsHolder
         public int getLastColumn() {
             return lastColumn;
         }
+
+        /**
+         * Gets the first position of the suppression region.
+         * @return the first position of the suppression region
+         */
+        public long getStart() {
+            return getPosition(firstLine, firstColumn);
+        }
+
+        /**
+         * Gets the last position of the suppression region.
+         * @return the last position of the suppression region
+         */
+        public long getEnd() {
+            return getPosition(lastLine, lastColumn);
+        }
     }
 }
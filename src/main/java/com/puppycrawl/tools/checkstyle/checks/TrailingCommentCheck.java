@@ -159,7 +159,7 @@ public class TrailingCommentCheck extends AbstractFormatCheck {
         lines.addAll(cComments.keySet());
 
         for (Integer lineNo : lines) {
-            final String line = getLines()[lineNo - 1];
+            final String line = getLine(lineNo - 1);
             String lineBefore;
             TextBlock comment;
             if (cppComments.containsKey(lineNo)) {
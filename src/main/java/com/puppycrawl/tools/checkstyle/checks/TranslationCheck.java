@@ -44,7 +44,9 @@ import com.google.common.collect.Sets;
 import com.google.common.io.Closeables;
 import com.puppycrawl.tools.checkstyle.Definitions;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.MergeableFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
 
 /**
@@ -89,7 +91,8 @@ import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
  * @author Andrei Selkin
  */
 public class TranslationCheck
-    extends AbstractFileSetCheck {
+    extends AbstractFileSetCheck
+    implements MergeableFileSetCheck {
 
     /**
      * A key is pointing to the warning message text for missing key
@@ -146,6 +149,11 @@ public class TranslationCheck
         propertyFiles.add(file);
     }
 
+    @Override
+    public void merge(FileSetCheck other) {
+        propertyFiles.addAll(((TranslationCheck) other).propertyFiles);
+    }
+
     @Override
     public void finishProcessing() {
         super.finishProcessing();
@@ -170,7 +170,7 @@ public class RightCurlyCheck extends AbstractOptionCheck<RightCurlyOption> {
 
         final String violation;
         if (shouldStartLine) {
-            final String targetSourceLine = getLines()[rcurly.getLineNo() - 1];
+            final String targetSourceLine = getLine(rcurly.getLineNo() - 1);
             violation = validate(details, getAbstractOption(), true, targetSourceLine);
         }
         else {
@@ -0,0 +1,394 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import com.google.common.base.CaseFormat;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.grammars.javadoc.JavadocLexer;
+import com.puppycrawl.tools.checkstyle.grammars.javadoc.JavadocParser;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtils;
+
+/**
+ * Parses Javadoc comments as {@link DetailNode} trees for the Javadoc checks.
+ * A parser is used by one thread at a time and reused for many comments.
+ * @author Baratali Izmailov
+ */
+final class JavadocDetailNodeParser {
+    /** Javadoc comment with common constructs to warm up the prediction caches with. */
+    private static final String WARM_UP_COMMENT = "*\n"
+        + " * Summary with {@code code}, {@link Object#equals(Object) equals}\n"
+        + " * and {@inheritDoc}.\n"
+        + " * <p>Paragraph with <b>bold</b>, <i>italic</i> &amp; <a href=\"#x\">link</a>.\n"
+        + " * <ul>\n"
+        + " *   <li>item</li>\n"
+        + " * </ul>\n"
+        + " * <pre>code</pre><br/>\n"
+        + " * @param name the name\n"
+        + " * @return the value\n"
+        + " * @throws IllegalStateException if it fails\n"
+        + " * @see java.util.List#add(Object)\n"
+        + " * @since 1.0\n"
+        + " * @deprecated use something else\n"
+        + " ";
+
+    /** Whether the prediction caches are warmed up. */
+    private static final AtomicBoolean WARMED_UP = new AtomicBoolean();
+
+    /**
+     * Custom error listener.
+     */
+    private final DescriptiveErrorListener errorListener =
+            new DescriptiveErrorListener();
+
+    /**
+     * The parser, reused for all comments. It shares the prediction caches
+     * of its grammar with all other parsers.
+     */
+    private final JavadocParser parser = new JavadocParser(null);
+
+    /** Creates a new parser. */
+    JavadocDetailNodeParser() {
+        // remove default error listeners
+        parser.removeErrorListeners();
+
+        // add custom error listener that logs syntax errors
+        parser.addErrorListener(errorListener);
+
+        // This strategy stops parsing when parser error occurs.
+        // By default it uses Error Recover Strategy which is slow and useless.
+        parser.setErrorHandler(new BailErrorStrategy());
+    }
+
+    /**
+     * Warms up the prediction caches of the grammar by parsing a sample
+     * comment, once per class loader.
+     */
+    static void warmUp() {
+        if (WARMED_UP.compareAndSet(false, true)) {
+            new JavadocDetailNodeParser().parseJavadocAsParseTree(WARM_UP_COMMENT);
+        }
+    }
+
+    /**
+     * Parses Javadoc comment as DetailNode tree.
+     * @param javadocCommentAst
+     *        DetailAST of Javadoc comment
+     * @return DetailNode tree of Javadoc comment
+     */
+    ParseStatus parseJavadocAsDetailNode(DetailAST javadocCommentAst) {
+        final String javadocComment = JavadocUtils.getJavadocCommentContent(javadocCommentAst);
+
+        // Log messages should have line number in scope of file,
+        // not in scope of Javadoc comment.
+        // Offset is line number of beginning of Javadoc comment.
+        errorListener.setOffset(javadocCommentAst.getLineNo() - 1);
+
+        final ParseStatus result = new ParseStatus();
+        ParseTree parseTree = null;
+        ParseErrorMessage parseErrorMessage = null;
+
+        try {
+            parseTree = parseJavadocAsParseTree(javadocComment);
+        }
+        catch (ParseCancellationException e) {
+            // If syntax error occurs then message is printed by error listener
+            // and parser throws this runtime exception to stop parsing.
+            // Just stop processing current Javadoc comment.
+            parseErrorMessage = errorListener.getErrorMessage();
+
+            // There are cases when antlr error listener does not handle syntax error
+            if (parseErrorMessage == null) {
+                parseErrorMessage = new ParseErrorMessage(javadocCommentAst.getLineNo(),
+                        AbstractJavadocCheck.UNRECOGNIZED_ANTLR_ERROR_MESSAGE_KEY,
+                        javadocCommentAst.getColumnNo(), e.getMessage());
+            }
+        }
+
+        if (parseErrorMessage == null) {
+            result.setTree(new LazyJavadocNode(parseTree, javadocCommentAst.getLineNo()));
+        }
+        else {
+            result.setParseErrorMessage(parseErrorMessage);
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses block comment content as javadoc comment. The fast SLL
+     * prediction is tried first. As it fails on some valid comments, the
+     * comment is parsed again with full LL prediction if it fails, which
+     * reports the same errors as if only LL prediction was used.
+     * @param blockComment
+     *        block comment content.
+     * @return parse tree
+     */
+    private ParseTree parseJavadocAsParseTree(String blockComment) {
+        final ParseErrorMessage previousErrorMessage = errorListener.getErrorMessage();
+        ParseTree result;
+        try {
+            result = parseJavadocAsParseTree(blockComment, PredictionMode.SLL);
+        }
+        catch (ParseCancellationException ignored) {
+            errorListener.setErrorMessage(previousErrorMessage);
+            result = parseJavadocAsParseTree(blockComment, PredictionMode.LL);
+        }
+        return result;
+    }
+
+    /**
+     * Parses block comment content as javadoc comment with the reused parser.
+     * @param blockComment
+     *        block comment content.
+     * @param predictionMode
+     *        the prediction mode of the parser.
+     * @return parse tree
+     */
+    private ParseTree parseJavadocAsParseTree(String blockComment,
+            PredictionMode predictionMode) {
+        final ANTLRInputStream input = new ANTLRInputStream(blockComment);
+
+        // the lexer is not reused as its members keep the state of the last comment
+        final JavadocLexer lexer = new JavadocLexer(input);
+
+        // remove default error listeners
+        lexer.removeErrorListeners();
+
+        // add custom error listener that logs parsing errors
+        lexer.addErrorListener(errorListener);
+
+        parser.setInputStream(new CommonTokenStream(lexer));
+        parser.getInterpreter().setPredictionMode(predictionMode);
+        return parser.javadoc();
+    }
+
+    /**
+     * Custom error listener for JavadocParser that prints user readable errors.
+     */
+    private static class DescriptiveErrorListener extends BaseErrorListener {
+
+        /**
+         * Parse error while rule recognition.
+         */
+        private static final String JAVADOC_PARSE_RULE_ERROR = "javadoc.parse.rule.error";
+
+        /**
+         * Offset is line number of beginning of the Javadoc comment. Log
+         * messages should have line number in scope of file, not in scope of
+         * Javadoc comment.
+         */
+        private int offset;
+
+        /**
+         * Error message that appeared while parsing.
+         */
+        private ParseErrorMessage errorMessage;
+
+        /**
+         * Getter for error message during parsing.
+         * @return Error message during parsing.
+         */
+        private ParseErrorMessage getErrorMessage() {
+            return errorMessage;
+        }
+
+        /**
+         * Setter for error message during parsing.
+         * @param errorMessage Error message during parsing.
+         */
+        private void setErrorMessage(ParseErrorMessage errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+
+        /**
+         * Sets offset. Offset is line number of beginning of the Javadoc
+         * comment. Log messages should have line number in scope of file, not
+         * in scope of Javadoc comment.
+         * @param offset
+         *        offset line number
+         */
+        public void setOffset(int offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * Logs parser errors in Checkstyle manner. Parser can generate error
+         * messages. There is special error that parser can generate. It is
+         * missed close HTML tag. This case is special because parser prints
+         * error like {@code "no viable alternative at input 'b \n *\n'"} and it
+         * is not clear that error is about missed close HTML tag. Other error
+         * messages are not special and logged simply as "Parse Error...".
+         *
+         * <p>{@inheritDoc}
+         */
+        @Override
+        public void syntaxError(
+                Recognizer<?, ?> recognizer, Object offendingSymbol,
+                int line, int charPositionInLine,
+                String msg, RecognitionException ex) {
+            final int lineNumber = offset + line;
+            final Token token = (Token) offendingSymbol;
+
+            if (AbstractJavadocCheck.JAVADOC_MISSED_HTML_CLOSE.equals(msg)) {
+                errorMessage = new ParseErrorMessage(lineNumber,
+                        AbstractJavadocCheck.JAVADOC_MISSED_HTML_CLOSE, charPositionInLine,
+                        token.getText());
+
+                throw new ParseCancellationException(msg);
+            }
+            else if (AbstractJavadocCheck.JAVADOC_WRONG_SINGLETON_TAG.equals(msg)) {
+                errorMessage = new ParseErrorMessage(lineNumber,
+                        AbstractJavadocCheck.JAVADOC_WRONG_SINGLETON_TAG, charPositionInLine,
+                        token.getText());
+
+                throw new ParseCancellationException(msg);
+            }
+            else {
+                final int ruleIndex = ex.getCtx().getRuleIndex();
+                final String ruleName = recognizer.getRuleNames()[ruleIndex];
+                final String upperCaseRuleName = CaseFormat.UPPER_CAMEL.to(
+                        CaseFormat.UPPER_UNDERSCORE, ruleName);
+
+                errorMessage = new ParseErrorMessage(lineNumber,
+                        JAVADOC_PARSE_RULE_ERROR, charPositionInLine, msg, upperCaseRuleName);
+            }
+        }
+    }
+
+    /**
+     * Contains result of parsing javadoc comment: DetailNode tree and parse
+     * error message.
+     */
+    static class ParseStatus {
+        /**
+         * DetailNode tree (is null if parsing fails).
+         */
+        private DetailNode tree;
+
+        /**
+         * Parse error message (is null if parsing is successful).
+         */
+        private ParseErrorMessage parseErrorMessage;
+
+        /**
+         * Getter for DetailNode tree.
+         * @return DetailNode tree if parsing was successful, null otherwise.
+         */
+        public DetailNode getTree() {
+            return tree;
+        }
+
+        /**
+         * Sets DetailNode tree.
+         * @param tree DetailNode tree.
+         */
+        public void setTree(DetailNode tree) {
+            this.tree = tree;
+        }
+
+        /**
+         * Getter for error message during parsing.
+         * @return Error message if parsing was unsuccessful, null otherwise.
+         */
+        public ParseErrorMessage getParseErrorMessage() {
+            return parseErrorMessage;
+        }
+
+        /**
+         * Sets parse error message.
+         * @param parseErrorMessage Parse error message.
+         */
+        public void setParseErrorMessage(ParseErrorMessage parseErrorMessage) {
+            this.parseErrorMessage = parseErrorMessage;
+        }
+
+    }
+
+    /**
+     * Contains information about parse error message.
+     */
+    static class ParseErrorMessage {
+        /**
+         * Line number where parse error occurred.
+         */
+        private final int lineNumber;
+
+        /**
+         * Key for error message.
+         */
+        private final String messageKey;
+
+        /**
+         * Error message arguments.
+         */
+        private final Object[] messageArguments;
+
+        /**
+         * Initializes parse error message.
+         *
+         * @param lineNumber line number
+         * @param messageKey message key
+         * @param messageArguments message arguments
+         */
+        ParseErrorMessage(int lineNumber, String messageKey, Object ... messageArguments) {
+            this.lineNumber = lineNumber;
+            this.messageKey = messageKey;
+            this.messageArguments = messageArguments.clone();
+        }
+
+        /**
+         * Getter for line number where parse error occurred.
+         * @return Line number where parse error occurred.
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Getter for key for error message.
+         * @return Key for error message.
+         */
+        public String getMessageKey() {
+            return messageKey;
+        }
+
+        /**
+         * Getter for error message arguments.
+         * @return Array of error message arguments.
+         */
+        public Object[] getMessageArguments() {
+            return messageArguments.clone();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TextBlock;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtils;
+
+/**
+ * The parsed Javadoc comments of the file a TreeWalker is walking.
+ *
+ * <p>TreeWalker opens its model before the checks walk a file and releases
+ * it after they finished the file. While the model is open, every Javadoc
+ * check of the thread gets the same tree for a comment, which is parsed at
+ * most once. The trees are keyed by the identity of the comment node.
+ *
+ * <p>The checks which look at the Javadoc comments of
+ * {@link com.puppycrawl.tools.checkstyle.api.FileContents#getJavadocBefore}
+ * share the tags of a comment the same way. They are keyed by the identity
+ * of the text block of the comment.
+ *
+ * @author the original author or authors.
+ */
+public final class JavadocModel {
+    /** The model open on the current thread. */
+    private static final ThreadLocal<JavadocModel> CURRENT = new ThreadLocal<>();
+
+    /** The parser of the comments of the current thread. */
+    private static final ThreadLocal<JavadocDetailNodeParser> PARSER =
+        new ThreadLocal<JavadocDetailNodeParser>() {
+            @Override
+            protected JavadocDetailNodeParser initialValue() {
+                return new JavadocDetailNodeParser();
+            }
+        };
+
+    /** The parsed comments, keyed by their block comment node. */
+    private final Map<DetailAST, JavadocDetailNodeParser.ParseStatus> trees =
+        new IdentityHashMap<>();
+
+    /** The tags of the comments, keyed by their text block and indexed by tag type. */
+    private final Map<TextBlock, JavadocTags[]> tags = new IdentityHashMap<>();
+
+    /** Makes this model the one the Javadoc checks of the current thread use. */
+    public void open() {
+        CURRENT.set(this);
+    }
+
+    /** Releases the parsed comments and closes this model. */
+    public void release() {
+        trees.clear();
+        tags.clear();
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the parsed Javadoc comment of a block comment node, from the
+     * open model if there is one.
+     * @param blockCommentAst the block comment node of the Javadoc comment
+     * @return the parsed comment
+     */
+    static JavadocDetailNodeParser.ParseStatus getParseStatus(DetailAST blockCommentAst) {
+        final JavadocModel model = CURRENT.get();
+        final JavadocDetailNodeParser.ParseStatus result;
+        if (model == null) {
+            result = PARSER.get().parseJavadocAsDetailNode(blockCommentAst);
+        }
+        else {
+            result = model.parse(blockCommentAst);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tags of a Javadoc comment, from the open model if there is
+     * one.
+     * @param cmt the Javadoc comment
+     * @param tagType the type of tags
+     * @return the tags of the comment
+     * @see JavadocUtils#getJavadocTags(TextBlock, JavadocUtils.JavadocTagType)
+     */
+    public static JavadocTags getJavadocTags(TextBlock cmt,
+            JavadocUtils.JavadocTagType tagType) {
+        final JavadocModel model = CURRENT.get();
+        final JavadocTags result;
+        if (model == null) {
+            result = JavadocUtils.getJavadocTags(cmt, tagType);
+        }
+        else {
+            result = model.scan(cmt, tagType);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the parsed Javadoc comment of a block comment node, parsing it
+     * when it is asked for the first time.
+     * @param blockCommentAst the block comment node of the Javadoc comment
+     * @return the parsed comment
+     */
+    private JavadocDetailNodeParser.ParseStatus parse(DetailAST blockCommentAst) {
+        JavadocDetailNodeParser.ParseStatus result = trees.get(blockCommentAst);
+        if (result == null) {
+            result = PARSER.get().parseJavadocAsDetailNode(blockCommentAst);
+            trees.put(blockCommentAst, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tags of a Javadoc comment, scanning the comment when they
+     * are asked for the first time.
+     * @param cmt the Javadoc comment
+     * @param tagType the type of tags
+     * @return the tags of the comment
+     */
+    private JavadocTags scan(TextBlock cmt, JavadocUtils.JavadocTagType tagType) {
+        JavadocTags[] commentTags = tags.get(cmt);
+        if (commentTags == null) {
+            commentTags = new JavadocTags[JavadocUtils.JavadocTagType.values().length];
+            tags.put(cmt, commentTags);
+        }
+        JavadocTags result = commentTags[tagType.ordinal()];
+        if (result == null) {
+            result = JavadocUtils.getJavadocTags(cmt, tagType);
+            commentTags[tagType.ordinal()] = result;
+        }
+        return result;
+    }
+}
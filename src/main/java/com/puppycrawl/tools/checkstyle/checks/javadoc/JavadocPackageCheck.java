@@ -25,13 +25,16 @@ import java.util.Set;
 
 import com.google.common.collect.Sets;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.MergeableFileSetCheck;
 
 /**
  * Checks that all packages have a package documentation. See the documentation
  * for more information.
  * @author Oliver Burn
  */
-public class JavadocPackageCheck extends AbstractFileSetCheck {
+public class JavadocPackageCheck extends AbstractFileSetCheck
+    implements MergeableFileSetCheck {
 
     /**
      * A key is pointing to the warning message text in "messages.properties"
@@ -88,6 +91,11 @@ public class JavadocPackageCheck extends AbstractFileSetCheck {
         }
     }
 
+    @Override
+    public void merge(FileSetCheck other) {
+        directoriesChecked.addAll(((JavadocPackageCheck) other).directoriesChecked);
+    }
+
     /**
      * Indicates whether to allow support for the legacy <i>package.html</i>
      * file.
@@ -0,0 +1,182 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.ATNState;
+import org.antlr.v4.runtime.atn.RuleTransition;
+import org.antlr.v4.runtime.atn.Transition;
+import org.antlr.v4.runtime.misc.IntervalSet;
+
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+import com.puppycrawl.tools.checkstyle.grammars.javadoc.JavadocParser;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtils;
+
+/**
+ * The Javadoc token types of the rules of the Javadoc grammar and the token
+ * types which can occur below the nodes of a rule, as found in the ATN of
+ * the parser.
+ *
+ * @author the original author or authors.
+ */
+final class JavadocRuleTypes {
+    /** Type of a rule which has no Javadoc token type. */
+    private static final int UNKNOWN_TYPE = Integer.MIN_VALUE;
+
+    /** The token types of the rules, indexed by rule. */
+    private static final int[] RULE_TYPES = createRuleTypes();
+
+    /** The token types which can occur below the nodes of a rule, indexed by rule. */
+    private static final List<Set<Integer>> SUBTREE_TYPES = createSubtreeTypes();
+
+    /** Prevent instantiation. */
+    private JavadocRuleTypes() {
+    }
+
+    /**
+     * Returns the token type of the nodes of a rule.
+     * @param ruleIndex the index of the rule
+     * @return the token type from JavadocTokenTypes
+     * @throws IllegalArgumentException if the rule has no token type
+     */
+    static int getRuleType(int ruleIndex) {
+        final int type = RULE_TYPES[ruleIndex];
+        if (type == UNKNOWN_TYPE) {
+            // throws with the name of the rule
+            return JavadocUtils.getTokenId(getRuleTypeName(ruleIndex));
+        }
+        return type;
+    }
+
+    /**
+     * Returns the token types of the rules which can have a node of one of
+     * the given token types below them. Below the nodes of all other rules
+     * there is no node of these types.
+     * @param tokenTypes the token types to look for
+     * @return the sorted token types of the rules
+     */
+    static int[] getParentTypes(int... tokenTypes) {
+        final List<Integer> parentTypes = Lists.newArrayList();
+        for (int rule = 0; rule < RULE_TYPES.length; rule++) {
+            final Set<Integer> subtreeTypes = SUBTREE_TYPES.get(rule);
+            for (int tokenType : tokenTypes) {
+                if (RULE_TYPES[rule] != UNKNOWN_TYPE && subtreeTypes.contains(tokenType)) {
+                    parentTypes.add(RULE_TYPES[rule]);
+                    break;
+                }
+            }
+        }
+        final int[] result = Ints.toArray(parentTypes);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Gets the name of the token type of a rule.
+     * @param ruleIndex the index of the rule
+     * @return the name of the token type
+     */
+    private static String getRuleTypeName(int ruleIndex) {
+        return CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE,
+                JavadocParser.ruleNames[ruleIndex]);
+    }
+
+    /**
+     * Looks up the token types of all rules. Rules which only occur in
+     * comments that fail to parse have no token type.
+     * @return the token types, indexed by rule
+     */
+    private static int[] createRuleTypes() {
+        final int[] types = new int[JavadocParser.ruleNames.length];
+        for (int rule = 0; rule < types.length; rule++) {
+            try {
+                types[rule] = JavadocUtils.getTokenId(getRuleTypeName(rule));
+            }
+            catch (IllegalArgumentException ignored) {
+                types[rule] = UNKNOWN_TYPE;
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Collects the token types which can occur below the nodes of each rule:
+     * the tokens a rule matches, the rules it calls and everything below
+     * the called rules.
+     * @return the token types, indexed by rule
+     */
+    private static List<Set<Integer>> createSubtreeTypes() {
+        final List<Set<Integer>> subtreeTypes = Lists.newArrayList();
+        final List<Set<Integer>> calledRules = Lists.newArrayList();
+        for (int rule = 0; rule < RULE_TYPES.length; rule++) {
+            subtreeTypes.add(Sets.<Integer>newHashSet());
+            calledRules.add(Sets.<Integer>newHashSet());
+        }
+
+        final ATN atn = JavadocParser._ATN;
+        for (ATNState state : atn.states) {
+            if (state != null) {
+                for (int i = 0; i < state.getNumberOfTransitions(); i++) {
+                    addTransition(state.transition(i), subtreeTypes.get(state.ruleIndex),
+                            calledRules.get(state.ruleIndex));
+                }
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int rule = 0; rule < RULE_TYPES.length; rule++) {
+                for (int calledRule : calledRules.get(rule)) {
+                    changed |= subtreeTypes.get(rule).addAll(subtreeTypes.get(calledRule));
+                }
+            }
+        }
+        return subtreeTypes;
+    }
+
+    /**
+     * Adds the types of the nodes a transition of a rule creates.
+     * @param transition the transition
+     * @param types the types of the nodes below the nodes of the rule
+     * @param calledRules the rules the rule calls
+     */
+    private static void addTransition(Transition transition, Set<Integer> types,
+            Set<Integer> calledRules) {
+        if (transition instanceof RuleTransition) {
+            final int calledRule = transition.target.ruleIndex;
+            calledRules.add(calledRule);
+            types.add(RULE_TYPES[calledRule]);
+        }
+        else {
+            final IntervalSet label = transition.label();
+            if (label != null) {
+                types.addAll(label.toList());
+            }
+        }
+    }
+}
@@ -88,6 +88,10 @@ public class JavadocTypeCheck
     /** Close angle bracket literal. */
     private static final String CLOSE_ANGLE_BRACKET = ">";
 
+    /** Pattern to match type name within angle brackets in javadoc param tag. */
+    private static final Pattern TYPE_NAME_IN_JAVADOC_TAG =
+            Pattern.compile("\\s*<([^>]+)>.*");
+
     /** The scope to check for. */
     private Scope scope = Scope.PRIVATE;
     /** The visibility scope where Javadoc comments shouldn't be checked. **/
@@ -247,7 +251,7 @@ public class JavadocTypeCheck
      * @return all standalone tags from the given javadoc.
      */
     private List<JavadocTag> getJavadocTags(TextBlock cmt) {
-        final JavadocTags tags = JavadocUtils.getJavadocTags(cmt,
+        final JavadocTags tags = JavadocModel.getJavadocTags(cmt,
             JavadocUtils.JavadocTagType.BLOCK);
         if (!allowUnknownTags) {
             for (final InvalidJavadocTag tag : tags.getInvalidTags()) {
@@ -320,12 +324,11 @@ public class JavadocTypeCheck
     private void checkUnusedTypeParamTags(
         final List<JavadocTag> tags,
         final List<String> typeParamNames) {
-        final Pattern pattern = Pattern.compile("\\s*<([^>]+)>.*");
         for (int i = tags.size() - 1; i >= 0; i--) {
             final JavadocTag tag = tags.get(i);
             if (tag.isParamTag()) {
 
-                final Matcher matcher = pattern.matcher(tag.getFirstArg());
+                final Matcher matcher = TYPE_NAME_IN_JAVADOC_TAG.matcher(tag.getFirstArg());
                 if (matcher.find()) {
                     final String typeParamName = matcher.group(1).trim();
                     if (!typeParamNames.contains(typeParamName)) {
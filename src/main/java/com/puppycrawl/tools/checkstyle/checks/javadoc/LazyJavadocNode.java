@@ -0,0 +1,179 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import java.util.Arrays;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtils;
+
+/**
+ * Implementation of DetailNode interface on top of a node of the ParseTree
+ * of a Javadoc comment. The children and the text of a node are only
+ * created when they are requested, so parts of a tree no check visits are
+ * never converted. Nodes are not thread safe.
+ *
+ * @author the original author or authors.
+ */
+final class LazyJavadocNode implements DetailNode {
+    /** Empty array of {@link DetailNode} type. */
+    private static final DetailNode[] EMPTY_DETAIL_NODE_ARRAY = new DetailNode[0];
+
+    /** ParseTree node this node is based on. */
+    private final ParseTree tree;
+
+    /** Parent node. */
+    private final DetailNode parent;
+
+    /** Node index among parent's children. */
+    private final int index;
+
+    /** Line number of the beginning of the Javadoc comment. */
+    private final int commentLineNumber;
+
+    /** Node type. */
+    private final int type;
+
+    /** Array of child nodes, created on first request. */
+    private DetailNode[] children;
+
+    /** Node's text content, created on first request. */
+    private String text;
+
+    /**
+     * Creates the root node of the tree of a Javadoc comment.
+     * @param tree root node of the ParseTree of the comment
+     * @param commentLineNumber line number of the beginning of the comment
+     */
+    LazyJavadocNode(ParseTree tree, int commentLineNumber) {
+        this(tree, null, -1, commentLineNumber);
+    }
+
+    /**
+     * Creates a node.
+     * @param tree ParseTree node this node is based on
+     * @param parent parent node
+     * @param index node index among parent's children
+     * @param commentLineNumber line number of the beginning of the comment
+     */
+    private LazyJavadocNode(ParseTree tree, DetailNode parent, int index,
+            int commentLineNumber) {
+        this.tree = tree;
+        this.parent = parent;
+        this.index = index;
+        this.commentLineNumber = commentLineNumber;
+        type = getTokenType(tree);
+    }
+
+    @Override
+    public int getType() {
+        return type;
+    }
+
+    @Override
+    public String getText() {
+        if (text == null) {
+            text = tree.getText();
+        }
+        return text;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return getStartToken().getLine() - 1 + commentLineNumber;
+    }
+
+    @Override
+    public int getColumnNumber() {
+        return getStartToken().getCharPositionInLine();
+    }
+
+    @Override
+    public DetailNode[] getChildren() {
+        if (children == null) {
+            children = createChildren();
+        }
+        return Arrays.copyOf(children, children.length);
+    }
+
+    @Override
+    public DetailNode getParent() {
+        return parent;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return JavadocUtils.getTokenName(type)
+                + "[" + getLineNumber() + "x" + getColumnNumber() + "]";
+    }
+
+    /**
+     * Creates the child nodes based on the children of the ParseTree node.
+     * @return array of child nodes
+     */
+    private DetailNode[] createChildren() {
+        final int childCount = tree.getChildCount();
+        DetailNode[] result = EMPTY_DETAIL_NODE_ARRAY;
+        if (childCount > 0) {
+            result = new DetailNode[childCount];
+            for (int i = 0; i < childCount; i++) {
+                result[i] = new LazyJavadocNode(tree.getChild(i), this, i, commentLineNumber);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the first token of the ParseTree node.
+     * @return the first token
+     */
+    private Token getStartToken() {
+        if (tree instanceof TerminalNode) {
+            return ((TerminalNode) tree).getSymbol();
+        }
+        else {
+            return ((ParserRuleContext) tree).start;
+        }
+    }
+
+    /**
+     * Gets token type of ParseTree node from JavadocTokenTypes class.
+     * @param node ParseTree node.
+     * @return token type from JavadocTokenTypes
+     */
+    private static int getTokenType(ParseTree node) {
+        if (node instanceof TerminalNode) {
+            return ((TerminalNode) node).getSymbol().getType();
+        }
+        else {
+            return JavadocRuleTypes.getRuleType(((ParserRuleContext) node).getRuleIndex());
+        }
+    }
+}
@@ -19,8 +19,6 @@
 
 package com.puppycrawl.tools.checkstyle.checks.regexp;
 
-import java.util.Arrays;
-
 import org.apache.commons.lang3.ArrayUtils;
 
 import com.puppycrawl.tools.checkstyle.api.Check;
@@ -70,7 +68,7 @@ public class RegexpSinglelineJavaCheck extends Check {
             options.setSuppressor(NeverSuppress.INSTANCE);
         }
 
-        detector.processLines(Arrays.asList(getLines()));
+        detector.processLines(getFileContents().getText());
     }
 
     /**
@@ -116,10 +116,10 @@ public class LineLengthCheck extends Check {
 
     @Override
     public void beginTree(DetailAST rootAST) {
-        final String[] lines = getLines();
-        for (int i = 0; i < lines.length; i++) {
+        final int lineCount = getLineCount();
+        for (int i = 0; i < lineCount; i++) {
 
-            final String line = lines[i];
+            final String line = getLine(i);
             final int realLength = CommonUtils.lengthExpandedTabs(
                 line, line.length(), getTabWidth());
 
@@ -133,7 +133,7 @@ public class MethodParamPadCheck
             }
         }
 
-        final String line = getLines()[parenAST.getLineNo() - 1];
+        final String line = getLine(parenAST.getLineNo() - 1);
         if (CommonUtils.hasWhitespaceBefore(parenAST.getColumnNo(), line)) {
             if (!allowLineBreaks) {
                 log(parenAST, LINE_PREVIOUS, parenAST.getText());
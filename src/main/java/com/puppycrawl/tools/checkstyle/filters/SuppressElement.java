@@ -20,10 +20,13 @@
 package com.puppycrawl.tools.checkstyle.filters;
 
 import java.util.Objects;
+import java.util.SortedSet;
 import java.util.regex.Pattern;
 
+import com.google.common.collect.Sets;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
-import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.BatchFilter;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
 
 /**
@@ -36,11 +39,12 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
  *   <li>(optionally) the event's line is in the filter's line CSV; and</li>
  *   <li>(optionally) the check's columns is in the filter's column CSV.</li>
  * </ul>
+ * A batch of messages is only matched against the file name once.
  *
  * @author Rick Giles
  */
 public class SuppressElement
-    implements Filter {
+    implements BatchFilter {
     /** The regexp to match file names against. */
     private final Pattern fileRegexp;
 
@@ -79,6 +83,22 @@ public class SuppressElement
         fileRegexp = Pattern.compile(files);
     }
 
+    /**
+     * Returns the pattern for file names.
+     * @return the pattern for file names
+     */
+    String getFilePattern() {
+        return filePattern;
+    }
+
+    /**
+     * Returns the module id to filter.
+     * @return the module id, null if any module is filtered
+     */
+    String getModuleId() {
+        return moduleId;
+    }
+
     /**
      * Set the check class pattern.
      * @param checks regular expression for filtered check classes.
@@ -127,28 +147,73 @@ public class SuppressElement
 
     @Override
     public boolean accept(AuditEvent event) {
-        // reject if file or check module mismatch?
-        if (isFileNameAndModuleNotMatching(event)) {
-            return true;
+        return !isFileNameMatching(event.getFileName())
+                || event.getLocalizedMessage() == null
+                || !isSuppressed(event.getLocalizedMessage());
+    }
+
+    @Override
+    public SortedSet<LocalizedMessage> accept(Object source, String fileName,
+            SortedSet<LocalizedMessage> messages) {
+        SortedSet<LocalizedMessage> accepted = messages;
+        if (isFileNameMatching(fileName)) {
+            accepted = Sets.newTreeSet();
+            for (LocalizedMessage message : messages) {
+                if (!isSuppressed(message)) {
+                    accepted.add(message);
+                }
+            }
         }
+        return accepted;
+    }
+
+    /**
+     * Is matching by file name.
+     * @param fileName the file name, may be null
+     * @return true is matching
+     */
+    private boolean isFileNameMatching(String fileName) {
+        return fileName != null && fileRegexp.matcher(fileName).find();
+    }
 
-        // reject if no line/column matching
-        return (lineFilter != null || columnFilter != null)
-                && (lineFilter == null || !lineFilter.accept(event.getLine()))
-                && (columnFilter == null || !columnFilter.accept(event.getColumn()));
+    /**
+     * Checks whether a message of a matching file is suppressed.
+     * @param message the message
+     * @return true if the message is suppressed
+     */
+    private boolean isSuppressed(LocalizedMessage message) {
+        return isModuleMatching(message) && isPositionMatching(message);
     }
 
     /**
-     * Is matching by file name and Check name.
-     * @param event event
+     * Is matching by module id and Check name.
+     * @param message the message
      * @return true is matching
      */
-    private boolean isFileNameAndModuleNotMatching(AuditEvent event) {
-        return event.getFileName() == null
-                || !fileRegexp.matcher(event.getFileName()).find()
-                || event.getLocalizedMessage() == null
-                || moduleId != null && !moduleId.equals(event.getModuleId())
-                || checkRegexp != null && !checkRegexp.matcher(event.getSourceName()).find();
+    private boolean isModuleMatching(LocalizedMessage message) {
+        return (moduleId == null || moduleId.equals(message.getModuleId()))
+                && isCheckMatching(message.getSourceName());
+    }
+
+    /**
+     * Is matching by Check name, always matching without a checks pattern.
+     * @param sourceName the class name of the Check
+     * @return true is matching
+     */
+    boolean isCheckMatching(String sourceName) {
+        return checkRegexp == null || checkRegexp.matcher(sourceName).find();
+    }
+
+    /**
+     * Is matching by line and column, always matching without line and
+     * column filters.
+     * @param message the message
+     * @return true is matching
+     */
+    boolean isPositionMatching(LocalizedMessage message) {
+        return lineFilter == null && columnFilter == null
+                || lineFilter != null && lineFilter.accept(message.getLineNo())
+                || columnFilter != null && columnFilter.accept(message.getColumnNo());
     }
 
     @Override
@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.SortedSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -31,10 +32,12 @@ import java.util.regex.PatternSyntaxException;
 import org.apache.commons.beanutils.ConversionException;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.BatchFilter;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
-import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.api.TextBlock;
 import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
@@ -71,11 +74,14 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
  *
  * <p>See {@link SuppressionCommentFilter} for usage notes.
  *
+ * <p>The lines suppressed by the tags of a file are kept in an interval
+ * tree, so an event is only matched against the tags whose lines contain it.
+ *
  * @author Mick Killianey
  */
 public class SuppressWithNearbyCommentFilter
     extends AutomaticBean
-    implements Filter {
+    implements BatchFilter {
 
     /** Format to turns checkstyle reporting off. */
     private static final String DEFAULT_COMMENT_FORMAT =
@@ -108,6 +114,9 @@ public class SuppressWithNearbyCommentFilter
     /** Tagged comments. */
     private final List<Tag> tags = Lists.newArrayList();
 
+    /** The lines suppressed by the tagged comments. */
+    private TagTree tagTree = new TagTree(tags);
+
     /**
      * References the current FileContents for this filter.
      * Since this is a weak reference to the FileContents, the FileContents
@@ -194,38 +203,51 @@ public class SuppressWithNearbyCommentFilter
 
     @Override
     public boolean accept(AuditEvent event) {
-        boolean accepted = true;
-
-        if (event.getLocalizedMessage() != null) {
-            // Lazy update. If the first event for the current file, update file
-            // contents and tag suppressions
-            final FileContents currentContents = FileContentsHolder.getContents();
+        return event.getLocalizedMessage() == null
+                || !updateTags()
+                || !matchesTag(event);
+    }
 
-            if (currentContents != null) {
-                if (getFileContents() != currentContents) {
-                    setFileContents(currentContents);
-                    tagSuppressions();
-                }
-                if (matchesTag(event)) {
-                    accepted = false;
+    @Override
+    public SortedSet<LocalizedMessage> accept(Object source, String fileName,
+            SortedSet<LocalizedMessage> messages) {
+        SortedSet<LocalizedMessage> accepted = messages;
+
+        if (updateTags() && !tags.isEmpty()) {
+            accepted = Sets.newTreeSet();
+            for (LocalizedMessage message : messages) {
+                if (!matchesTag(new AuditEvent(source, fileName, message))) {
+                    accepted.add(message);
                 }
             }
         }
         return accepted;
     }
 
+    /**
+     * Tags the suppressions of the file contents held by
+     * {@link FileContentsHolder} unless they are tagged already.
+     * @return true if file contents are held
+     */
+    private boolean updateTags() {
+        // Lazy update. If the first event for the current file, update file
+        // contents and tag suppressions
+        final FileContents currentContents = FileContentsHolder.getContents();
+        final boolean held = currentContents != null;
+        if (held && getFileContents() != currentContents) {
+            setFileContents(currentContents);
+            tagSuppressions();
+        }
+        return held;
+    }
+
     /**
      * Whether current event matches any tag from {@link #tags}.
      * @param event AuditEvent to test match on {@link #tags}.
      * @return true if event matches any tag from {@link #tags}, false otherwise.
      */
     private boolean matchesTag(AuditEvent event) {
-        for (final Tag tag : tags) {
-            if (tag.isMatch(event)) {
-                return true;
-            }
-        }
-        return false;
+        return tagTree.matches(event);
     }
 
     /**
@@ -246,6 +268,7 @@ public class SuppressWithNearbyCommentFilter
             }
         }
         Collections.sort(tags);
+        tagTree = new TagTree(tags);
     }
 
     /**
@@ -287,6 +310,80 @@ public class SuppressWithNearbyCommentFilter
         tags.add(tag);
     }
 
+    /**
+     * An interval tree of the lines suppressed by tags. The tags sorted by
+     * their first line form an implicit balanced tree, the middle tag of a
+     * range being the root of the range. Each root knows the greatest last
+     * line of the tags in its range, so ranges which end before a line and
+     * ranges which start after it are skipped.
+     */
+    private static final class TagTree {
+        /** The tags sorted by their first line. */
+        private final List<Tag> sortedTags;
+
+        /** The greatest last line of the range rooted at each tag. */
+        private final int[] maxLastLines;
+
+        /**
+         * Creates the tree of tags.
+         * @param tags the tags sorted by their first line.
+         */
+        TagTree(List<Tag> tags) {
+            sortedTags = Lists.newArrayList(tags);
+            maxLastLines = new int[tags.size()];
+            if (!tags.isEmpty()) {
+                computeMaxLastLines(0, tags.size());
+            }
+        }
+
+        /**
+         * Computes the greatest last lines of a non-empty range of tags.
+         * @param low the first index of the range.
+         * @param high the index after the range.
+         * @return the greatest last line of the range.
+         */
+        private int computeMaxLastLines(int low, int high) {
+            final int middle = (low + high) >>> 1;
+            int max = sortedTags.get(middle).lastLine;
+            if (low < middle) {
+                max = Math.max(max, computeMaxLastLines(low, middle));
+            }
+            if (middle + 1 < high) {
+                max = Math.max(max, computeMaxLastLines(middle + 1, high));
+            }
+            maxLastLines[middle] = max;
+            return max;
+        }
+
+        /**
+         * Whether a tag matches an event.
+         * @param event the event.
+         * @return true if a tag suppresses the line of the event and matches it.
+         */
+        boolean matches(AuditEvent event) {
+            return matches(event, 0, sortedTags.size());
+        }
+
+        /**
+         * Whether a tag of a range matches an event.
+         * @param event the event.
+         * @param low the first index of the range.
+         * @param high the index after the range.
+         * @return true if a tag of the range matches the event.
+         */
+        private boolean matches(AuditEvent event, int low, int high) {
+            boolean match = false;
+            final int middle = (low + high) >>> 1;
+            if (low < high && maxLastLines[middle] >= event.getLine()) {
+                final Tag tag = sortedTags.get(middle);
+                match = matches(event, low, middle)
+                    || tag.firstLine <= event.getLine()
+                        && (tag.isMatch(event) || matches(event, middle + 1, high));
+            }
+            return match;
+        }
+    }
+
     /**
      * A Tag holds a suppression comment and its location.
      */
@@ -20,10 +20,13 @@
 package com.puppycrawl.tools.checkstyle.filters;
 
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.SortedSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -31,10 +34,13 @@ import java.util.regex.PatternSyntaxException;
 import org.apache.commons.beanutils.ConversionException;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.BatchFilter;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
-import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.api.TextBlock;
 import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
@@ -58,13 +64,18 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtils;
  * since that module makes the suppression comments in the .java
  * files available <i>sub rosa</i>.
  * </p>
+ * <p>
+ * The tags of a file are grouped by the check and message formats they
+ * expand to. For an event each group is searched for its nearest tag by
+ * binary search, so many suppression comments in a file are cheap.
+ * </p>
  * @author Mike McMahon
  * @author Rick Giles
  * @see FileContentsHolder
  */
 public class SuppressionCommentFilter
     extends AutomaticBean
-    implements Filter {
+    implements BatchFilter {
 
     /** Turns checkstyle reporting off. */
     private static final String DEFAULT_OFF_FORMAT = "CHECKSTYLE\\:OFF";
@@ -96,6 +107,9 @@ public class SuppressionCommentFilter
     /** Tagged comments. */
     private final List<Tag> tags = Lists.newArrayList();
 
+    /** Tagged comments with the same expanded formats, sorted by position. */
+    private final List<List<Tag>> tagGroups = Lists.newArrayList();
+
     /**
      * References the current FileContents for this filter.
      * Since this is a weak reference to the FileContents, the FileContents
@@ -185,39 +199,88 @@ public class SuppressionCommentFilter
     public boolean accept(AuditEvent event) {
         boolean accepted = true;
 
-        if (event.getLocalizedMessage() != null) {
-            // Lazy update. If the first event for the current file, update file
-            // contents and tag suppressions
-            final FileContents currentContents = FileContentsHolder.getContents();
+        if (event.getLocalizedMessage() != null && updateTags()) {
+            final Tag matchTag = findNearestMatch(event);
+            accepted = matchTag == null || matchTag.isOn();
+        }
+        return accepted;
+    }
 
-            if (currentContents != null) {
-                if (getFileContents() != currentContents) {
-                    setFileContents(currentContents);
-                    tagSuppressions();
+    @Override
+    public SortedSet<LocalizedMessage> accept(Object source, String fileName,
+            SortedSet<LocalizedMessage> messages) {
+        SortedSet<LocalizedMessage> accepted = messages;
+
+        if (updateTags() && !tags.isEmpty()) {
+            accepted = Sets.newTreeSet();
+            for (LocalizedMessage message : messages) {
+                final Tag matchTag = findNearestMatch(new AuditEvent(source, fileName, message));
+                if (matchTag == null || matchTag.isOn()) {
+                    accepted.add(message);
                 }
-                final Tag matchTag = findNearestMatch(event);
-                accepted = matchTag == null || matchTag.isOn();
             }
         }
         return accepted;
     }
 
+    /**
+     * Tags the suppressions of the file contents held by
+     * {@link FileContentsHolder} unless they are tagged already.
+     * @return true if file contents are held
+     */
+    private boolean updateTags() {
+        // Lazy update. If the first event for the current file, update file
+        // contents and tag suppressions
+        final FileContents currentContents = FileContentsHolder.getContents();
+        final boolean held = currentContents != null;
+        if (held && getFileContents() != currentContents) {
+            setFileContents(currentContents);
+            tagSuppressions();
+        }
+        return held;
+    }
+
     /**
      * Finds the nearest comment text tag that matches an audit event.
-     * The nearest tag is before the line and column of the event.
+     * The nearest tag is before the line and column of the event. The tags
+     * of a group match the same events, so only the nearest tag of each
+     * group is matched.
      * @param event the {@code AuditEvent} to match.
      * @return The {@code Tag} nearest event.
      */
     private Tag findNearestMatch(AuditEvent event) {
         Tag result = null;
-        for (Tag tag : tags) {
-            if (tag.getLine() > event.getLine()
-                || tag.getLine() == event.getLine()
-                    && tag.getColumn() > event.getColumn()) {
-                break;
+        for (List<Tag> group : tagGroups) {
+            final Tag tag = findNearest(group, event.getLine(), event.getColumn());
+            if (tag != null && (result == null || tag.compareTo(result) > 0)
+                    && tag.isMatch(event)) {
+                result = tag;
             }
-            if (tag.isMatch(event)) {
+        }
+        return result;
+    }
+
+    /**
+     * Finds the last tag of a sorted group which is before a position.
+     * @param group the tags sorted by position.
+     * @param line the line of the position.
+     * @param column the column of the position.
+     * @return the last tag before the position, {@code null} if there is none.
+     */
+    private static Tag findNearest(List<Tag> group, int line, int column) {
+        Tag result = null;
+        int low = 0;
+        int high = group.size() - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final Tag tag = group.get(middle);
+            if (tag.getLine() < line
+                || tag.getLine() == line && tag.getColumn() <= column) {
                 result = tag;
+                low = middle + 1;
+            }
+            else {
+                high = middle - 1;
             }
         }
         return result;
@@ -241,6 +304,7 @@ public class SuppressionCommentFilter
             }
         }
         Collections.sort(tags);
+        groupTags();
     }
 
     /**
@@ -259,6 +323,22 @@ public class SuppressionCommentFilter
         }
     }
 
+    /** Groups the sorted tags by the formats they expand to. */
+    private void groupTags() {
+        final Map<List<String>, List<Tag>> groups = Maps.newLinkedHashMap();
+        for (Tag tag : tags) {
+            final List<String> formats = tag.getExpandedFormats();
+            List<Tag> group = groups.get(formats);
+            if (group == null) {
+                group = Lists.newArrayList();
+                groups.put(formats, group);
+            }
+            group.add(tag);
+        }
+        tagGroups.clear();
+        tagGroups.addAll(groups.values());
+    }
+
     /**
      * Tags a string if it matches the format for turning
      * checkstyle reporting on or the format for turning reporting off.
@@ -398,6 +478,19 @@ public class SuppressionCommentFilter
             return on;
         }
 
+        /**
+         * Returns the check and message formats expanded for the text of
+         * this tag, tags with equal formats match the same events.
+         * @return the expanded check and message formats.
+         */
+        private List<String> getExpandedFormats() {
+            String messageFormat = null;
+            if (tagMessageRegexp != null) {
+                messageFormat = tagMessageRegexp.pattern();
+            }
+            return Arrays.asList(tagCheckRegexp.pattern(), messageFormat);
+        }
+
         /**
          * Compares the position of this tag in the file
          * with the position of another tag.
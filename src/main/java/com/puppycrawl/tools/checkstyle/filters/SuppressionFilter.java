@@ -20,26 +20,35 @@
 package com.puppycrawl.tools.checkstyle.filters;
 
 import java.util.Objects;
+import java.util.SortedSet;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.BatchFilter;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
-import com.puppycrawl.tools.checkstyle.api.Filter;
 import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 
 /**
  * <p>
  * This filter accepts AuditEvents according to file, check, line, and
  * column, as specified in a suppression file.
  * </p>
+ * <p>
+ * The suppressions are looked up in a {@link SuppressionIndex}, so that
+ * large suppression files do not have to be matched against every message.
+ * </p>
  * @author Rick Giles
  */
 public class SuppressionFilter
     extends AutomaticBean
-    implements Filter {
+    implements BatchFilter {
     /** Set of individual suppresses. */
     private FilterSet filters = new FilterSet();
 
+    /** Index of the individual suppresses. */
+    private SuppressionIndex index = new SuppressionIndex(filters);
+
     /**
      * Loads the suppressions for a file.
      * @param fileName name of the suppressions file.
@@ -48,11 +57,19 @@ public class SuppressionFilter
     public void setFile(String fileName)
         throws CheckstyleException {
         filters = SuppressionsLoader.loadSuppressions(fileName);
+        index = new SuppressionIndex(filters);
     }
 
     @Override
     public boolean accept(AuditEvent event) {
-        return filters.accept(event);
+        return event.getLocalizedMessage() == null
+                || index.accept(event.getFileName(), event.getLocalizedMessage());
+    }
+
+    @Override
+    public SortedSet<LocalizedMessage> accept(Object source, String fileName,
+            SortedSet<LocalizedMessage> messages) {
+        return index.accept(fileName, messages);
     }
 
     @Override
@@ -0,0 +1,246 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+
+/**
+ * An index of the {@link SuppressElement}s loaded from a suppressions file.
+ * Elements with the same file pattern form a group, so every distinct
+ * pattern is matched once per file. Within a group the elements with a
+ * module id are looked up by the module id of a message, the others by the
+ * name of the Check which logged it. The elements matching a Check name are
+ * found by their checks pattern when the first message of the Check is
+ * seen and looked up by hash after that.
+ * @author the original author or authors.
+ */
+final class SuppressionIndex {
+    /** The groups of elements by file pattern. */
+    private final List<FileGroup> groups;
+
+    /**
+     * Creates the index of a filter set of {@link SuppressElement}s.
+     * @param filters the filter set loaded by {@link SuppressionsLoader}
+     */
+    SuppressionIndex(FilterSet filters) {
+        final Map<String, FileGroup> groupsByPattern = Maps.newLinkedHashMap();
+        for (Filter filter : filters.getFilters()) {
+            final SuppressElement element = (SuppressElement) filter;
+            FileGroup group = groupsByPattern.get(element.getFilePattern());
+            if (group == null) {
+                group = new FileGroup(element.getFilePattern());
+                groupsByPattern.put(element.getFilePattern(), group);
+            }
+            group.add(element);
+        }
+        groups = ImmutableList.copyOf(groupsByPattern.values());
+    }
+
+    /**
+     * Checks whether a message of a file is accepted.
+     * @param fileName the name of the file, may be null
+     * @param message the message
+     * @return true if no element suppresses the message
+     */
+    boolean accept(String fileName, LocalizedMessage message) {
+        return !isSuppressed(getGroups(fileName), message);
+    }
+
+    /**
+     * Returns the messages of a file which are accepted.
+     * @param fileName the name of the file, may be null
+     * @param messages the messages of the file
+     * @return the accepted messages
+     */
+    SortedSet<LocalizedMessage> accept(String fileName, SortedSet<LocalizedMessage> messages) {
+        SortedSet<LocalizedMessage> accepted = messages;
+        final List<FileGroup> fileGroups = getGroups(fileName);
+        if (!fileGroups.isEmpty()) {
+            accepted = Sets.newTreeSet();
+            for (LocalizedMessage message : messages) {
+                if (!isSuppressed(fileGroups, message)) {
+                    accepted.add(message);
+                }
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns the groups whose file pattern matches a file name.
+     * @param fileName the file name, may be null
+     * @return the matching groups
+     */
+    private List<FileGroup> getGroups(String fileName) {
+        List<FileGroup> result = Collections.emptyList();
+        if (fileName != null) {
+            for (FileGroup group : groups) {
+                if (group.isFileNameMatching(fileName)) {
+                    if (result.isEmpty()) {
+                        result = Lists.newArrayList();
+                    }
+                    result.add(group);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether an element of the given groups suppresses a message.
+     * @param fileGroups the groups matching the file of the message
+     * @param message the message
+     * @return true if the message is suppressed
+     */
+    private static boolean isSuppressed(List<FileGroup> fileGroups, LocalizedMessage message) {
+        boolean suppressed = false;
+        for (FileGroup group : fileGroups) {
+            if (group.isSuppressed(message)) {
+                suppressed = true;
+                break;
+            }
+        }
+        return suppressed;
+    }
+
+    /** The elements of a file pattern. */
+    private static final class FileGroup {
+        /** The regexp to match file names against. */
+        private final Pattern fileRegexp;
+
+        /** The elements with a module id, by module id. */
+        private final ListMultimap<String, SuppressElement> elementsByModuleId =
+            ArrayListMultimap.create();
+
+        /** The elements without a module id. */
+        private final List<SuppressElement> elementsByCheck = Lists.newArrayList();
+
+        /** The elements without a module id matching a Check, by Check name. */
+        private final ConcurrentMap<String, List<SuppressElement>> checkCache =
+            Maps.newConcurrentMap();
+
+        /**
+         * Creates a new instance.
+         * @param filePattern the pattern for file names
+         */
+        FileGroup(String filePattern) {
+            fileRegexp = Pattern.compile(filePattern);
+        }
+
+        /**
+         * Adds an element to the group.
+         * @param element the element with the file pattern of the group
+         */
+        void add(SuppressElement element) {
+            if (element.getModuleId() == null) {
+                elementsByCheck.add(element);
+            }
+            else {
+                elementsByModuleId.put(element.getModuleId(), element);
+            }
+        }
+
+        /**
+         * Is matching by file name.
+         * @param fileName the file name
+         * @return true is matching
+         */
+        boolean isFileNameMatching(String fileName) {
+            return fileRegexp.matcher(fileName).find();
+        }
+
+        /**
+         * Checks whether an element of the group suppresses a message.
+         * @param message the message of a matching file
+         * @return true if the message is suppressed
+         */
+        boolean isSuppressed(LocalizedMessage message) {
+            boolean suppressed = false;
+            if (message.getModuleId() != null) {
+                for (SuppressElement element : elementsByModuleId.get(message.getModuleId())) {
+                    if (element.isCheckMatching(message.getSourceName())
+                            && element.isPositionMatching(message)) {
+                        suppressed = true;
+                        break;
+                    }
+                }
+            }
+            if (!suppressed) {
+                suppressed = isPositionMatching(getElements(message.getSourceName()), message);
+            }
+            return suppressed;
+        }
+
+        /**
+         * Returns the elements without a module id which match a Check.
+         * @param sourceName the class name of the Check
+         * @return the matching elements
+         */
+        private List<SuppressElement> getElements(String sourceName) {
+            List<SuppressElement> elements = checkCache.get(sourceName);
+            if (elements == null) {
+                final List<SuppressElement> matching = Lists.newArrayList();
+                for (SuppressElement element : elementsByCheck) {
+                    if (element.isCheckMatching(sourceName)) {
+                        matching.add(element);
+                    }
+                }
+                elements = ImmutableList.copyOf(matching);
+                checkCache.putIfAbsent(sourceName, elements);
+            }
+            return elements;
+        }
+
+        /**
+         * Checks whether the line or column of a message matches one of
+         * the elements.
+         * @param elements the elements
+         * @param message the message
+         * @return true if the message is suppressed
+         */
+        private static boolean isPositionMatching(Collection<SuppressElement> elements,
+                LocalizedMessage message) {
+            boolean matching = false;
+            for (SuppressElement element : elements) {
+                if (element.isPositionMatching(message)) {
+                    matching = true;
+                    break;
+                }
+            }
+            return matching;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.grammars;
+
+import antlr.CharScanner;
+import antlr.InputBuffer;
+
+/**
+ * Feeds an ANTLR lexer straight from a character sequence. Unlike
+ * {@link antlr.CharBuffer}, which reads a {@link java.io.Reader} into a
+ * queue of lookahead characters, this buffer looks the characters up in
+ * the sequence, so the text is neither copied nor read twice.
+ *
+ * @author the original author or authors.
+ */
+public final class CharSequenceInputBuffer extends InputBuffer {
+    /** The text to lex. */
+    private final CharSequence text;
+
+    /** Index of the next character to consume. */
+    private int position;
+
+    /** Index of the character the outermost mark was set at. */
+    private int markStart;
+
+    /**
+     * Creates a buffer for a text.
+     * @param text the text to lex
+     */
+    public CharSequenceInputBuffer(CharSequence text) {
+        this.text = text;
+    }
+
+    @Override
+    public char LA(int index) {
+        final int offset = position + index - 1;
+        if (offset < text.length()) {
+            return text.charAt(offset);
+        }
+        return CharScanner.EOF_CHAR;
+    }
+
+    @Override
+    public void consume() {
+        position++;
+    }
+
+    @Override
+    public void fill(int amount) {
+        // the whole text is available from the start
+    }
+
+    @Override
+    public int mark() {
+        if (nMarkers == 0) {
+            markStart = position;
+        }
+        nMarkers++;
+        return position;
+    }
+
+    @Override
+    public void rewind(int mark) {
+        nMarkers--;
+        position = mark;
+    }
+
+    @Override
+    public void commit() {
+        nMarkers--;
+    }
+
+    @Override
+    public void reset() {
+        nMarkers = 0;
+        position = 0;
+    }
+
+    /**
+     * Returns the characters which are not consumed yet. As the lookahead
+     * is not buffered, these are all the remaining characters of the text.
+     * @return the remaining characters
+     */
+    @Override
+    public String getLAChars() {
+        return text.subSequence(Math.min(position, text.length()), text.length()).toString();
+    }
+
+    @Override
+    public String getMarkedChars() {
+        String result = "";
+        if (isMarked()) {
+            result = text.subSequence(markStart, position).toString();
+        }
+        return result;
+    }
+}
@@ -22,8 +22,6 @@ package com.puppycrawl.tools.checkstyle.utils;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.ArrayUtils;
 
@@ -52,6 +50,13 @@ public final class JavadocUtils {
     private static final String UNKNOWN_JAVADOC_TOKEN_ID_EXCEPTION_MESSAGE = "Unknown javadoc"
             + " token id. Given id: ";
 
+    /** Next line character, a line terminator. */
+    private static final char NEXT_LINE = 0x85;
+    /** Line separator character, a line terminator. */
+    private static final char LINE_SEPARATOR = 0x2028;
+    /** Paragraph separator character, a line terminator. */
+    private static final char PARAGRAPH_SEPARATOR = 0x2029;
+
     // Using reflection gets all token names and values from JavadocTokenTypes class
     // and saves to TOKEN_NAME_TO_VALUE and TOKEN_VALUE_TO_NAME collections.
     static {
@@ -95,7 +100,9 @@ public final class JavadocUtils {
     }
 
     /**
-     * Gets validTags from a given piece of Javadoc.
+     * Gets validTags from a given piece of Javadoc. The lines are scanned by
+     * hand instead of with regular expressions, as this is done for every
+     * Javadoc comment by several checks.
      * @param cmt
      *        the Javadoc comment to process.
      * @param tagType
@@ -107,19 +114,21 @@ public final class JavadocUtils {
         final String[] text = cmt.getText();
         final List<JavadocTag> tags = Lists.newArrayList();
         final List<InvalidJavadocTag> invalidTags = Lists.newArrayList();
-        Pattern blockTagPattern = Pattern.compile("/\\*{2,}\\s*@(\\p{Alpha}+)\\s");
         for (int i = 0; i < text.length; i++) {
             final String s = text[i];
-            final Matcher blockTagMatcher = blockTagPattern.matcher(s);
-            if ((tagType == JavadocTagType.ALL || tagType == JavadocTagType.BLOCK)
-                    && blockTagMatcher.find()) {
-                final String tagName = blockTagMatcher.group(1);
-                String content = s.substring(blockTagMatcher.end(1));
+            int tagNameStart = -1;
+            if (tagType == JavadocTagType.ALL || tagType == JavadocTagType.BLOCK) {
+                tagNameStart = findBlockTag(s, i == 0);
+            }
+            if (tagNameStart >= 0) {
+                final int tagNameEnd = skipLetters(s, tagNameStart);
+                final String tagName = s.substring(tagNameStart, tagNameEnd);
+                String content = s.substring(tagNameEnd);
                 if (content.endsWith("*/")) {
                     content = content.substring(0, content.length() - 2);
                 }
                 final int line = cmt.getStartLineNo() + i;
-                int col = blockTagMatcher.start(1) - 1;
+                int col = tagNameStart - 1;
                 if (i == 0) {
                     col += cmt.getStartColNo();
                 }
@@ -135,11 +144,57 @@ public final class JavadocUtils {
             else if (tagType == JavadocTagType.ALL || tagType == JavadocTagType.INLINE) {
                 lookForInlineTags(cmt, i, tags, invalidTags);
             }
-            blockTagPattern = Pattern.compile("^\\s*\\**\\s*@(\\p{Alpha}+)\\s");
         }
         return new JavadocTags(tags, invalidTags);
     }
 
+    /**
+     * Finds a block tag in a line of a comment. A block tag is the first
+     * thing after the opening of the comment on its first line, or after
+     * the leading asterisks on the other lines, and is followed by
+     * whitespace.
+     * @param line the line of the comment
+     * @param firstLine whether the line is the first line of the comment
+     * @return the index of the name of the tag, or -1 if there is no tag
+     */
+    private static int findBlockTag(String line, boolean firstLine) {
+        int result = -1;
+        if (firstLine) {
+            int slash = line.indexOf('/');
+            while (result < 0 && slash >= 0) {
+                final int starsEnd = skipChars(line, slash + 1, '*');
+                if (starsEnd - slash > 2) {
+                    result = findTagName(line, skipWhitespace(line, starsEnd));
+                }
+                slash = line.indexOf('/', slash + 1);
+            }
+        }
+        else {
+            final int starsEnd = skipChars(line, skipWhitespace(line, 0), '*');
+            result = findTagName(line, skipWhitespace(line, starsEnd));
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a block tag, an {@code @} followed by letters and
+     * whitespace, starts at an index of a line.
+     * @param line the line of the comment
+     * @param index the index to check
+     * @return the index of the name of the tag, or -1 if there is no tag
+     */
+    private static int findTagName(String line, int index) {
+        int result = -1;
+        if (index < line.length() && line.charAt(index) == '@') {
+            final int nameEnd = skipLetters(line, index + 1);
+            if (nameEnd > index + 1 && nameEnd < line.length()
+                    && isWhitespace(line.charAt(nameEnd))) {
+                result = index + 1;
+            }
+        }
+        return result;
+    }
+
     /**
      * Looks for inline tags in comment and adds them to the proper tags collection.
      * @param comment comment text block
@@ -150,42 +205,154 @@ public final class JavadocUtils {
     private static void lookForInlineTags(TextBlock comment, int lineNumber,
             final List<JavadocTag> validTags, final List<InvalidJavadocTag> invalidTags) {
         final String s = comment.getText()[lineNumber];
-        // Match Javadoc text after comment characters
-        final Pattern commentPattern = Pattern.compile("^\\s*(?:/\\*{2,}|\\*+)\\s*(.*)");
-        final Matcher commentMatcher = commentPattern.matcher(s);
-        final String commentContents;
+        // Javadoc text after comment characters
+        int contentsStart = skipWhitespace(s, 0);
+        int contentsEnd = s.length();
 
         // offset including comment characters
         final int commentOffset;
 
-        if (commentMatcher.find()) {
-            commentContents = commentMatcher.group(1);
-            commentOffset = commentMatcher.start(1) - 1;
+        if (contentsStart < s.length() && (s.startsWith("/**", contentsStart)
+                || s.charAt(contentsStart) == '*')) {
+            contentsStart = skipWhitespace(s, skipChars(s, contentsStart + 1, '*'));
+            contentsEnd = skipLine(s, contentsStart);
+            commentOffset = contentsStart - 1;
         }
         else {
             // No leading asterisks, still valid
-            commentContents = s;
+            contentsStart = 0;
             commentOffset = 0;
         }
-        final Pattern tagPattern = Pattern.compile(".*?\\{@(\\p{Alpha}+)\\s+(.*?)\\}");
-        final Matcher tagMatcher = tagPattern.matcher(commentContents);
-        while (tagMatcher.find()) {
-            final String tagName = tagMatcher.group(1);
-            final String tagValue = tagMatcher.group(2).trim();
-            final int line = comment.getStartLineNo() + lineNumber;
-            int col = commentOffset + tagMatcher.start(1) - 1;
-            if (lineNumber == 0) {
-                col += comment.getStartColNo();
-            }
-            if (JavadocTagInfo.isValidName(tagName)) {
-                validTags.add(new JavadocTag(line, col, tagName,
-                        tagValue));
+
+        int tagStart = s.indexOf('{', contentsStart);
+        while (tagStart >= 0 && tagStart < contentsEnd) {
+            final int tagEnd = findInlineTagEnd(s, tagStart, contentsEnd);
+            int nextStart = tagStart + 1;
+            if (tagEnd >= 0) {
+                final int nameStart = tagStart + 2;
+                final int nameEnd = skipLetters(s, nameStart);
+                final String tagName = s.substring(nameStart, nameEnd);
+                final String tagValue = s.substring(nameEnd, tagEnd).trim();
+                final int line = comment.getStartLineNo() + lineNumber;
+                int col = commentOffset + nameStart - contentsStart - 1;
+                if (lineNumber == 0) {
+                    col += comment.getStartColNo();
+                }
+                if (JavadocTagInfo.isValidName(tagName)) {
+                    validTags.add(new JavadocTag(line, col, tagName,
+                            tagValue));
+                }
+                else {
+                    invalidTags.add(new InvalidJavadocTag(line, col,
+                            tagName));
+                }
+                nextStart = tagEnd + 1;
             }
-            else {
-                invalidTags.add(new InvalidJavadocTag(line, col,
-                        tagName));
+            tagStart = s.indexOf('{', nextStart);
+        }
+    }
+
+    /**
+     * Finds the end of an inline tag, a <code>{&#64;</code> followed by
+     * letters, whitespace, the value and a closing brace in the same line.
+     * @param line the line of the comment
+     * @param tagStart the index of the opening brace
+     * @param contentsEnd the end of the text of the comment in the line
+     * @return the index of the closing brace, or -1 if there is no tag
+     */
+    private static int findInlineTagEnd(String line, int tagStart, int contentsEnd) {
+        int result = -1;
+        final int nameStart = tagStart + 2;
+        if (nameStart < contentsEnd && line.charAt(tagStart + 1) == '@') {
+            final int nameEnd = skipLetters(line, nameStart);
+            final int valueStart = Math.min(skipWhitespace(line, nameEnd), contentsEnd);
+            final int valueEnd = line.indexOf('}', valueStart);
+            if (nameEnd > nameStart && valueStart > nameEnd && valueEnd >= 0
+                    && valueEnd < contentsEnd && skipLine(line, valueStart) > valueEnd) {
+                result = valueEnd;
             }
         }
+        return result;
+    }
+
+    /**
+     * Skips a character in a string.
+     * @param text the string
+     * @param start the index to start at
+     * @param skipped the character to skip
+     * @return the index of the first other character, or the length of the string
+     */
+    private static int skipChars(String text, int start, char skipped) {
+        int index = start;
+        while (index < text.length() && text.charAt(index) == skipped) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Skips the ASCII letters in a string.
+     * @param text the string
+     * @param start the index to start at
+     * @return the index of the first other character, or the length of the string
+     */
+    private static int skipLetters(String text, int start) {
+        int index = start;
+        while (index < text.length()
+                && (text.charAt(index) >= 'a' && text.charAt(index) <= 'z'
+                    || text.charAt(index) >= 'A' && text.charAt(index) <= 'Z')) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Skips the whitespace in a string.
+     * @param text the string
+     * @param start the index to start at
+     * @return the index of the first other character, or the length of the string
+     */
+    private static int skipWhitespace(String text, int start) {
+        int index = start;
+        while (index < text.length() && isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Skips the characters up to a line terminator.
+     * @param text the string
+     * @param start the index to start at
+     * @return the index of the line terminator, or the length of the string
+     */
+    private static int skipLine(String text, int start) {
+        int index = start;
+        while (index < text.length() && !isLineTerminator(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether a character is whitespace, as {@code \s} of regular
+     * expressions.
+     * @param character the character
+     * @return true if the character is whitespace
+     */
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character >= '\t' && character <= '\r';
+    }
+
+    /**
+     * Checks whether a character terminates a line, so {@code .} of regular
+     * expressions does not match it.
+     * @param character the character
+     * @return true if the character is a line terminator
+     */
+    private static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == NEXT_LINE
+                || character == LINE_SEPARATOR || character == PARAGRAPH_SEPARATOR;
     }
 
     /**
@@ -281,9 +448,10 @@ public final class JavadocUtils {
      */
     public static DetailNode getFirstChild(DetailNode node) {
         DetailNode resultNode = null;
+        final DetailNode[] children = node.getChildren();
 
-        if (node.getChildren().length > 0) {
-            resultNode = node.getChildren()[0];
+        if (children.length > 0) {
+            resultNode = children[0];
         }
         return resultNode;
     }
@@ -57,7 +57,8 @@ public class AllChecksPresentOnAvailableChecksPageTest {
             "AbstractSuperCheck.java",
             "AbstractTypeAwareCheck.java",
             "AbstractTypeParameterNameCheck.java",
-            "FileSetCheck.java"
+            "FileSetCheck.java",
+            "MergeableFileSetCheck.java"
     );
 
     @Test
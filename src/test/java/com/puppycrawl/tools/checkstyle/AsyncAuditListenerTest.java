@@ -0,0 +1,290 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+
+public class AsyncAuditListenerTest {
+    @Test
+    public void testEventOrder() {
+        final RecordingListener expected = new RecordingListener();
+        final RecordingListener recorder = new RecordingListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+        listener.setQueueSize(3);
+        for (int audit = 0; audit < 2; audit++) {
+            fireAudit(expected, 50);
+            fireAudit(listener, 50);
+            assertEquals(expected.events, recorder.events);
+        }
+        assertEquals(0, listener.getDiscardedCount());
+    }
+
+    @Test
+    public void testAuditAfterAbortedAudit() {
+        final RecordingListener expected = new RecordingListener();
+        final RecordingListener recorder = new RecordingListener() {
+            private boolean failed;
+
+            @Override
+            public void addError(AuditEvent evt) {
+                super.addError(evt);
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalArgumentException("failure");
+                }
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+        listener.setQueueSize(4);
+        fireAbortedAudit(expected);
+        fireAbortedAudit(listener);
+        fireAudit(expected, 10);
+        fireAudit(listener, 10);
+        assertEquals(expected.events, recorder.events);
+    }
+
+    @Test
+    public void testDiscardWhenFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void fileStarted(AuditEvent evt) {
+                super.fileStarted(evt);
+                try {
+                    release.await();
+                }
+                catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+        listener.setQueueSize(4);
+        listener.setOverflowPolicy(" Discard ");
+        listener.auditStarted(null);
+        listener.fileStarted(new AuditEvent(this, "Test.java"));
+        for (int line = 1; line <= 20; line++) {
+            listener.addError(createError(line));
+        }
+        release.countDown();
+        listener.fileFinished(new AuditEvent(this, "Test.java"));
+        listener.auditFinished(null);
+
+        final List<String> events = recorder.events;
+        assertTrue(listener.getDiscardedCount() > 0);
+        assertEquals(24 - listener.getDiscardedCount(), events.size());
+        assertEquals("fileStarted Test.java", events.get(1));
+        assertEquals("fileFinished Test.java", events.get(events.size() - 2));
+        assertEquals("auditFinished", events.get(events.size() - 1));
+        int lastLine = 0;
+        for (String event : events.subList(2, events.size() - 2)) {
+            final int line = Integer.parseInt(event.substring(event.indexOf(':') + 1));
+            assertTrue(line > lastLine);
+            lastLine = line;
+        }
+    }
+
+    @Test
+    public void testListenerFailure() {
+        final IllegalArgumentException exception = new IllegalArgumentException("failure");
+        final RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void addError(AuditEvent evt) {
+                super.addError(evt);
+                throw exception;
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+        listener.setQueueSize(1);
+        try {
+            fireAudit(listener, 10);
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertSame(exception, ex.getCause());
+        }
+        assertEquals(3, recorder.events.size());
+
+        recorder.events.clear();
+        listener.auditStarted(null);
+        listener.auditFinished(null);
+        assertEquals(Lists.newArrayList("auditStarted", "auditFinished"), recorder.events);
+    }
+
+    @Test
+    public void testInvalidQueueSize() {
+        try {
+            new AsyncAuditListener().setQueueSize(0);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("queueSize must be positive", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testInvalidOverflowPolicy() throws Exception {
+        final DefaultConfiguration config =
+            new DefaultConfiguration(AsyncAuditListener.class.getName());
+        config.addAttribute("overflowPolicy", "wait");
+        try {
+            createListener(config);
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertTrue(ex.getMessage().startsWith("Cannot set property 'overflowPolicy' to 'wait'"));
+        }
+    }
+
+    @Test
+    public void testInvalidChildModules() throws Exception {
+        final DefaultConfiguration config =
+            new DefaultConfiguration(AsyncAuditListener.class.getName());
+        config.addChild(new DefaultConfiguration(NewlineAtEndOfFileCheck.class.getName()));
+        try {
+            createListener(config);
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("AsyncAuditListener is not allowed as a parent of "
+                + NewlineAtEndOfFileCheck.class.getName(), ex.getMessage());
+        }
+
+        final DefaultConfiguration twoListeners =
+            new DefaultConfiguration(AsyncAuditListener.class.getName());
+        twoListeners.addChild(new DefaultConfiguration(ModuleListener.class.getName()));
+        twoListeners.addChild(new DefaultConfiguration(ModuleListener.class.getName()));
+        try {
+            createListener(twoListeners);
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("AsyncAuditListener allows only one child module, found "
+                + ModuleListener.class.getName(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Creates and configures a listener module.
+     * @param config the configuration of the module
+     * @throws CheckstyleException if the module cannot be configured
+     */
+    private static void createListener(DefaultConfiguration config)
+            throws CheckstyleException {
+        final AsyncAuditListener listener = new AsyncAuditListener();
+        listener.setModuleFactory(new PackageObjectFactory(
+            new HashSet<String>(), Thread.currentThread().getContextClassLoader()));
+        listener.configure(config);
+    }
+
+    /**
+     * Fires the events of an audit of one file.
+     * @param listener the listener to fire the events to
+     * @param errorCount the number of errors in the file
+     */
+    private void fireAbortedAudit(AuditListener listener) {
+        listener.auditStarted(null);
+        listener.fileStarted(new AuditEvent(this, "Aborted.java"));
+        listener.addError(createError(1));
+    }
+
+    private void fireAudit(AuditListener listener, int errorCount) {
+        listener.auditStarted(null);
+        listener.fileStarted(new AuditEvent(this, "Test.java"));
+        for (int line = 1; line <= errorCount; line++) {
+            listener.addError(createError(line));
+        }
+        listener.addException(new AuditEvent(this, "Test.java"), new IllegalStateException());
+        listener.fileFinished(new AuditEvent(this, "Test.java"));
+        listener.auditFinished(null);
+    }
+
+    /**
+     * Creates the event of an error.
+     * @param line the line of the error
+     * @return the event
+     */
+    private AuditEvent createError(int line) {
+        final LocalizedMessage message = new LocalizedMessage(line, 0,
+            "messages.properties", "key", null, SeverityLevel.ERROR, null, getClass(), null);
+        return new AuditEvent(this, "Test.java", message);
+    }
+
+    /**
+     * Records the events of an audit as strings.
+     */
+    private static class RecordingListener implements AuditListener {
+        /** The recorded events. */
+        private final List<String> events = Lists.newArrayList();
+
+        @Override
+        public void auditStarted(AuditEvent evt) {
+            events.add("auditStarted");
+        }
+
+        @Override
+        public void auditFinished(AuditEvent evt) {
+            events.add("auditFinished");
+        }
+
+        @Override
+        public void fileStarted(AuditEvent evt) {
+            events.add("fileStarted " + evt.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent evt) {
+            events.add("fileFinished " + evt.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent evt) {
+            events.add("addError " + evt.getFileName() + ":" + evt.getLine());
+        }
+
+        @Override
+        public void addException(AuditEvent evt, Throwable throwable) {
+            events.add("addException " + evt.getFileName());
+        }
+    }
+
+    /**
+     * A listener which can be created as module.
+     */
+    public static class ModuleListener extends RecordingListener {
+    }
+}
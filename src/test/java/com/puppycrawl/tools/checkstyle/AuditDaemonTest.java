@@ -0,0 +1,182 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.ByteStreams;
+
+public class AuditDaemonTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private ServerSocket serverSocket;
+
+    private File configFile;
+
+    private Future<?> daemon;
+
+    @Before
+    public void setUp() throws IOException {
+        configFile = temporaryFolder.newFile("config.xml");
+        writeConfig("80");
+        serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverSocket.close();
+        if (daemon != null) {
+            daemon.get();
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void testAuditsRequests() throws Exception {
+        startDaemon("plain");
+        final String path = new File("src/test/resources/com/puppycrawl/tools/checkstyle/metrics/")
+            .getAbsolutePath() + File.separator;
+        final String expectedFile = new File(path + "JavaNCSSCheckTestInput.java")
+            .getCanonicalPath();
+
+        final String expected = String.format("Starting audit...%n"
+            + "%s:1: warning: File length is 84 lines (max allowed is 80).%n"
+            + "Audit done.%n", expectedFile);
+        assertEquals(expected, request(path + "\n\n"));
+        assertEquals(expected, request(path));
+    }
+
+    @Test
+    public void testReloadsChangedConfiguration() throws Exception {
+        startDaemon("plain");
+        final String path = new File("src/test/resources/com/puppycrawl/tools/checkstyle/"
+            + "metrics/JavaNCSSCheckTestInput.java").getAbsolutePath() + "\n";
+
+        assertTrue(request(path).contains("(max allowed is 80)"));
+        writeConfig("81");
+        assertTrue(configFile.setLastModified(configFile.lastModified() + 2000));
+        assertTrue(request(path).contains("(max allowed is 81)"));
+    }
+
+    @Test
+    public void testInvalidConfiguration() throws Exception {
+        Files.write(configFile.toPath(), "<module".getBytes(StandardCharsets.UTF_8));
+        startDaemon("plain");
+        final String path = new File("src/test/resources/com/puppycrawl/tools/checkstyle/"
+            + "InputMain.java").getAbsolutePath() + "\n";
+
+        final String report = request(path);
+        assertTrue(report.startsWith("unable to parse configuration stream"));
+        assertTrue(report.endsWith(String.format("Checkstyle ends with 1 errors.%n")));
+
+        writeConfig("80");
+        assertTrue(configFile.setLastModified(configFile.lastModified() + 2000));
+        assertEquals(String.format("Starting audit...%nAudit done.%n"), request(path));
+    }
+
+    @Test
+    public void testRejectsRelativePaths() throws Exception {
+        startDaemon("plain");
+        final String path = "src/test/resources/com/puppycrawl/tools/checkstyle/InputMain.java";
+
+        assertEquals(String.format("Path '%s' is not absolute, the daemon only audits"
+            + " absolute paths.%nCheckstyle ends with 1 errors.%n", path),
+            request(new File(path).getAbsolutePath() + "\n" + path + "\n"));
+    }
+
+    @Test
+    public void testReportsUnexpectedErrors() throws Exception {
+        writeModuleConfig("<module name=\"" + FailingFileSetCheck.class.getName() + "\"/>\n");
+        startDaemon("plain");
+        final String path = new File("src/test/resources/com/puppycrawl/tools/checkstyle/"
+            + "InputMain.java").getAbsolutePath() + "\n";
+
+        final String report = request(path);
+        assertTrue(report.contains(String.format("Unexpected error: "
+            + "java.lang.IllegalStateException: failed%nCheckstyle ends with 1 errors.%n")));
+        assertEquals(report, request(path));
+    }
+
+    private void writeConfig(String max) throws IOException {
+        writeModuleConfig("<module name=\"FileLength\">\n"
+            + "    <property name=\"max\" value=\"" + max + "\"/>\n"
+            + "    <property name=\"severity\" value=\"warning\"/>\n"
+            + "  </module>\n");
+    }
+
+    private void writeModuleConfig(String module) throws IOException {
+        final String config = "<?xml version=\"1.0\"?>\n"
+            + "<!DOCTYPE module PUBLIC \"-//Puppy Crawl//DTD Check Configuration 1.3//EN\""
+            + " \"http://www.puppycrawl.com/dtds/configuration_1_3.dtd\">\n"
+            + "<module name=\"Checker\">\n"
+            + "  " + module
+            + "</module>\n";
+        Files.write(configFile.toPath(), config.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void startDaemon(String format) {
+        final AuditDaemon auditDaemon = new AuditDaemon(serverSocket,
+            configFile.getPath(), null, format, 1, FileWalker.DEFAULT_EXCLUDED_DIRECTORIES);
+        daemon = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws IOException {
+                auditDaemon.run();
+                return null;
+            }
+        });
+    }
+
+    private String request(String files) throws IOException {
+        try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                serverSocket.getLocalPort())) {
+            final OutputStream out = socket.getOutputStream();
+            out.write(files.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            socket.shutdownOutput();
+            try (final InputStream in = socket.getInputStream()) {
+                return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
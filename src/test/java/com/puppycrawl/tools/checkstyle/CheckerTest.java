@@ -26,19 +26,51 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.SortedSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AuditProfile;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.MergeableFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.ProfileListener;
+import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
+import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.TranslationCheck;
+import com.puppycrawl.tools.checkstyle.checks.coding.MagicNumberCheck;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck;
+import com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck;
+import com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck;
+import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAroundCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionFilter;
 
 public class CheckerTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testDestroy() throws Exception {
         final DebugChecker checker = new DebugChecker();
@@ -270,4 +302,504 @@ public class CheckerTest {
         Configuration config = new DefaultConfiguration(DebugAuditAdapter.class.getCanonicalName());
         checker.setupChild(config);
     }
+
+    @Test
+    public void testInvalidThreadCount() throws Exception {
+        final Checker checker = new Checker();
+        try {
+            checker.setThreadCount(0);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Thread count must be positive, but was 0", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testParallelProcessingKeepsEventOrder() throws Exception {
+        final List<File> files = Lists.newArrayList();
+        for (String directory : Arrays.asList("", "checks/", "checks/coding/",
+                "checks/javadoc/", "filters/")) {
+            final File[] inputs = new File(
+                    "src/test/resources/com/puppycrawl/tools/checkstyle/" + directory)
+                    .listFiles();
+            Arrays.sort(inputs);
+            for (File input : inputs) {
+                if (input.isFile() && files.size() < 60) {
+                    files.add(input);
+                }
+            }
+        }
+
+        final List<String> sequentialEvents = audit(createParallelConfig(), 1, files);
+        final List<String> parallelEvents = audit(createParallelConfig(), 4, files);
+
+        assertTrue(sequentialEvents.size() > files.size());
+        assertEquals(sequentialEvents, parallelEvents);
+    }
+
+    @Test
+    public void testParallelProcessingWithCommentFilter() throws Exception {
+        final List<File> files = Lists.newArrayList();
+        for (int i = 0; i < 200; i++) {
+            final File directory = new File(temporaryFolder.getRoot(), "dir" + i % 8);
+            if (!directory.isDirectory()) {
+                assertTrue(directory.mkdir());
+            }
+            final StringBuilder source = new StringBuilder("class Input" + i + " {\n");
+            for (int line = 0; line < 20; line++) {
+                if (line == i % 10) {
+                    source.append("    // CHECKSTYLE:OFF\n");
+                }
+                if (line == i % 10 + 5) {
+                    source.append("    // CHECKSTYLE:ON\n");
+                }
+                source.append("    int field").append(line).append(" = ").append(line + 2)
+                    .append(";\n");
+            }
+            source.append("}\n");
+            final File file = new File(directory, "Input" + i + ".java");
+            Files.write(source.toString(), file, StandardCharsets.UTF_8);
+            files.add(file);
+        }
+
+        final List<String> sequentialEvents = audit(createParallelConfig(), 1, files);
+        final List<String> parallelEvents = audit(createParallelConfig(), 8, files);
+
+        // 19 magic numbers per file, of which 5 are suppressed, or 4 if the
+        // suppression starts at the field initialized with 2, plus the audit
+        // events, the file events and a missing package-info per directory
+        final int errors = 19 * files.size() - 5 * files.size() + files.size() / 10;
+        assertEquals(2 + 2 * files.size() + 8 + errors, sequentialEvents.size());
+        assertEquals(sequentialEvents, parallelEvents);
+    }
+
+    @Test
+    public void testParallelWorkersDoNotWaitForEarlierFiles() throws Exception {
+        final File first = new File(temporaryFolder.newFolder("first"), "First.java");
+        final File later = temporaryFolder.newFolder("later");
+        final List<File> files = Arrays.asList(first, new File(later, "Later0.java"),
+                new File(later, "Later1.java"));
+        for (File file : files) {
+            Files.write("class Input {}\n", file, StandardCharsets.UTF_8);
+        }
+        final DefaultConfiguration config = new DefaultConfiguration("configuration");
+        config.addChild(new DefaultConfiguration(LatchFileSetCheck.class.getName()));
+        LatchFileSetCheck.laterFiles = new CountDownLatch(2);
+        LatchFileSetCheck.released = false;
+
+        final List<String> events = audit(config, 2, files);
+
+        assertTrue(LatchFileSetCheck.released);
+        assertEquals(Arrays.asList("auditStarted",
+                "fileStarted " + first.getAbsolutePath(),
+                "fileFinished " + first.getAbsolutePath(),
+                "fileStarted " + files.get(1).getAbsolutePath(),
+                "fileFinished " + files.get(1).getAbsolutePath(),
+                "fileStarted " + files.get(2).getAbsolutePath(),
+                "fileFinished " + files.get(2).getAbsolutePath(),
+                "auditFinished"), events);
+    }
+
+    @Test
+    public void testParallelProcessingReportsFirstFailure() throws Exception {
+        final File valid = temporaryFolder.newFile("Valid.java");
+        Files.write("class Valid {}\n", valid, StandardCharsets.UTF_8);
+        final File invalid = temporaryFolder.newFile("Invalid.java");
+        Files.write("class Invalid { char c = 'ab'; }\n", invalid, StandardCharsets.UTF_8);
+
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(MagicNumberCheck.class.getName()));
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addChild(treeWalkerConfig);
+
+        try {
+            audit(checkerConfig, 2, Arrays.asList(valid, invalid, valid));
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertTrue(ex.getMessage().endsWith(invalid.getPath() + "."));
+        }
+    }
+
+    @Test
+    public void testCacheReplaysEvents() throws Exception {
+        final List<File> files = Lists.newArrayList();
+        for (File input : new File("src/test/resources/com/puppycrawl/tools/checkstyle/")
+                .listFiles()) {
+            if (input.isFile() && files.size() < 20) {
+                files.add(input);
+            }
+        }
+        Collections.sort(files);
+        final List<String> expected = audit(createParallelConfig(), 1, files);
+
+        final DefaultConfiguration config = (DefaultConfiguration) createParallelConfig();
+        config.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        assertEquals(expected, audit(config, 1, files));
+        assertEquals(expected, audit(config, 1, files));
+        assertEquals(expected, audit(config, 4, files));
+    }
+
+    @Test
+    public void testCacheDependsOnSuppressionsFile() throws Exception {
+        final File file = temporaryFolder.newFile("Input.java");
+        Files.write("class Input { int field = 5; }\n", file, StandardCharsets.UTF_8);
+        final File suppressions = temporaryFolder.newFile("suppressions.xml");
+        final String header = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE suppressions PUBLIC \"-//Puppy Crawl//DTD Suppressions 1.0//EN\""
+                + " \"http://www.puppycrawl.com/dtds/suppressions_1_0.dtd\">\n";
+        Files.write(header + "<suppressions>\n"
+                + "<suppress checks=\"MagicNumber\" files=\"Input\"/>\n"
+                + "</suppressions>\n", suppressions, StandardCharsets.UTF_8);
+
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(MagicNumberCheck.class.getName()));
+        final DefaultConfiguration filterConfig = new DefaultConfiguration(
+                SuppressionFilter.class.getName());
+        filterConfig.addAttribute("file", suppressions.getPath());
+        final DefaultConfiguration config = new DefaultConfiguration("configuration");
+        config.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        config.addChild(treeWalkerConfig);
+        config.addChild(filterConfig);
+
+        final List<String> suppressed = audit(config, 1, Collections.singletonList(file));
+        Files.write(header + "<suppressions>\n"
+                + "<suppress checks=\"MagicNumber\" files=\"Other\"/>\n"
+                + "</suppressions>\n", suppressions, StandardCharsets.UTF_8);
+        final List<String> reported = audit(config, 1, Collections.singletonList(file));
+
+        assertEquals(4, suppressed.size());
+        assertEquals(5, reported.size());
+        assertTrue(reported.get(2).startsWith("addError " + file.getAbsolutePath() + ":1:27"));
+    }
+
+    @Test
+    public void testCacheKeepsSuppressionCommentsAfterAddedCheck() throws Exception {
+        final File file = temporaryFolder.newFile("Input.java");
+        Files.write("// CHECKSTYLE:OFF\nclass Input {\n"
+                + "\tint aVeryLongFieldName = 1234567890;\n}\n", file, StandardCharsets.UTF_8);
+        final DefaultConfiguration lineLengthConfig =
+                new DefaultConfiguration(LineLengthCheck.class.getName());
+        lineLengthConfig.addAttribute("max", "40");
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(FileContentsHolder.class.getName()));
+        treeWalkerConfig.addChild(lineLengthConfig);
+        final DefaultConfiguration config = new DefaultConfiguration("configuration");
+        config.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        config.addChild(treeWalkerConfig);
+        config.addChild(new DefaultConfiguration(SuppressionCommentFilter.class.getName()));
+        final List<File> files = Collections.singletonList(file);
+
+        final List<String> expected = audit(config, 1, files);
+        // the TreeWalker replays its checks while the added check processes the file
+        config.addChild(new DefaultConfiguration(FileTabCharacterCheck.class.getName()));
+        assertEquals(expected, audit(config, 1, files));
+        assertEquals(expected, audit(config, 1, files));
+    }
+
+    @Test
+    public void testCacheFiltersUncachedChecksWithStateOfFile() throws Exception {
+        final File suppressed = temporaryFolder.newFile("Suppressed.java");
+        Files.write("// CHECKSTYLE:OFF\nclass Suppressed {}\n", suppressed,
+                StandardCharsets.UTF_8);
+        final File reported = temporaryFolder.newFile("Reported.java");
+        Files.write("\nclass Reported {}\n", reported, StandardCharsets.UTF_8);
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(FileContentsHolder.class.getName()));
+        final DefaultConfiguration config = new DefaultConfiguration("configuration");
+        config.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        config.addChild(treeWalkerConfig);
+        config.addChild(new DefaultConfiguration(LineLoggingFileSetCheck.class.getName()));
+        config.addChild(new DefaultConfiguration(SuppressionCommentFilter.class.getName()));
+        final List<File> files = Arrays.asList(suppressed, reported);
+
+        final List<String> expected = audit(config, 1, files);
+        assertEquals(7, expected.size());
+        // the filter must not see the comments of the previous file
+        assertEquals(expected, audit(config, 1, files));
+    }
+
+    @Test
+    public void testCacheSkipsUnchangedFiles() throws Exception {
+        final File file = temporaryFolder.newFile("Input.java");
+        Files.write("class Input {}", file, StandardCharsets.UTF_8);
+        final DefaultConfiguration checkConfig =
+                new DefaultConfiguration(CountingFileSetCheck.class.getName());
+        final DefaultConfiguration config = new DefaultConfiguration("configuration");
+        config.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        config.addChild(checkConfig);
+        config.addChild(new DefaultConfiguration(NewlineAtEndOfFileCheck.class.getName()));
+        final List<File> files = Collections.singletonList(file);
+        CountingFileSetCheck.count = 0;
+
+        final List<String> expected = audit(config, 1, files);
+        assertEquals(expected, audit(config, 1, files));
+        assertEquals(1, CountingFileSetCheck.count);
+
+        // same contents with another modification time
+        assertTrue(file.setLastModified(file.lastModified() - 10_000));
+        assertEquals(expected, audit(config, 1, files));
+        assertEquals(1, CountingFileSetCheck.count);
+
+        Files.write("class Input {}\n", file, StandardCharsets.UTF_8);
+        assertEquals(4, audit(config, 1, files).size());
+        assertEquals(2, CountingFileSetCheck.count);
+
+        checkConfig.addAttribute("fileExtensions", "java");
+        audit(config, 1, files);
+        assertEquals(3, CountingFileSetCheck.count);
+    }
+
+    @Test
+    public void testCacheIgnoredForChecksNotCreatedFromConfiguration() throws Exception {
+        final File file = temporaryFolder.newFile("Input.java");
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.setCacheFile(temporaryFolder.newFile().getPath());
+        checker.configure(new DefaultConfiguration("configuration"));
+        checker.addFileSetCheck(new CountingFileSetCheck());
+        CountingFileSetCheck.count = 0;
+
+        checker.process(Collections.singletonList(file));
+        checker.process(Collections.singletonList(file));
+        checker.destroy();
+        assertEquals(2, CountingFileSetCheck.count);
+    }
+
+    @Test
+    public void testProfileListener() throws Exception {
+        final List<File> files = Lists.newArrayList();
+        for (File input : new File("src/test/resources/com/puppycrawl/tools/checkstyle/")
+                .listFiles()) {
+            if (input.isFile() && input.getName().endsWith(".java") && files.size() < 20) {
+                files.add(input);
+            }
+        }
+        final ProfilingListener sequential = new ProfilingListener();
+        final List<String> events = audit(createParallelConfig(), 1, files, sequential);
+        final ProfilingListener parallel = new ProfilingListener();
+        audit(createParallelConfig(), 4, files, parallel);
+
+        final Map<String, Long> calls = sequential.calls;
+        assertEquals(Long.valueOf(files.size()), calls.get("TreeWalker.process"));
+        assertEquals(Long.valueOf(files.size()), calls.get("TreeWalker.parse"));
+        assertEquals(Long.valueOf(files.size()), calls.get("MagicNumberCheck.beginTree"));
+        assertEquals(Long.valueOf(files.size()), calls.get("NewlineAtEndOfFileCheck.process"));
+        assertTrue(calls.get("WhitespaceAroundCheck.visitToken") > files.size());
+        assertTrue(calls.get("SuppressionCommentFilter.accept") > 0);
+        assertEquals(calls, parallel.calls);
+        assertEquals(Arrays.asList("auditProfiled", "auditFinished"),
+                events.subList(events.size() - 2, events.size()));
+    }
+
+    /**
+     * Creates a configuration with TreeWalker checks, FileSetChecks which
+     * collect state across files and a filter relying on per thread state.
+     * @return the configuration
+     */
+    @Test
+    public void testAsyncListenerModule() throws Exception {
+        final DefaultConfiguration listenerConfig =
+                new DefaultConfiguration(AsyncAuditListener.class.getName());
+        listenerConfig.addAttribute("queueSize", "2");
+        listenerConfig.addChild(new DefaultConfiguration(ModuleListener.class.getName()));
+        final DefaultConfiguration config = (DefaultConfiguration) createParallelConfig();
+        config.addChild(listenerConfig);
+        final List<File> files = Lists.newArrayList(
+                new File("src/test/resources/com/puppycrawl/tools/checkstyle/").listFiles());
+        Collections.sort(files);
+
+        final List<String> events = audit(config, 2, files);
+        assertTrue(events.size() > files.size());
+        assertEquals(events, ((RecordingListener) ModuleListener.instance).events);
+    }
+
+    private static Configuration createParallelConfig() {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(FileContentsHolder.class.getName()));
+        treeWalkerConfig.addChild(new DefaultConfiguration(MagicNumberCheck.class.getName()));
+        treeWalkerConfig.addChild(
+                new DefaultConfiguration(WhitespaceAroundCheck.class.getName()));
+
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addAttribute("charset", "UTF-8");
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(new DefaultConfiguration(NewlineAtEndOfFileCheck.class.getName()));
+        checkerConfig.addChild(new DefaultConfiguration(JavadocPackageCheck.class.getName()));
+        checkerConfig.addChild(new DefaultConfiguration(TranslationCheck.class.getName()));
+        checkerConfig.addChild(
+                new DefaultConfiguration(SuppressionCommentFilter.class.getName()));
+        return checkerConfig;
+    }
+
+    /**
+     * Audits files and records the events received by a listener.
+     * @param config the checker configuration
+     * @param threadCount the number of threads to use
+     * @param files the files to audit
+     * @return the received events
+     * @throws Exception if the audit fails
+     */
+    private static List<String> audit(Configuration config, int threadCount, List<File> files)
+            throws Exception {
+        return audit(config, threadCount, files, new RecordingListener());
+    }
+
+    /**
+     * Audits files and records the events received by the given listener.
+     * @param config the checker configuration
+     * @param threadCount the number of threads to use
+     * @param files the files to audit
+     * @param listener the listener
+     * @return the received events
+     * @throws Exception if the audit fails
+     */
+    private static List<String> audit(Configuration config, int threadCount, List<File> files,
+            RecordingListener listener) throws Exception {
+        final Checker checker = new Checker();
+        checker.setLocaleCountry(Locale.ROOT.getCountry());
+        checker.setLocaleLanguage(Locale.ROOT.getLanguage());
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(config);
+        checker.setThreadCount(threadCount);
+        checker.addListener(listener);
+        try {
+            checker.process(files);
+        }
+        finally {
+            checker.destroy();
+        }
+        return listener.events;
+    }
+
+    /**
+     * Counts the files it processes.
+     */
+    public static class CountingFileSetCheck extends AbstractFileSetCheck {
+        /** The number of processed files. */
+        private static int count;
+
+        @Override
+        protected void processFiltered(File file, List<String> lines) {
+            count++;
+        }
+    }
+
+    /**
+     * Logs a message for the second line of every file and is never cached.
+     */
+    public static class LineLoggingFileSetCheck extends AbstractFileSetCheck
+            implements MergeableFileSetCheck {
+        @Override
+        protected void processFiltered(File file, List<String> lines) {
+            log(2, "second line");
+        }
+
+        @Override
+        public void merge(FileSetCheck other) {
+            // no state to merge
+        }
+    }
+
+    /**
+     * Waits in the first file until the later files are processed.
+     */
+    public static class LatchFileSetCheck extends AbstractFileSetCheck {
+        /** Counted down for every later file. */
+        private static CountDownLatch laterFiles;
+
+        /** Whether the first file saw the later files processed. */
+        private static volatile boolean released;
+
+        @Override
+        protected void processFiltered(File file, List<String> lines) throws CheckstyleException {
+            if (file.getName().startsWith("Later")) {
+                laterFiles.countDown();
+            }
+            else {
+                try {
+                    released = laterFiles.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException ex) {
+                    throw new CheckstyleException("Interrupted", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the events of an audit as strings.
+     */
+    private static class RecordingListener implements AuditListener {
+        /** The recorded events. */
+        private final List<String> events = Lists.newArrayList();
+
+        @Override
+        public void auditStarted(AuditEvent evt) {
+            events.add("auditStarted");
+        }
+
+        @Override
+        public void auditFinished(AuditEvent evt) {
+            events.add("auditFinished");
+        }
+
+        @Override
+        public void fileStarted(AuditEvent evt) {
+            events.add("fileStarted " + evt.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent evt) {
+            events.add("fileFinished " + evt.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent evt) {
+            events.add("addError " + evt.getFileName() + ":" + evt.getLine() + ":"
+                    + evt.getColumn() + " " + evt.getMessage());
+        }
+
+        @Override
+        public void addException(AuditEvent evt, Throwable throwable) {
+            events.add("addException " + evt.getFileName());
+        }
+    }
+
+    /**
+     * A listener module which remembers its last instance.
+     */
+    public static class ModuleListener extends RecordingListener {
+        /** The last created instance. */
+        private static ModuleListener instance;
+
+        /** Creates a new listener and remembers it. */
+        public ModuleListener() {
+            instance = this;
+        }
+    }
+
+    /**
+     * Records the events of an audit and the number of calls of its profile
+     * sections, keyed by module and phase.
+     */
+    private static class ProfilingListener extends RecordingListener
+            implements ProfileListener {
+        /** The number of calls of the profile sections. */
+        private final Map<String, Long> calls = Maps.newHashMap();
+
+        @Override
+        public void auditProfiled(AuditEvent evt, AuditProfile profile) {
+            super.events.add("auditProfiled");
+            for (AuditProfile.Section section : profile.getSections()) {
+                calls.put(section.getModule() + "." + section.getPhase(), section.getCount());
+            }
+        }
+    }
 }
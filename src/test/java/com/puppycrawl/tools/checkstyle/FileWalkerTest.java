@@ -0,0 +1,131 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+public class FileWalkerTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWalksSubdirectories() throws IOException {
+        final File first = temporaryFolder.newFile("First.java");
+        final File nested = createFile("a/b/Nested.java");
+        final File sibling = createFile("a/Sibling.java");
+        temporaryFolder.newFolder("empty");
+
+        final FileWalker walker =
+            new FileWalker(Collections.singletonList(temporaryFolder.getRoot()));
+        assertEquals(ImmutableSet.of(first, nested, sibling), walk(walker));
+        assertFalse(walker.isEmpty());
+    }
+
+    @Test
+    public void testExcludedDirectories() throws IOException {
+        final File included = createFile("src/Included.java");
+        createFile(".git/Excluded.java");
+        createFile("src/target/Excluded.java");
+
+        final FileWalker walker = new FileWalker(
+            Collections.singletonList(temporaryFolder.getRoot()),
+            ImmutableSet.of(".git", "target"));
+        assertEquals(ImmutableSet.of(included), walk(walker));
+    }
+
+    @Test
+    public void testRootsAreNeverExcluded() throws IOException {
+        final File file = createFile("target/Included.java");
+
+        final FileWalker walker = new FileWalker(
+            Collections.singletonList(file.getParentFile()), ImmutableSet.of("target"));
+        assertEquals(ImmutableSet.of(file), walk(walker));
+    }
+
+    @Test
+    public void testRootFilesInOrder() throws IOException {
+        final File first = createFile("b/First.java");
+        final File second = createFile("a/Second.java");
+        final File missing = new File(temporaryFolder.getRoot(), "Missing.java");
+
+        final Iterator<File> files =
+            new FileWalker(Arrays.asList(first, missing, second)).iterator();
+        assertEquals(first, files.next());
+        assertEquals(second, files.next());
+        assertFalse(files.hasNext());
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        temporaryFolder.newFolder("empty");
+
+        assertTrue(new FileWalker(Collections.singletonList(temporaryFolder.getRoot()))
+            .isEmpty());
+    }
+
+    @Test
+    public void testLinkCycle() throws IOException {
+        final File file = createFile("a/File.java");
+        try {
+            Files.createSymbolicLink(new File(file.getParentFile(), "loop").toPath(),
+                temporaryFolder.getRoot().toPath());
+        }
+        catch (final UnsupportedOperationException | IOException ignored) {
+            assumeTrue(false);
+        }
+
+        final Set<File> files =
+            walk(new FileWalker(Collections.singletonList(temporaryFolder.getRoot())));
+        assertEquals(ImmutableSet.of(file), files);
+    }
+
+    private File createFile(String path) throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), path);
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        assertTrue(file.createNewFile());
+        return file;
+    }
+
+    private static Set<File> walk(FileWalker walker) {
+        final Set<File> files = Sets.newHashSet();
+        for (final File file : walker) {
+            assertTrue(files.add(file));
+        }
+        return files;
+    }
+}
@@ -23,14 +23,16 @@ import static com.puppycrawl.tools.checkstyle.TestUtils.assertUtilsClassHasPriva
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
-import static org.powermock.api.mockito.PowerMockito.mock;
-import static org.powermock.api.mockito.PowerMockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.List;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
@@ -86,9 +88,13 @@ public class MainTest {
                     + "usage: java com.puppycrawl.tools.checkstyle.Main [options] -c <config.xml>%n"
                     + "            file...%n"
                     + " -c <arg>   Sets the check configuration file to use.%n"
+                    + " -d <arg>   Runs as a daemon that audits files sent to the given port%n"
+                    + " -e <arg>   Sets names of directories to skip, separated by commas%n"
                     + " -f <arg>   Sets the output format. (plain|xml). Defaults to plain%n"
                     + " -o <arg>   Sets the output file. Defaults to stdout%n"
                     + " -p <arg>   Loads the properties file%n"
+                    + " -r <arg>   Prints where the time goes and writes it to the given file%n"
+                    + " -t <arg>   Sets the number of threads to audit files with. Defaults to 1%n"
                     + " -v         Print product version and exit%n");
 
                 assertEquals(usage, systemOut.getLog());
@@ -217,6 +223,160 @@ public class MainTest {
                 "src/test/resources/com/puppycrawl/tools/checkstyle/InputMain.java");
     }
 
+    @Test
+    public void testExistingTargetFileWithThreads() throws Exception {
+
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format("Starting audit...%n"
+                        + "Audit done.%n"), systemOut.getLog());
+                assertEquals("", systemErr.getLog());
+            }
+        });
+        Main.main("-c", "src/test/resources/com/puppycrawl/tools/checkstyle/config-classname.xml",
+                "-t", "2", "src/test/resources/com/puppycrawl/tools/checkstyle/InputMain.java");
+    }
+
+    @Test
+    public void testInvalidThreadCount() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format("Invalid number of threads. "
+                        + "Found 'two' but expected a positive integer.%n"), systemOut.getLog());
+                assertEquals("", systemErr.getLog());
+            }
+        });
+        Main.main("-c", "/google_checks.xml", "-t", "two",
+                "src/test/resources/com/puppycrawl/tools/checkstyle/InputMain.java");
+    }
+
+    @Test
+    public void testNonPositiveThreadCount() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format("Invalid number of threads. "
+                        + "Found '0' but expected a positive integer.%n"), systemOut.getLog());
+                assertEquals("", systemErr.getLog());
+            }
+        });
+        Main.main("-c", "/google_checks.xml", "-t", "0",
+                "src/test/resources/com/puppycrawl/tools/checkstyle/InputMain.java");
+    }
+
+    @Test
+    public void testExcludedDirectories() throws Exception {
+        final File longFile = new File("src/test/resources/com/puppycrawl/tools/checkstyle/"
+                + "metrics/JavaNCSSCheckTestInput.java");
+        FileUtils.copyFileToDirectory(longFile, temporaryFolder.newFolder(".git"));
+        FileUtils.copyFileToDirectory(longFile, temporaryFolder.newFolder("generated"));
+        FileUtils.copyFileToDirectory(longFile, temporaryFolder.newFolder("target"));
+        FileUtils.copyFileToDirectory(new File("src/test/resources/com/puppycrawl/tools/"
+                + "checkstyle/InputMain.java"), temporaryFolder.getRoot());
+
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format("Starting audit...%n"
+                        + "Audit done.%n"), systemOut.getLog());
+                assertEquals("", systemErr.getLog());
+            }
+        });
+        Main.main("-c", "src/test/resources/com/puppycrawl/tools/checkstyle/config-filelength.xml",
+                "-e", "target, generated", temporaryFolder.getRoot().getPath());
+    }
+
+    @Test
+    public void testInvalidDaemonPort() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format("Invalid port. "
+                        + "Found '65536' but expected an integer from 0 to 65535.%n"),
+                        systemOut.getLog());
+                assertEquals("", systemErr.getLog());
+            }
+        });
+        Main.main("-c", "/google_checks.xml", "-d", "65536");
+    }
+
+    @Test
+    public void testDaemonWithOutputFile() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format("Output file can not be set in daemon mode.%n"),
+                        systemOut.getLog());
+                assertEquals("", systemErr.getLog());
+            }
+        });
+        Main.main("-c", "/google_checks.xml", "-d", "0", "-o", "output.txt");
+    }
+
+    @Test
+    public void testDaemonWithProfileFile() throws Exception {
+        exit.expectSystemExitWithStatus(-1);
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() {
+                assertEquals(String.format("Profile file can not be set in daemon mode.%n"),
+                        systemOut.getLog());
+                assertEquals("", systemErr.getLog());
+            }
+        });
+        Main.main("-c", "/google_checks.xml", "-d", "0", "-r", "profile.csv");
+    }
+
+    @Test
+    public void testProfile() throws Exception {
+        final File profileFile = new File(temporaryFolder.getRoot(), "profile.csv");
+        exit.checkAssertionAfterwards(new Assertion() {
+            @Override
+            public void checkAssertion() throws IOException {
+                final String output = systemOut.getLog();
+                assertTrue(output.startsWith(String.format("Starting audit...%n"
+                        + "Audit done.%n"
+                        + "Module                                   Phase                     "
+                        + "Calls    Time (ms)%n")));
+                assertTrue(output.contains("TypeNameCheck                            visitToken"));
+                assertEquals("", systemErr.getLog());
+
+                final String profile = new String(Files.readAllBytes(profileFile.toPath()),
+                        StandardCharsets.UTF_8);
+                assertTrue(profile.startsWith(String.format("module,phase,calls,nanos%n")));
+                assertTrue(profile.contains(String.format("%nTreeWalker,parse,1,")));
+            }
+        });
+        Main.main("-c", "src/test/resources/com/puppycrawl/tools/checkstyle/config-classname.xml",
+                "-r", profileFile.getPath(),
+                "src/test/resources/com/puppycrawl/tools/checkstyle/InputMain.java");
+    }
+
+    @Test
+    public void testDaemonPortInUse() throws Exception {
+        try (final ServerSocket serverSocket =
+                new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            final int port = serverSocket.getLocalPort();
+            exit.expectSystemExitWithStatus(-2);
+            exit.checkAssertionAfterwards(new Assertion() {
+                @Override
+                public void checkAssertion() {
+                    assertTrue(systemOut.getLog().startsWith(String.format(
+                            "Unable to serve audit requests on port %d.%nCause: ", port)));
+                    assertEquals("", systemErr.getLog());
+                }
+            });
+            Main.main("-c", "src/test/resources/com/puppycrawl/tools/checkstyle/config-classname.xml",
+                    "-d", String.valueOf(port));
+        }
+    }
+
     @Test
     public void testExistingTargetFileXmlOutput() throws Exception {
 
@@ -511,6 +671,27 @@ public class MainTest {
         }
     }
 
+    @Test
+    public void testCreateCheckerKeepsThreadCountOfConfiguration() throws Exception {
+        final File config = temporaryFolder.newFile("config-threads.xml");
+        Files.write(config.toPath(), ("<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE module PUBLIC \"-//Puppy Crawl//DTD Check Configuration 1.3//EN\""
+                + " \"http://www.puppycrawl.com/dtds/configuration_1_3.dtd\">\n"
+                + "<module name=\"Checker\">\n"
+                + "    <property name=\"threadCount\" value=\"3\"/>\n"
+                + "</module>\n").getBytes(StandardCharsets.UTF_8));
+        final Field threadCount = Checker.class.getDeclaredField("threadCount");
+        threadCount.setAccessible(true);
+
+        final Checker configured = Main.createChecker(config.getPath(), null, 0);
+        final Checker overridden = Main.createChecker(config.getPath(), null, 2);
+
+        assertEquals(3, threadCount.getInt(configured));
+        assertEquals(2, threadCount.getInt(overridden));
+        configured.destroy();
+        overridden.destroy();
+    }
+
     @Test
     public void testExistingDirectoryWithViolations() throws Exception {
 
@@ -543,34 +724,4 @@ public class MainTest {
         Main.main("-c", "src/test/resources/com/puppycrawl/tools/checkstyle/config-filelength.xml",
             "src/test/resources/com/puppycrawl/tools/checkstyle/metrics/");
     }
-
-    @Test
-    @SuppressWarnings("unchecked")
-    public void testListFilesNotFile() throws Exception {
-        Method method = Main.class.getDeclaredMethod("listFiles", File.class);
-        method.setAccessible(true);
-
-        File fileMock = mock(File.class);
-        when(fileMock.canRead()).thenReturn(true);
-        when(fileMock.isDirectory()).thenReturn(false);
-        when(fileMock.isFile()).thenReturn(false);
-
-        List<File> result = (List<File>) method.invoke(null, fileMock);
-        assertEquals(0, result.size());
-    }
-
-    @Test
-    @SuppressWarnings("unchecked")
-    public void testListFilesDirectoryWithNull() throws Exception {
-        Method method = Main.class.getDeclaredMethod("listFiles", File.class);
-        method.setAccessible(true);
-
-        File fileMock = mock(File.class);
-        when(fileMock.canRead()).thenReturn(true);
-        when(fileMock.isDirectory()).thenReturn(true);
-        when(fileMock.listFiles()).thenReturn(null);
-
-        List<File> result = (List<File>) method.invoke(null, fileMock);
-        assertEquals(0, result.size());
-    }
 }
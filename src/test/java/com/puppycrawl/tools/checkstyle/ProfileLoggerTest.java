@@ -0,0 +1,76 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditProfile;
+
+public class ProfileLoggerTest {
+
+    @Test
+    public void testTableAndProfile() {
+        final ByteArrayOutputStream tableStream = new ByteArrayOutputStream();
+        final ByteArrayOutputStream profileStream = new ByteArrayOutputStream();
+        final ProfileLogger logger = new ProfileLogger(tableStream, false, profileStream, true);
+        final AuditProfile profile = new AuditProfile();
+        profile.getSection("TreeWalker", "parse").add(1_500_000);
+        profile.getSection("TypeNameCheck", "visitToken").add(2_000_000);
+        profile.getSection("TypeNameCheck", "visitToken").add(2_250_000);
+
+        final AuditEvent event = new AuditEvent(this);
+        logger.auditStarted(event);
+        logger.addError(event);
+        logger.addException(event, new IllegalStateException());
+        logger.fileStarted(event);
+        logger.fileFinished(event);
+        logger.auditProfiled(event, profile);
+        logger.auditFinished(event);
+
+        assertEquals(String.format(
+                "Module                                   Phase                     Calls"
+                + "    Time (ms)%n"
+                + "TypeNameCheck                            visitToken                    2"
+                + "        4.250%n"
+                + "TreeWalker                               parse                         1"
+                + "        1.500%n"),
+                new String(tableStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(String.format("module,phase,calls,nanos%n"
+                + "TypeNameCheck,visitToken,2,4250000%n"
+                + "TreeWalker,parse,1,1500000%n"),
+                new String(profileStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNothingWrittenWithoutProfile() {
+        final ByteArrayOutputStream tableStream = new ByteArrayOutputStream();
+        final ProfileLogger logger = new ProfileLogger(tableStream, true, null, false);
+        final AuditEvent event = new AuditEvent(this);
+        logger.auditStarted(event);
+        logger.auditFinished(event);
+        assertEquals(0, tableStream.size());
+    }
+}
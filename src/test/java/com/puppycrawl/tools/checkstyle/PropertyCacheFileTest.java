@@ -31,8 +31,14 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -42,6 +48,9 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessages;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({ PropertyCacheFile.class, PropertyCacheFileTest.class })
@@ -82,10 +91,136 @@ public class PropertyCacheFileTest {
         Configuration config = new DefaultConfiguration("myName");
         final String filePath = temporaryFolder.newFile().getPath();
         PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
-        cache.put("myFile", 1);
-        assertTrue(cache.isInCache("myFile", 1));
-        assertFalse(cache.isInCache("myFile", 2));
-        assertFalse(cache.isInCache("myFile1", 1));
+        final byte[] digest = PropertyCacheFile.getContentDigest(Arrays.asList("a", "b"));
+        final byte[] otherDigest = PropertyCacheFile.getContentDigest(Arrays.asList("ab"));
+        cache.setContents("myFile", digest, 1, 2);
+        cache.put("myFile", "module", Collections.<LocalizedMessage>emptyList());
+        assertTrue(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+        assertFalse(cache.replay("myFile", "otherModule", getClass().getClassLoader(),
+                new LocalizedMessages()));
+        assertFalse(cache.replay("myFile1", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+
+        cache.setContents("myFile", digest, 3, 2);
+        assertTrue(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+        cache.setContents("myFile", otherDigest, 3, 2);
+        assertFalse(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+    }
+
+    @Test
+    public void testIsUnmodified() throws IOException {
+        Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.setContents("myFile", PropertyCacheFile.getContentDigest(new byte[] {1}), 1, 2);
+        assertTrue(cache.isUnmodified("myFile", 1, 2));
+        assertFalse(cache.isUnmodified("myFile", 1, 3));
+        assertFalse(cache.isUnmodified("myFile", 2, 2));
+        assertFalse(cache.isUnmodified("myFile1", 1, 2));
+    }
+
+    @Test
+    public void testPutWithoutContents() throws IOException {
+        Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.put("myFile", "module", Collections.<LocalizedMessage>emptyList());
+        assertFalse(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+    }
+
+    @Test
+    public void testReplayAfterLoad() throws IOException {
+        Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        final byte[] digest = PropertyCacheFile.getContentDigest(Arrays.asList("a", "b"));
+        final LocalizedMessage message = new LocalizedMessage(1, 2,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                new Object[] {"a", 1}, SeverityLevel.WARNING, "module",
+                PropertyCacheFileTest.class, null);
+        PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        cache.setContents("myFile", digest, 1, 2);
+        cache.put("myFile", "module", Collections.singletonList(message));
+        cache.put("myFile", "otherModule", Collections.<LocalizedMessage>emptyList());
+        cache.persist();
+
+        cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        assertTrue(cache.isUnmodified("myFile", 1, 2));
+        final LocalizedMessages messages = new LocalizedMessages();
+        assertTrue(cache.replay("myFile", "module", getClass().getClassLoader(), messages));
+        assertTrue(cache.replay("myFile", "otherModule", getClass().getClassLoader(),
+                messages));
+        assertEquals(1, messages.size());
+        assertEquals(message, messages.getMessages().first());
+    }
+
+    @Test
+    public void testConfigurationChangeClearsCache() throws IOException {
+        final String filePath = temporaryFolder.newFile().getPath();
+        final byte[] digest = PropertyCacheFile.getContentDigest(Arrays.asList("a", "b"));
+        PropertyCacheFile cache =
+            new PropertyCacheFile(new DefaultConfiguration("myName"), filePath);
+        cache.load();
+        cache.setContents("myFile", digest, 1, 2);
+        cache.put("myFile", "module", Collections.<LocalizedMessage>emptyList());
+        cache.persist();
+
+        cache = new PropertyCacheFile(new DefaultConfiguration("otherName"), filePath);
+        cache.load();
+        assertFalse(cache.isUnmodified("myFile", 1, 2));
+        assertFalse(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+    }
+
+    @Test
+    public void testUnsupportedArgumentIsNotCached() throws IOException {
+        Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final byte[] digest = PropertyCacheFile.getContentDigest(Arrays.asList("a", "b"));
+        final LocalizedMessage message = new LocalizedMessage(1,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                new Object[] {new Date()}, "module", PropertyCacheFileTest.class, null);
+        cache.setContents("myFile", digest, 1, 2);
+        cache.put("myFile", "module", Collections.<LocalizedMessage>emptyList());
+        cache.put("myFile", "module", Collections.singletonList(message));
+        assertFalse(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+    }
+
+    @Test
+    public void testLoadFileOfOtherFormat() throws IOException {
+        Configuration config = new DefaultConfiguration("myName");
+        final File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), "#properties\nmyFile=1\n".getBytes(StandardCharsets.UTF_8));
+        PropertyCacheFile cache = new PropertyCacheFile(config, file.getPath());
+        cache.load();
+        assertFalse(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
+    }
+
+    @Test
+    public void testLoadTruncatedFile() throws IOException {
+        Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        final byte[] digest = PropertyCacheFile.getContentDigest(Arrays.asList("a", "b"));
+        PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        cache.setContents("myFile", digest, 1, 2);
+        cache.put("myFile", "module", Collections.<LocalizedMessage>emptyList());
+        cache.persist();
+        final byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+        Files.write(Paths.get(filePath), Arrays.copyOf(bytes, bytes.length - 1));
+
+        cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        assertFalse(cache.replay("myFile", "module", getClass().getClassLoader(),
+                new LocalizedMessages()));
     }
 
     @Test
@@ -95,7 +230,6 @@ public class PropertyCacheFileTest {
         Configuration config = new DefaultConfiguration("myName");
         final String filePath = temporaryFolder.newFile().getPath();
         PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
-        cache.put("myFile", 1);
         mockStatic(MessageDigest.class);
 
         when(MessageDigest.getInstance("SHA-1"))
@@ -19,6 +19,9 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -29,7 +32,9 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -41,11 +46,16 @@ import org.junit.rules.TemporaryFolder;
 
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
+import com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
 
 public class TreeWalkerTest extends BaseCheckTestSupport {
     @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
@@ -225,6 +235,102 @@ public class TreeWalkerTest extends BaseCheckTestSupport {
         verify(otherChecker, pathToEmptyFile, pathToEmptyFile, expected);
     }
 
+    @Test
+    public void testCacheReplaysMessages() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createCheckConfig(CountingVisitLoggingCheck.class);
+
+        final DefaultConfiguration treeWalkerConfig = createCheckConfig(TreeWalker.class);
+        treeWalkerConfig.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        treeWalkerConfig.addChild(checkConfig);
+
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addAttribute("charset", "UTF-8");
+        checkerConfig.addChild(treeWalkerConfig);
+
+        final File file = temporaryFolder.newFile("file.java");
+        try (final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write("class A {}");
+        }
+        final String[] expected = {
+            "1: visited",
+        };
+
+        CountingVisitLoggingCheck.visits = 0;
+        verify(createCacheTestChecker(checkerConfig), file.getPath(), file.getPath(), expected);
+        // replayed from the cache written by the first checker
+        verify(createCacheTestChecker(checkerConfig), file.getPath(), file.getPath(), expected);
+        assertEquals(1, CountingVisitLoggingCheck.visits);
+    }
+
+    @Test
+    public void testCacheWalksOnlyChangedChecks() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createCheckConfig(TreeWalker.class);
+        treeWalkerConfig.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addChild(treeWalkerConfig);
+        verifyOnlyChangedChecksWalk(checkerConfig, treeWalkerConfig);
+    }
+
+    @Test
+    public void testCheckerCacheWalksOnlyChangedChecks() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createCheckConfig(TreeWalker.class);
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        checkerConfig.addChild(treeWalkerConfig);
+        verifyOnlyChangedChecksWalk(checkerConfig, treeWalkerConfig);
+    }
+
+    private void verifyOnlyChangedChecksWalk(Configuration checkerConfig,
+            DefaultConfiguration treeWalkerConfig) throws Exception {
+        treeWalkerConfig.addChild(createCheckConfig(CountingVisitLoggingCheck.class));
+        final File file = temporaryFolder.newFile("file.java");
+        Files.write(file.toPath(), "class A {}".getBytes(StandardCharsets.UTF_8));
+        final String[] expected = {
+            "1: visited",
+        };
+
+        CountingVisitLoggingCheck.visits = 0;
+        verify(createCacheTestChecker(checkerConfig), file.getPath(), file.getPath(), expected);
+
+        // only the added check walks the unchanged file
+        treeWalkerConfig.addChild(createCheckConfig(RootCapturingCheck.class));
+        RootCapturingCheck.root = null;
+        verify(createCacheTestChecker(checkerConfig), file.getPath(), file.getPath(), expected);
+        assertEquals(1, CountingVisitLoggingCheck.visits);
+        assertNotNull(RootCapturingCheck.root);
+
+        RootCapturingCheck.root = null;
+        verify(createCacheTestChecker(checkerConfig), file.getPath(), file.getPath(), expected);
+        assertEquals(1, CountingVisitLoggingCheck.visits);
+        assertNull(RootCapturingCheck.root);
+    }
+
+    @Test
+    public void testCacheKeepsSuppressionComments() throws Exception {
+        final DefaultConfiguration checkConfig = createCheckConfig(LineLengthCheck.class);
+        checkConfig.addAttribute("max", "40");
+
+        final DefaultConfiguration treeWalkerConfig = createCheckConfig(TreeWalker.class);
+        treeWalkerConfig.addAttribute("cacheFile", temporaryFolder.newFile().getPath());
+        treeWalkerConfig.addChild(createCheckConfig(FileContentsHolder.class));
+        treeWalkerConfig.addChild(checkConfig);
+
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(createCheckConfig(SuppressionCommentFilter.class));
+
+        final File file = temporaryFolder.newFile("file.java");
+        Files.write(file.toPath(), Arrays.asList("// CHECKSTYLE:OFF",
+            "class A { int aVeryLongFieldName = 1234567890; }"), StandardCharsets.UTF_8);
+        final String[] expected = ArrayUtils.EMPTY_STRING_ARRAY;
+
+        verify(createCacheTestChecker(checkerConfig), file.getPath(), file.getPath(), expected);
+        // the comments of the unchanged file still suppress the replayed messages
+        verify(createCacheTestChecker(checkerConfig), file.getPath(), file.getPath(), expected);
+    }
+
     @Test
     public void testForInvalidCheckImplementation() throws Exception {
         final DefaultConfiguration checkConfig = createCheckConfig(BadJavaDocCheck.class);
@@ -340,6 +446,50 @@ public class TreeWalkerTest extends BaseCheckTestSupport {
         }
     }
 
+    @Test
+    public void testCheckIsNotifiedOncePerToken() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createCheckConfig(VisitCountingCheck.class);
+        checkConfig.addAttribute("tokens", "CLASS_DEF");
+        final File file = temporaryFolder.newFile("file.java");
+        try (final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write("class A {}");
+        }
+        final String[] expected = {
+            "1: visited",
+        };
+
+        verify(checkConfig, file.getPath(), expected);
+    }
+
+    @Test
+    public void testCommentNodesAreNotAppendedWithoutCommentChecks() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createCheckConfig(RootCapturingCheck.class);
+        final File file = temporaryFolder.newFile("file.java");
+        try (final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write("// comment\nclass A {}");
+        }
+        final String[] expected = ArrayUtils.EMPTY_STRING_ARRAY;
+
+        verify(checkConfig, file.getPath(), expected);
+
+        assertNull(RootCapturingCheck.root.getPreviousSibling());
+    }
+
+    private Checker createCacheTestChecker(Configuration checkerConfig) throws Exception {
+        final Checker checker = new Checker();
+        final Locale locale = Locale.ROOT;
+        checker.setLocaleCountry(locale.getCountry());
+        checker.setLocaleLanguage(locale.getLanguage());
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        checker.addListener(new BriefLogger(stream));
+        return checker;
+    }
+
     private static class BadJavaDocCheck extends Check {
         @Override
         public int[] getDefaultTokens() {
@@ -391,4 +541,50 @@ public class TreeWalkerTest extends BaseCheckTestSupport {
         }
     }
 
+    private static class VisitCountingCheck extends Check {
+        @Override
+        public int[] getDefaultTokens() {
+            return getAcceptableTokens();
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return getAcceptableTokens();
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            log(ast.getLineNo(), "visited");
+        }
+    }
+
+    private static class RootCapturingCheck extends Check {
+        private static DetailAST root;
+
+        @Override
+        public int[] getDefaultTokens() {
+            return ArrayUtils.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            root = rootAST;
+        }
+    }
+
+    private static class CountingVisitLoggingCheck extends VisitCountingCheck {
+        private static int visits;
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            visits++;
+            super.visitToken(ast);
+        }
+    }
+
 }
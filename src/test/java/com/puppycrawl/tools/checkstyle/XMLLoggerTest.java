@@ -71,6 +71,18 @@ public class XMLLoggerTest {
         outStream.close();
     }
 
+    @Test
+    public void testEncodeLongValue() {
+        final StringBuilder value = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append("text <a href=\"x\">&amp;&#0;&#0 'q'</a>");
+            expected.append("text &lt;a href=&quot;x&quot;&gt;&amp;&#0;&amp;#0 "
+                + "&apos;q&apos;&lt;/a&gt;");
+        }
+        assertEquals(expected.toString(), XMLLogger.encode(value.toString()));
+    }
+
     @Test
     public void testIsReference()
         throws IOException {
@@ -146,6 +158,42 @@ public class XMLLoggerTest {
         verifyLines(expectedLines);
     }
 
+    @Test
+    public void testFlushAfterFile()
+        throws IOException {
+        final XMLLogger logger =
+            new XMLLogger(outStream, true, XMLLogger.FlushPolicy.FILE);
+        logger.auditStarted(null);
+        final AuditEvent ev = new AuditEvent(this, "Test.java");
+        logger.fileStarted(ev);
+        assertEquals(0, outStream.size());
+        logger.fileFinished(ev);
+        final String output = new String(outStream.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.endsWith("</file>" + System.lineSeparator()));
+        logger.auditFinished(null);
+        final String[] expectedLines = {"<file name=\"Test.java\">", "</file>"};
+        verifyLines(expectedLines);
+    }
+
+    @Test
+    public void testAddErrorWithEscapes() throws IOException {
+        final XMLLogger logger = new XMLLogger(outStream, true);
+        logger.auditStarted(null);
+        final LocalizedMessage message =
+            new LocalizedMessage(1234, 56,
+                "messages.properties", "<key & \"value\">", null, SeverityLevel.WARNING, null,
+                    getClass(), null);
+        final AuditEvent ev = new AuditEvent(this, "Test.java", message);
+        logger.addError(ev);
+        logger.auditFinished(null);
+        final String[] expectedLines = {
+            "<error line=\"1234\" column=\"56\" severity=\"warning\" "
+                + "message=\"&lt;key &amp; &quot;value&quot;&gt;\" "
+                + "source=\"com.puppycrawl.tools.checkstyle.XMLLoggerTest\"/>",
+        };
+        verifyLines(expectedLines);
+    }
+
     @Test
     public void testAddError() throws IOException {
         final XMLLogger logger = new XMLLogger(outStream, true);
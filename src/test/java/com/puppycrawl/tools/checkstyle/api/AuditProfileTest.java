@@ -0,0 +1,76 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class AuditProfileTest {
+    @Test
+    public void testSectionsAreShared() {
+        final AuditProfile profile = new AuditProfile();
+        final AuditProfile.Section section = profile.getSection("TreeWalker", "parse");
+        assertSame(section, profile.getSection("TreeWalker", "parse"));
+        section.add(5);
+        section.add(7);
+        assertEquals("TreeWalker", section.getModule());
+        assertEquals("parse", section.getPhase());
+        assertEquals(2, section.getCount());
+        assertEquals(12, section.getNanos());
+    }
+
+    @Test
+    public void testHottestSectionsFirst() {
+        final AuditProfile profile = new AuditProfile();
+        profile.getSection("B", "visitToken").add(10);
+        profile.getSection("A", "visitToken").add(10);
+        profile.getSection("A", "beginTree").add(10);
+        profile.getSection("C", "process").add(20);
+
+        final List<AuditProfile.Section> sections = profile.getSections();
+        assertEquals(4, sections.size());
+        assertEquals("C", sections.get(0).getModule());
+        assertEquals("A", sections.get(1).getModule());
+        assertEquals("beginTree", sections.get(1).getPhase());
+        assertEquals("A", sections.get(2).getModule());
+        assertEquals("visitToken", sections.get(2).getPhase());
+        assertEquals("B", sections.get(3).getModule());
+    }
+
+    @Test
+    public void testAdd() {
+        final AuditProfile profile = new AuditProfile();
+        profile.getSection("A", "visitToken").add(3);
+        final AuditProfile other = new AuditProfile();
+        other.getSection("A", "visitToken").add(4);
+        other.getSection("A", "visitToken").add(5);
+        other.getSection("B", "accept").add(1);
+
+        profile.add(other);
+        assertEquals(3, profile.getSection("A", "visitToken").getCount());
+        assertEquals(12, profile.getSection("A", "visitToken").getNanos());
+        assertEquals(1, profile.getSection("B", "accept").getCount());
+        assertEquals(2, profile.getSections().size());
+    }
+}
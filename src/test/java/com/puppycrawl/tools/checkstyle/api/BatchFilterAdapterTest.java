@@ -0,0 +1,64 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.SortedSet;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSortedSet;
+
+public class BatchFilterAdapterTest {
+    @Test
+    public void testAdaptBatchFilter() {
+        final FilterSet filterSet = new FilterSet();
+        assertSame(filterSet, BatchFilterAdapter.adapt(filterSet));
+    }
+
+    @Test
+    public void testAdaptFilter() {
+        final LocalizedMessage first = new LocalizedMessage(1, 1, "", "", null,
+                SeverityLevel.ERROR, null, getClass(), null);
+        final LocalizedMessage second = new LocalizedMessage(2, 1, "", "", null,
+                SeverityLevel.ERROR, null, getClass(), null);
+        final Filter filter = new Filter() {
+            @Override
+            public boolean accept(AuditEvent event) {
+                return event.getLine() > 1 && "Test.java".equals(event.getFileName());
+            }
+
+            @Override
+            public String toString() {
+                return "filter";
+            }
+        };
+        final BatchFilter adapter = BatchFilterAdapter.adapt(filter);
+        final SortedSet<LocalizedMessage> messages = ImmutableSortedSet.of(first, second);
+
+        assertEquals(ImmutableSortedSet.of(second), adapter.accept(this, "Test.java", messages));
+        assertEquals(ImmutableSortedSet.of(), adapter.accept(this, "Other.java", messages));
+        assertEquals(filter.accept(new AuditEvent(this, "Test.java", second)),
+                adapter.accept(new AuditEvent(this, "Test.java", second)));
+        assertEquals("filter", adapter.toString());
+    }
+}
@@ -19,10 +19,14 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.Test;
@@ -55,4 +59,15 @@ public class FileContentsTest {
         assertTrue(o.hasIntersectionWithComment(1, 5, 1, 6));
 
     }
+
+    @Test
+    public void testLineAccess() {
+        final FileText text = FileText.fromLines(new File("filename"),
+                Arrays.asList("first", "second"));
+        final FileContents o = new FileContents(text);
+        assertEquals(2, o.getLineCount());
+        assertEquals("second", o.getLine(1));
+        assertArrayEquals(new String[] {"first", "second"}, o.getLines());
+        assertSame(text, o.getText());
+    }
 }
@@ -0,0 +1,114 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+
+public class FileTextDecoderTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAsciiCompatibleCharsets() throws IOException {
+        // the comment contains an e with acute accent and a euro sign
+        final byte[] bytes = Bytes.concat("class A {\r\n  // ".getBytes(StandardCharsets.UTF_8),
+            new byte[] {(byte) 0xC3, (byte) 0xA9, (byte) 0xE2, (byte) 0x82, (byte) 0xAC},
+            "\r}\n".getBytes(StandardCharsets.UTF_8));
+        for (String charset : Arrays.asList("UTF-8", "US-ASCII", "ISO-8859-1", "windows-1252")) {
+            verifyDecoding(bytes, Charset.forName(charset));
+        }
+    }
+
+    @Test
+    public void testRandomBytes() throws IOException {
+        final Random random = new Random(42);
+        final byte[] symbols = {'a', '\r', '\n', (byte) 0x80, (byte) 0xC3, (byte) 0xA9,
+            (byte) 0xE2, (byte) 0x82, (byte) 0xAC, (byte) 0xF0, (byte) 0x9F, (byte) 0xFF, };
+        for (int i = 0; i < 200; i++) {
+            final byte[] bytes = new byte[random.nextInt(40)];
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = symbols[random.nextInt(symbols.length)];
+            }
+            for (Charset charset : Arrays.asList(StandardCharsets.UTF_8,
+                    StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1,
+                    StandardCharsets.UTF_16)) {
+                verifyDecoding(bytes, charset);
+            }
+        }
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        while (text.length() < 2 << 20) {
+            text.append("int field; // ").append((char) 0xE9).append("\r\n");
+        }
+        verifyDecoding(text.toString().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    private void verifyDecoding(byte[] bytes, Charset charset) throws IOException {
+        final File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), bytes);
+        final String expected = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(ByteBuffer.wrap(bytes)).toString();
+
+        final FileText text = new FileText(file, charset.name());
+        assertEquals(expected, text.getFullText().toString());
+        assertEquals(readLines(expected), text);
+        if (!text.isEmpty()) {
+            final int lastLine = text.size();
+            assertEquals(lastLine,
+                text.lineColumn(text.getFullText().length() - 1).getLine());
+        }
+    }
+
+    private static List<String> readLines(String text) throws IOException {
+        final List<String> lines = Lists.newArrayList();
+        final BufferedReader reader = new BufferedReader(new StringReader(text));
+        String line = reader.readLine();
+        while (line != null) {
+            lines.add(line);
+            line = reader.readLine();
+        }
+        return lines;
+    }
+}
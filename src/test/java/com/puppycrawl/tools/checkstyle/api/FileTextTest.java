@@ -20,15 +20,23 @@
 package com.puppycrawl.tools.checkstyle.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class FileTextTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Test
     public void testUnsupportedCharset() throws IOException {
@@ -51,4 +59,91 @@ public class FileTextTest {
                  + "checkstyle/imports/import-control_complete.xml"), charsetName);
         assertEquals(o.getCharset().name(), charsetName);
     }
+
+    @Test
+    public void testLineTerminators() throws IOException {
+        final File file = temporaryFolder.newFile("Terminators.java");
+        final String content = "a\r\nb\rc\n\nd";
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        final FileText text = new FileText(file, "UTF-8");
+        assertEquals(Arrays.asList("a", "b", "c", "", "d"), text);
+        assertEquals(content, text.getFullText().toString());
+        assertLineColumn(text.lineColumn(0), 1, 0);
+        assertLineColumn(text.lineColumn(3), 2, 0);
+        assertLineColumn(text.lineColumn(7), 4, 0);
+        assertLineColumn(text.lineColumn(8), 5, 0);
+    }
+
+    @Test
+    public void testTrailingTerminator() throws IOException {
+        final File file = temporaryFolder.newFile("Trailing.java");
+        Files.write(file.toPath(), "a\r".getBytes(StandardCharsets.UTF_8));
+
+        final FileText text = new FileText(file, "UTF-8");
+        assertEquals(Arrays.asList("a"), text);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        final File file = temporaryFolder.newFile("Empty.java");
+
+        assertEquals(0, new FileText(file, "UTF-8").size());
+    }
+
+    @Test
+    public void testLargeFileIsReleased() throws IOException {
+        final File file = temporaryFolder.newFile("Large.java");
+        final byte[] line = "int field;\n".getBytes(StandardCharsets.UTF_8);
+        final byte[] bytes = new byte[line.length * 200_000];
+        for (int i = 0; i < bytes.length; i += line.length) {
+            System.arraycopy(line, 0, bytes, i, line.length);
+        }
+        Files.write(file.toPath(), bytes);
+
+        final FileText text = new FileText(file, "UTF-8");
+        assertEquals(200_000, text.size());
+        assertEquals("int field;", text.get(199_999));
+        // a file still mapped into memory could not be truncated on Windows
+        Files.write(file.toPath(), line);
+        assertEquals(line.length, file.length());
+    }
+
+    @Test
+    public void testMalformedInputIsReplaced() throws IOException {
+        final File file = temporaryFolder.newFile("Malformed.java");
+        final byte[] bytes = {'a', (byte) 0xC3, 'b'};
+        Files.write(file.toPath(), bytes);
+
+        // the malformed byte is replaced with the replacement character
+        final String expected = new String(bytes, StandardCharsets.UTF_8);
+        assertEquals(3, expected.length());
+        assertEquals(expected, new FileText(file, "UTF-8").get(0));
+    }
+
+    @Test
+    public void testLinesAreCutOnDemand() throws IOException {
+        final File file = temporaryFolder.newFile("OnDemand.java");
+        Files.write(file.toPath(), "first\nsecond\n".getBytes(StandardCharsets.UTF_8));
+
+        final FileText text = new FileText(file, "UTF-8");
+        assertEquals(2, text.size());
+        assertEquals("second", text.get(1));
+        assertSame(text.get(1), text.get(1));
+        assertSame(text.get(1), new FileText(text).get(1));
+        assertEquals("first", text.toLinesArray()[0]);
+    }
+
+    @Test
+    public void testFromLines() {
+        final FileText text = FileText.fromLines(new File("any name"), Arrays.asList("ab", "c"));
+        assertEquals("ab\nc\n", text.getFullText().toString());
+        assertEquals(Arrays.asList("ab", "c"), text);
+        assertLineColumn(text.lineColumn(4), 2, 1);
+    }
+
+    private static void assertLineColumn(LineColumn lineColumn, int line, int column) {
+        assertEquals(line, lineColumn.getLine());
+        assertEquals(column, lineColumn.getColumn());
+    }
 }
@@ -22,20 +22,31 @@ package com.puppycrawl.tools.checkstyle.api;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_BYTE_ARRAY;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_OBJECT_ARRAY;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.NotSerializableException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.Locale;
 
 import org.junit.After;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+
 import nl.jqno.equalsverifier.EqualsVerifier;
 
 public class LocalizedMessageTest {
@@ -139,6 +150,122 @@ public class LocalizedMessageTest {
         assertEquals("Empty statement.", localizedMessage.getMessage());
     }
 
+    @Test
+    public void testMessageIsFormattedOnce() {
+        final LocalizedMessage localizedMessage = new LocalizedMessage(0,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "unknown.key {0}",
+                new Object[] {"arg"}, "module", LocalizedMessage.class, null);
+
+        final String message = localizedMessage.getMessage();
+        assertEquals("unknown.key arg", message);
+        assertSame(message, localizedMessage.getMessage());
+    }
+
+    @Test
+    public void testCustomMessage() {
+        final LocalizedMessage first = new LocalizedMessage(0,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                new Object[] {"first"}, "module", LocalizedMessage.class, "custom {0}");
+        final LocalizedMessage second = new LocalizedMessage(0,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                new Object[] {"second"}, "module", LocalizedMessage.class, "custom {0}");
+
+        assertEquals("custom first", first.getMessage());
+        assertEquals("custom second", second.getMessage());
+    }
+
+    @Test
+    public void testCompareTo() {
+        final LocalizedMessage withoutModule = createMessage(1, null, "b.key", "x");
+        final LocalizedMessage firstModule = createMessage(1, "a", "b.key", "x");
+        final LocalizedMessage firstKey = createMessage(1, "b", "a.key", "x");
+        final LocalizedMessage secondKey = createMessage(1, "b", "b.key", "x");
+        final LocalizedMessage otherArgument = createMessage(1, "b", "b.key", "y");
+        final LocalizedMessage nextLine = createMessage(2, null, "a.key", "x");
+
+        assertTrue(withoutModule.compareTo(firstModule) < 0);
+        assertTrue(firstModule.compareTo(firstKey) < 0);
+        assertTrue(firstKey.compareTo(secondKey) < 0);
+        assertTrue(secondKey.compareTo(otherArgument) < 0);
+        assertTrue(otherArgument.compareTo(nextLine) < 0);
+        assertTrue(nextLine.compareTo(withoutModule) > 0);
+        assertEquals(0, secondKey.compareTo(createMessage(1, "b", "b.key", "x")));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final Object[] args = {"name", 1, 2L, 1.5, BigInteger.TEN, BigDecimal.ONE, null,
+            Locale.ROOT, };
+        final LocalizedMessage message = new LocalizedMessage(3, 4,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                args, SeverityLevel.WARNING, "module", LocalizedMessage.class, "custom {0}");
+
+        final LocalizedMessage restored = writeAndRead(message);
+
+        assertEquals(message.getLineNo(), restored.getLineNo());
+        assertEquals(message.getColumnNo(), restored.getColumnNo());
+        assertEquals(message.getSeverityLevel(), restored.getSeverityLevel());
+        assertEquals(message.getModuleId(), restored.getModuleId());
+        assertEquals(message.getKey(), restored.getKey());
+        assertEquals(message.getSourceName(), restored.getSourceName());
+        assertEquals(message.getMessage(), restored.getMessage());
+    }
+
+    @Test
+    public void testWriteAndReadWithoutArguments() throws IOException {
+        final LocalizedMessage message = new LocalizedMessage(0,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                null, null, LocalizedMessage.class, null);
+
+        assertEquals(message, writeAndRead(message));
+    }
+
+    @Test
+    public void testWriteDateArgument() throws IOException {
+        final LocalizedMessage message = new LocalizedMessage(0,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", "empty.statement",
+                new Object[] {Calendar.getInstance().getTime()}, "module",
+                LocalizedMessage.class, null);
+        try {
+            message.writeTo(ByteStreams.newDataOutput());
+            fail("Exception is expected");
+        }
+        catch (NotSerializableException ex) {
+            assertEquals(Date.class.getName(), ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadUnknownSourceClass() throws IOException {
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        createSampleLocalizedMessage().writeTo(output);
+        // the platform class loader does not see the classes of Checkstyle
+        final ClassLoader classLoader = ClassLoader.getSystemClassLoader().getParent();
+        try {
+            LocalizedMessage.readFrom(ByteStreams.newDataInput(output.toByteArray()),
+                    classLoader);
+            fail("Exception is expected");
+        }
+        catch (IOException ex) {
+            assertTrue(ex.getCause() instanceof ClassNotFoundException);
+        }
+    }
+
+    private static LocalizedMessage writeAndRead(LocalizedMessage message) throws IOException {
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        message.writeTo(output);
+        return LocalizedMessage.readFrom(ByteStreams.newDataInput(output.toByteArray()),
+                LocalizedMessage.class.getClassLoader());
+    }
+
+    private static LocalizedMessage createMessage(int lineNo, String moduleId, String key,
+            String argument) {
+        return new LocalizedMessage(lineNo, 1,
+                "com.puppycrawl.tools.checkstyle.checks.coding.messages", key + " {0}",
+                new Object[] {argument}, SeverityLevel.ERROR, moduleId,
+                LocalizedMessage.class, null);
+    }
+
     private static LocalizedMessage createSampleLocalizedMessage() {
         return new LocalizedMessage(0, "com.puppycrawl.tools.checkstyle.checks.coding.messages",
                 "empty.statement", EMPTY_OBJECT_ARRAY, "module", LocalizedMessage.class, null);
@@ -0,0 +1,86 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SuppressWarningsHolderIndexTest {
+    @Test
+    public void testIsSuppressedWithManyEntries() throws Exception {
+        Class<?> entry = Class
+                .forName("com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder$Entry");
+        Constructor<?> entryConstr = entry.getDeclaredConstructor(String.class, int.class,
+                int.class, int.class, int.class);
+        entryConstr.setAccessible(true);
+        SuppressWarningsHolder holder = new SuppressWarningsHolder();
+        holder.beginTree(null);
+        Field entriesField = holder.getClass().getDeclaredField("ENTRIES");
+        entriesField.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        List<Object> entries = ((ThreadLocal<List<Object>>) entriesField.get(holder)).get();
+
+        String[] names = {"a", "b"};
+        List<int[]> regions = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 60; i++) {
+            int firstLine = random.nextInt(30) + 1;
+            int[] region = {random.nextInt(names.length), firstLine, random.nextInt(5),
+                firstLine + random.nextInt(10), random.nextInt(6) - 1, };
+            if (i % 20 == 0) {
+                region[3] = Integer.MAX_VALUE;
+                region[4] = Integer.MAX_VALUE;
+            }
+            regions.add(region);
+            entries.add(entryConstr.newInstance(names[region[0]], region[1], region[2],
+                    region[3], region[4]));
+            // the index is rebuilt as entries are added
+            SuppressWarningsHolder.isSuppressed("ACheck", 1, 0);
+        }
+
+        for (int line = 1; line < 45; line++) {
+            for (int column = 0; column < 6; column++) {
+                for (int name = 0; name < names.length; name++) {
+                    assertEquals(line + ":" + column + " " + names[name],
+                        isInRegion(regions, name, line, column),
+                        SuppressWarningsHolder.isSuppressed(
+                            names[name].toUpperCase() + "Check", line, column));
+                }
+            }
+        }
+    }
+
+    private static boolean isInRegion(List<int[]> regions, int name, int line, int column) {
+        boolean result = false;
+        for (int[] region : regions) {
+            result |= region[0] == name
+                && (region[1] < line || region[1] == line && region[2] <= column)
+                && (region[3] > line || region[3] == line && region[4] >= column);
+        }
+        return result;
+    }
+}
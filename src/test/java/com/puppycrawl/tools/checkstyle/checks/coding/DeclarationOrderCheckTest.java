@@ -44,26 +44,26 @@ public class DeclarationOrderCheckTest
             "13:5: " + getCheckMessage(MSG_ACCESS),
             "18:5: " + getCheckMessage(MSG_ACCESS),
             "21:5: " + getCheckMessage(MSG_ACCESS),
-            "27:5: " + getCheckMessage(MSG_STATIC),
             "27:5: " + getCheckMessage(MSG_ACCESS),
+            "27:5: " + getCheckMessage(MSG_STATIC),
             "34:9: " + getCheckMessage(MSG_ACCESS),
-            "45:9: " + getCheckMessage(MSG_STATIC),
             "45:9: " + getCheckMessage(MSG_ACCESS),
+            "45:9: " + getCheckMessage(MSG_STATIC),
             "54:5: " + getCheckMessage(MSG_CONSTRUCTOR),
             "80:5: " + getCheckMessage(MSG_INSTANCE),
 
             "92:9: " + getCheckMessage(MSG_ACCESS),
-            "100:9: " + getCheckMessage(MSG_STATIC),
             "100:9: " + getCheckMessage(MSG_ACCESS),
+            "100:9: " + getCheckMessage(MSG_STATIC),
             "106:5: " + getCheckMessage(MSG_ACCESS),
             "111:5: " + getCheckMessage(MSG_ACCESS),
             "116:5: " + getCheckMessage(MSG_ACCESS),
             "119:5: " + getCheckMessage(MSG_ACCESS),
-            "125:5: " + getCheckMessage(MSG_STATIC),
             "125:5: " + getCheckMessage(MSG_ACCESS),
+            "125:5: " + getCheckMessage(MSG_STATIC),
             "132:9: " + getCheckMessage(MSG_ACCESS),
-            "143:9: " + getCheckMessage(MSG_STATIC),
             "143:9: " + getCheckMessage(MSG_ACCESS),
+            "143:9: " + getCheckMessage(MSG_STATIC),
             "152:5: " + getCheckMessage(MSG_CONSTRUCTOR),
             "178:5: " + getCheckMessage(MSG_INSTANCE),
             "182:9: " + getCheckMessage(MSG_ACCESS),
@@ -102,25 +102,25 @@ public class DeclarationOrderCheckTest
             "13:5: " + getCheckMessage(MSG_ACCESS),
             "18:5: " + getCheckMessage(MSG_ACCESS),
             "21:5: " + getCheckMessage(MSG_ACCESS),
-            "27:5: " + getCheckMessage(MSG_STATIC),
             "27:5: " + getCheckMessage(MSG_ACCESS),
+            "27:5: " + getCheckMessage(MSG_STATIC),
             "34:9: " + getCheckMessage(MSG_ACCESS),
-            "45:9: " + getCheckMessage(MSG_STATIC),
             "45:9: " + getCheckMessage(MSG_ACCESS),
+            "45:9: " + getCheckMessage(MSG_STATIC),
             "80:5: " + getCheckMessage(MSG_INSTANCE),
 
             "92:9: " + getCheckMessage(MSG_ACCESS),
-            "100:9: " + getCheckMessage(MSG_STATIC),
             "100:9: " + getCheckMessage(MSG_ACCESS),
+            "100:9: " + getCheckMessage(MSG_STATIC),
             "106:5: " + getCheckMessage(MSG_ACCESS),
             "111:5: " + getCheckMessage(MSG_ACCESS),
             "116:5: " + getCheckMessage(MSG_ACCESS),
             "119:5: " + getCheckMessage(MSG_ACCESS),
-            "125:5: " + getCheckMessage(MSG_STATIC),
             "125:5: " + getCheckMessage(MSG_ACCESS),
+            "125:5: " + getCheckMessage(MSG_STATIC),
             "132:9: " + getCheckMessage(MSG_ACCESS),
-            "143:9: " + getCheckMessage(MSG_STATIC),
             "143:9: " + getCheckMessage(MSG_ACCESS),
+            "143:9: " + getCheckMessage(MSG_STATIC),
             "178:5: " + getCheckMessage(MSG_INSTANCE),
             "182:9: " + getCheckMessage(MSG_ACCESS),
         };
@@ -598,23 +598,23 @@ public class IndentationCheckTest extends BaseCheckTestSupport {
             "83: " + getCheckMessage(MSG_ERROR, "method6", 5, 7),
             "93: " + getCheckMessage(MSG_CHILD_ERROR, "ctor def", 4, 8),
             "93: " + getCheckMessage(MSG_CHILD_ERROR, "method call", 4, 8),
-            "98: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "98: " + getCheckMessage(MSG_CHILD_ERROR, "method def", 6, 8),
+            "98: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "99: " + getCheckMessage(MSG_ERROR, "if", 6, 8),
             "100: " + getCheckMessage(MSG_CHILD_ERROR, "if", 10, 12),
             "100: " + getCheckMessage(MSG_CHILD_ERROR, "method call", 10, 12),
             "101: " + getCheckMessage(MSG_ERROR, "if rcurly", 6, 8),
             "104: " + getCheckMessage(MSG_ERROR, "Arrays", 10, 12),
-            "113: " + getCheckMessage(MSG_ERROR, "+", 10, 12),
             "113: " + getCheckMessage(MSG_CHILD_ERROR, "method call", 10, 12),
+            "113: " + getCheckMessage(MSG_ERROR, "+", 10, 12),
             "122: " + getCheckMessage(MSG_ERROR, "new", 10, 12),
             "126: " + getCheckMessage(MSG_ERROR, "new", 10, 12),
             "127: " + getCheckMessage(MSG_ERROR, ")", 6, 8),
             "131: " + getCheckMessage(MSG_ERROR, "method call rparen", 6, 8),
-            "145: " + getCheckMessage(MSG_ERROR, "6", 10, 12),
             "145: " + getCheckMessage(MSG_CHILD_ERROR, "method call", 10, 12),
-            "148: " + getCheckMessage(MSG_ERROR, "6", 10, 12),
+            "145: " + getCheckMessage(MSG_ERROR, "6", 10, 12),
             "148: " + getCheckMessage(MSG_CHILD_ERROR, "method call", 10, 12),
+            "148: " + getCheckMessage(MSG_ERROR, "6", 10, 12),
             "158: " + getCheckMessage(MSG_CHILD_ERROR, "method call", 6, 12),
             "170: " + getCheckMessage(MSG_CHILD_ERROR, "method def", 4, 8),
             "175: " + getCheckMessage(MSG_CHILD_ERROR, "method def", 4, 8),
@@ -760,8 +760,8 @@ public class IndentationCheckTest extends BaseCheckTestSupport {
             "66: " + getCheckMessage(MSG_ERROR_MULTI, "array initialization rcurly", 2, "6, 10"),
             "69: " + getCheckMessage(MSG_CHILD_ERROR, "array initialization", 6, 8),
             "76: " + getCheckMessage(MSG_CHILD_ERROR, "array initialization", 10, 12),
-            "89: " + getCheckMessage(MSG_ERROR, "1", 8, 12),
             "89: " + getCheckMessage(MSG_CHILD_ERROR, "array initialization", 8, 12),
+            "89: " + getCheckMessage(MSG_ERROR, "1", 8, 12),
             "100: " + getCheckMessage(MSG_CHILD_ERROR, "array initialization", 10, 12),
             "101: " + getCheckMessage(MSG_CHILD_ERROR, "array initialization", 14, 12),
             "104: " + getCheckMessage(MSG_CHILD_ERROR, "array initialization", 10, 12),
@@ -939,23 +939,23 @@ public class IndentationCheckTest extends BaseCheckTestSupport {
             "86: " + getCheckMessage(MSG_ERROR, "block rcurly", 10, 12),
             "95: " + getCheckMessage(MSG_ERROR, "static initialization", 2, 4),
             "96: " + getCheckMessage(MSG_ERROR, "static initialization", 6, 4),
-            "100: " + getCheckMessage(MSG_ERROR, "member def type", 7, 8),
             "100: " + getCheckMessage(MSG_CHILD_ERROR, "static initialization", 7, 8),
+            "100: " + getCheckMessage(MSG_ERROR, "member def type", 7, 8),
             "103: " + getCheckMessage(MSG_ERROR, "static initialization", 6, 4),
             "105: " + getCheckMessage(MSG_ERROR, "static initialization rcurly", 2, 4),
             "107: " + getCheckMessage(MSG_ERROR, "static initialization", 2, 4),
             "109: " + getCheckMessage(MSG_ERROR, "static initialization rcurly", 6, 4),
             "111: " + getCheckMessage(MSG_ERROR, "static initialization", 2, 4),
-            "113: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "113: " + getCheckMessage(MSG_CHILD_ERROR, "static initialization", 6, 8),
+            "113: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "116: " + getCheckMessage(MSG_ERROR, "static initialization lcurly", 2, 4),
-            "117: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "117: " + getCheckMessage(MSG_CHILD_ERROR, "static initialization", 6, 8),
+            "117: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "118: " + getCheckMessage(MSG_ERROR, "static initialization rcurly", 6, 4),
-            "123: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "123: " + getCheckMessage(MSG_CHILD_ERROR, "static initialization", 6, 8),
-            "128: " + getCheckMessage(MSG_ERROR, "member def type", 4, 8),
+            "123: " + getCheckMessage(MSG_ERROR, "member def type", 6, 8),
             "128: " + getCheckMessage(MSG_CHILD_ERROR, "static initialization", 4, 8),
+            "128: " + getCheckMessage(MSG_ERROR, "member def type", 4, 8),
             "129: " + getCheckMessage(MSG_ERROR, "static initialization rcurly", 2, 4),
             "134: " + getCheckMessage(MSG_ERROR, "static initialization rcurly", 6, 4),
             "137: " + getCheckMessage(MSG_ERROR, "block lcurly", 2, 4),
@@ -1049,10 +1049,10 @@ public class IndentationCheckTest extends BaseCheckTestSupport {
 
             "188: " + getCheckMessage(MSG_CHILD_ERROR, "else", 14, 12),
             "189: " + getCheckMessage(MSG_ERROR, "else rcurly", 10, 8),
-            "192: " + getCheckMessage(MSG_ERROR, "&&", 9, 12),
             "192: " + getCheckMessage(MSG_CHILD_ERROR, "if", 9, 12),
-            "193: " + getCheckMessage(MSG_ERROR, "&&", 11, 12),
+            "192: " + getCheckMessage(MSG_ERROR, "&&", 9, 12),
             "193: " + getCheckMessage(MSG_CHILD_ERROR, "if", 11, 12),
+            "193: " + getCheckMessage(MSG_ERROR, "&&", 11, 12),
             "197: " + getCheckMessage(MSG_CHILD_ERROR, "if", 10, 12),
             "200: " + getCheckMessage(MSG_ERROR, "if rcurly", 7, 8),
             "207: " + getCheckMessage(MSG_CHILD_ERROR, "if", 10, 12),
@@ -23,15 +23,22 @@ import static com.puppycrawl.tools.checkstyle.checks.javadoc.AbstractJavadocChec
 import static com.puppycrawl.tools.checkstyle.checks.javadoc.AbstractJavadocCheck.JAVADOC_WRONG_SINGLETON_TAG;
 import static com.puppycrawl.tools.checkstyle.checks.javadoc.AbstractJavadocCheck.PARSE_ERROR_MESSAGE_KEY;
 import static com.puppycrawl.tools.checkstyle.checks.javadoc.AbstractJavadocCheck.UNRECOGNIZED_ANTLR_ERROR_MESSAGE_KEY;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 import com.puppycrawl.tools.checkstyle.BaseCheckTestSupport;
 import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
 public class AbstractJavadocCheckTest extends BaseCheckTestSupport {
@@ -81,6 +88,85 @@ public class AbstractJavadocCheckTest extends BaseCheckTestSupport {
         verify(checker, getPath("javadoc/InputCorrectJavaDocParagraphCheck.java"), expected);
     }
 
+    @Test
+    public void testVisitAndLeaveTokens() {
+        final DetailAST comment = createComment(2, "* Summary with {@code code}.\n"
+            + " * <p>Paragraph <b>bold</b>.\n * @param name the name {@link Object}\n ");
+        final RecordingCheck check = new RecordingCheck();
+        check.visitToken(comment);
+
+        final List<String> expected = Lists.newArrayList();
+        record(JavadocModel.getParseStatus(comment).getTree(), check.getDefaultJavadocTokens(),
+            expected);
+        assertEquals(expected, check.getEvents());
+    }
+
+    /**
+     * Records the visits and leaves of a walk of all nodes of a tree.
+     * @param node the root of the tree
+     * @param tokenTypes the token types to record
+     * @param events the recorded events
+     */
+    private static void record(DetailNode node, int[] tokenTypes, List<String> events) {
+        final boolean recorded = Ints.contains(tokenTypes, node.getType());
+        if (recorded) {
+            events.add("visit " + node);
+        }
+        for (DetailNode child : node.getChildren()) {
+            record(child, tokenTypes, events);
+        }
+        if (recorded) {
+            events.add("leave " + node);
+        }
+    }
+
+    /**
+     * Creates the block comment node of a Javadoc comment.
+     * @param line the line of the comment
+     * @param text the text of the comment between its delimiters
+     * @return the block comment node
+     */
+    private static DetailAST createComment(int line, String text) {
+        final DetailAST comment = new DetailAST();
+        comment.setType(TokenTypes.BLOCK_COMMENT_BEGIN);
+        comment.setText("/*");
+        comment.setLineNo(line);
+        final DetailAST content = new DetailAST();
+        content.setType(TokenTypes.COMMENT_CONTENT);
+        content.setText(text);
+        content.setLineNo(line);
+        comment.addChild(content);
+        return comment;
+    }
+
+    private static class RecordingCheck extends AbstractJavadocCheck {
+        private final List<String> events = Lists.newArrayList();
+
+        @Override
+        public int[] getDefaultJavadocTokens() {
+            return new int[] {
+                JavadocTokenTypes.PARAGRAPH,
+                JavadocTokenTypes.JAVADOC_TAG,
+                JavadocTokenTypes.CODE_LITERAL,
+                JavadocTokenTypes.LINK_LITERAL,
+            };
+        }
+
+        @Override
+        public void visitJavadocToken(DetailNode ast) {
+            events.add("visit " + ast);
+        }
+
+        @Override
+        public void leaveJavadocToken(DetailNode ast) {
+            events.add("leave " + ast);
+        }
+
+        public List<String> getEvents() {
+            return events;
+        }
+    }
+
     private static class TempCheck extends AbstractJavadocCheck {
 
         @Override
@@ -0,0 +1,123 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtils;
+
+public class JavadocDetailNodeParserTest {
+    private static final String[] COMMENTS = {
+        "* Text with {@code code}.\n * @param name the name\n ",
+        "* <p>Text</q>\n ",
+        "* Text\n * <b>bold\n ",
+        "* Text <br> and <br/>.\n * @return the value\n ",
+        "* Text</p>\n ",
+        "* Summary.\n * <p>Paragraph\n * @see Object\n ",
+    };
+
+    @Test
+    public void testReusedParserGivesSameResults() {
+        JavadocDetailNodeParser.warmUp();
+        JavadocDetailNodeParser.warmUp();
+        final JavadocDetailNodeParser reused = new JavadocDetailNodeParser();
+        for (int i = 0; i < COMMENTS.length; i++) {
+            final DetailAST comment = createComment(i + 1, COMMENTS[i]);
+            final JavadocDetailNodeParser.ParseStatus expected =
+                new JavadocDetailNodeParser().parseJavadocAsDetailNode(comment);
+            final JavadocDetailNodeParser.ParseStatus actual =
+                reused.parseJavadocAsDetailNode(comment);
+            assertStatusEquals(COMMENTS[i], expected, actual);
+        }
+    }
+
+    @Test
+    public void testParseErrors() {
+        final JavadocDetailNodeParser parser = new JavadocDetailNodeParser();
+        final JavadocDetailNodeParser.ParseErrorMessage missedClose =
+            parser.parseJavadocAsDetailNode(createComment(2, COMMENTS[2])).getParseErrorMessage();
+        assertEquals(AbstractJavadocCheck.JAVADOC_MISSED_HTML_CLOSE, missedClose.getMessageKey());
+        assertEquals(3, missedClose.getLineNumber());
+
+        assertNull(parser.parseJavadocAsDetailNode(createComment(1, COMMENTS[0]))
+            .getParseErrorMessage());
+    }
+
+    private static void assertStatusEquals(String comment,
+            JavadocDetailNodeParser.ParseStatus expected,
+            JavadocDetailNodeParser.ParseStatus actual) {
+        if (expected.getParseErrorMessage() == null) {
+            assertNull(comment, actual.getParseErrorMessage());
+            assertEquals(comment, toString(expected.getTree()), toString(actual.getTree()));
+        }
+        else {
+            final JavadocDetailNodeParser.ParseErrorMessage expectedMessage =
+                expected.getParseErrorMessage();
+            final JavadocDetailNodeParser.ParseErrorMessage actualMessage =
+                actual.getParseErrorMessage();
+            assertEquals(comment, expectedMessage.getLineNumber(), actualMessage.getLineNumber());
+            assertEquals(comment, expectedMessage.getMessageKey(), actualMessage.getMessageKey());
+            assertArrayEquals(comment, expectedMessage.getMessageArguments(),
+                actualMessage.getMessageArguments());
+        }
+    }
+
+    /**
+     * Prints a tree with the types, positions and texts of its nodes.
+     * @param root the root of the tree
+     * @return the tree as string
+     */
+    private static String toString(DetailNode root) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(JavadocUtils.getTokenName(root.getType())).append('[')
+            .append(root.getLineNumber()).append(':').append(root.getColumnNumber())
+            .append("] ").append(root.getText()).append('\n');
+        for (DetailNode child : root.getChildren()) {
+            builder.append(toString(child));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates the block comment node of a Javadoc comment.
+     * @param line the line of the comment
+     * @param text the text of the comment between its delimiters
+     * @return the block comment node
+     */
+    private static DetailAST createComment(int line, String text) {
+        final DetailAST comment = new DetailAST();
+        comment.setType(TokenTypes.BLOCK_COMMENT_BEGIN);
+        comment.setText("/*");
+        comment.setLineNo(line);
+        final DetailAST content = new DetailAST();
+        content.setType(TokenTypes.COMMENT_CONTENT);
+        content.setText(text);
+        content.setLineNo(line);
+        comment.addChild(content);
+        return comment;
+    }
+}
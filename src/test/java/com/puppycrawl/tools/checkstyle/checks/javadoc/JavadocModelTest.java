@@ -0,0 +1,127 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.Comment;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+import com.puppycrawl.tools.checkstyle.api.TextBlock;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtils;
+
+public class JavadocModelTest {
+    @Test
+    public void testCommentParsedOnceWhileOpen() {
+        final DetailAST comment = createComment(3, "* Text. ");
+        final DetailAST sameText = createComment(3, "* Text. ");
+        final JavadocModel model = new JavadocModel();
+        model.open();
+        try {
+            final JavadocDetailNodeParser.ParseStatus status =
+                JavadocModel.getParseStatus(comment);
+            assertSame(status, JavadocModel.getParseStatus(comment));
+            assertNotSame(status, JavadocModel.getParseStatus(sameText));
+            assertNull(status.getParseErrorMessage());
+            assertEquals(JavadocTokenTypes.JAVADOC, status.getTree().getType());
+            assertEquals(3, status.getTree().getLineNumber());
+        }
+        finally {
+            model.release();
+        }
+    }
+
+    @Test
+    public void testCommentParsedEachTimeWhenReleased() {
+        final DetailAST comment = createComment(1, "* Text. ");
+        final JavadocModel model = new JavadocModel();
+        model.open();
+        final JavadocDetailNodeParser.ParseStatus status = JavadocModel.getParseStatus(comment);
+        model.release();
+
+        final JavadocDetailNodeParser.ParseStatus released = JavadocModel.getParseStatus(comment);
+        assertNotSame(status, released);
+        assertNotSame(released, JavadocModel.getParseStatus(comment));
+        assertEquals(status.getTree().getText(), released.getTree().getText());
+    }
+
+    @Test
+    public void testParseError() {
+        final DetailAST comment = createComment(5, "* <p>Text</q> ");
+        final JavadocDetailNodeParser.ParseStatus status = JavadocModel.getParseStatus(comment);
+        assertNull(status.getTree());
+        assertNotNull(status.getParseErrorMessage());
+        assertEquals(5, status.getParseErrorMessage().getLineNumber());
+    }
+
+    @Test
+    public void testTagsScannedOnceWhileOpen() {
+        final String[] text = {"/** {@link List}", " * @see Object */"};
+        final TextBlock comment = new Comment(text, 1, 2, text[1].length());
+        final JavadocModel model = new JavadocModel();
+        model.open();
+        try {
+            final JavadocTags tags =
+                JavadocModel.getJavadocTags(comment, JavadocUtils.JavadocTagType.ALL);
+            assertSame(tags,
+                JavadocModel.getJavadocTags(comment, JavadocUtils.JavadocTagType.ALL));
+            assertEquals(2, tags.getValidTags().size());
+            final JavadocTags blockTags =
+                JavadocModel.getJavadocTags(comment, JavadocUtils.JavadocTagType.BLOCK);
+            assertNotSame(tags, blockTags);
+            assertEquals(1, blockTags.getValidTags().size());
+        }
+        finally {
+            model.release();
+        }
+
+        final JavadocTags released =
+            JavadocModel.getJavadocTags(comment, JavadocUtils.JavadocTagType.ALL);
+        assertNotSame(released,
+            JavadocModel.getJavadocTags(comment, JavadocUtils.JavadocTagType.ALL));
+        assertEquals(2, released.getValidTags().size());
+    }
+
+    /**
+     * Creates the block comment node of a Javadoc comment.
+     * @param line the line of the comment
+     * @param text the text of the comment between its delimiters
+     * @return the block comment node
+     */
+    private static DetailAST createComment(int line, String text) {
+        final DetailAST comment = new DetailAST();
+        comment.setType(TokenTypes.BLOCK_COMMENT_BEGIN);
+        comment.setText("/*");
+        comment.setLineNo(line);
+        final DetailAST content = new DetailAST();
+        content.setType(TokenTypes.COMMENT_CONTENT);
+        content.setText(text);
+        content.setLineNo(line);
+        comment.addChild(content);
+        return comment;
+    }
+}
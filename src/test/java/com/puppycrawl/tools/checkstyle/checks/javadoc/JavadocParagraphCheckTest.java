@@ -59,40 +59,40 @@ public class JavadocParagraphCheckTest extends BaseCheckTestSupport {
     @Test
     public void testIncorrect() throws Exception {
         final String[] expected = {
-            "7: " + getCheckMessage(MSG_MISPLACED_TAG),
             "7: " + getCheckMessage(MSG_LINE_BEFORE),
-            "8: " + getCheckMessage(MSG_MISPLACED_TAG),
+            "7: " + getCheckMessage(MSG_MISPLACED_TAG),
             "8: " + getCheckMessage(MSG_LINE_BEFORE),
-            "14: " + getCheckMessage(MSG_MISPLACED_TAG),
+            "8: " + getCheckMessage(MSG_MISPLACED_TAG),
             "14: " + getCheckMessage(MSG_LINE_BEFORE),
+            "14: " + getCheckMessage(MSG_MISPLACED_TAG),
             "16: " + getCheckMessage(MSG_MISPLACED_TAG),
             "23: " + getCheckMessage(MSG_LINE_BEFORE),
             "25: " + getCheckMessage(MSG_MISPLACED_TAG),
-            "32: " + getCheckMessage(MSG_MISPLACED_TAG),
             "32: " + getCheckMessage(MSG_LINE_BEFORE),
+            "32: " + getCheckMessage(MSG_MISPLACED_TAG),
             "32: " + getCheckMessage(MSG_REDUNDANT_PARAGRAPH),
-            "33: " + getCheckMessage(MSG_MISPLACED_TAG),
             "33: " + getCheckMessage(MSG_LINE_BEFORE),
-            "34: " + getCheckMessage(MSG_MISPLACED_TAG),
+            "33: " + getCheckMessage(MSG_MISPLACED_TAG),
             "34: " + getCheckMessage(MSG_LINE_BEFORE),
-            "35: " + getCheckMessage(MSG_MISPLACED_TAG),
+            "34: " + getCheckMessage(MSG_MISPLACED_TAG),
             "35: " + getCheckMessage(MSG_LINE_BEFORE),
-            "39: " + getCheckMessage(MSG_MISPLACED_TAG),
+            "35: " + getCheckMessage(MSG_MISPLACED_TAG),
             "39: " + getCheckMessage(MSG_LINE_BEFORE),
+            "39: " + getCheckMessage(MSG_MISPLACED_TAG),
             "45: " + getCheckMessage(MSG_MISPLACED_TAG),
             "45: " + getCheckMessage(MSG_REDUNDANT_PARAGRAPH),
             "48: " + getCheckMessage(MSG_MISPLACED_TAG),
-            "50: " + getCheckMessage(MSG_MISPLACED_TAG),
             "50: " + getCheckMessage(MSG_LINE_BEFORE),
-            "51: " + getCheckMessage(MSG_MISPLACED_TAG),
+            "50: " + getCheckMessage(MSG_MISPLACED_TAG),
             "51: " + getCheckMessage(MSG_LINE_BEFORE),
+            "51: " + getCheckMessage(MSG_MISPLACED_TAG),
             "61: " + getCheckMessage(MSG_REDUNDANT_PARAGRAPH),
             "62: " + getCheckMessage(MSG_TAG_AFTER),
-            "70: " + getCheckMessage(MSG_MISPLACED_TAG),
             "70: " + getCheckMessage(MSG_LINE_BEFORE),
+            "70: " + getCheckMessage(MSG_MISPLACED_TAG),
             "72: " + getCheckMessage(MSG_MISPLACED_TAG),
-            "75: " + getCheckMessage(MSG_MISPLACED_TAG),
             "75: " + getCheckMessage(MSG_LINE_BEFORE),
+            "75: " + getCheckMessage(MSG_MISPLACED_TAG),
             "81: " + getCheckMessage(MSG_TAG_AFTER),
             "82: " + getCheckMessage(MSG_TAG_AFTER),
         };
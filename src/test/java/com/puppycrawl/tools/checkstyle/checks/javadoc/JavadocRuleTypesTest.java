@@ -0,0 +1,69 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.common.primitives.Ints;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+import com.puppycrawl.tools.checkstyle.grammars.javadoc.JavadocParser;
+
+public class JavadocRuleTypesTest {
+    @Test
+    public void testGetRuleType() {
+        assertEquals(JavadocTokenTypes.JAVADOC,
+            JavadocRuleTypes.getRuleType(JavadocParser.RULE_javadoc));
+        assertEquals(JavadocTokenTypes.HTML_ELEMENT_OPEN,
+            JavadocRuleTypes.getRuleType(JavadocParser.RULE_htmlElementOpen));
+        assertEquals(JavadocTokenTypes.HTML_COMMENT,
+            JavadocRuleTypes.getRuleType(JavadocParser.RULE_htmlComment));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRuleTypeWithoutTokenType() {
+        JavadocRuleTypes.getRuleType(JavadocParser.RULE_wrongSinletonTag);
+    }
+
+    @Test
+    public void testGetParentTypes() {
+        assertArrayEquals(new int[] {JavadocTokenTypes.JAVADOC},
+            JavadocRuleTypes.getParentTypes(JavadocTokenTypes.JAVADOC_TAG));
+        assertArrayEquals(new int[] {JavadocTokenTypes.JAVADOC, JavadocTokenTypes.JAVADOC_TAG},
+            JavadocRuleTypes.getParentTypes(JavadocTokenTypes.PARAM_LITERAL));
+        assertArrayEquals(new int[0], JavadocRuleTypes.getParentTypes());
+
+        final int[] textParents = JavadocRuleTypes.getParentTypes(JavadocTokenTypes.TEXT);
+        assertTrue(Ints.contains(textParents, JavadocTokenTypes.PARAGRAPH));
+        assertTrue(Ints.contains(textParents, JavadocTokenTypes.JAVADOC_INLINE_TAG));
+        assertFalse(Ints.contains(textParents, JavadocTokenTypes.TEXT));
+        assertFalse(Ints.contains(textParents, JavadocTokenTypes.P_TAG_CLOSE));
+
+        final int[] sorted = textParents.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, textParents);
+    }
+}
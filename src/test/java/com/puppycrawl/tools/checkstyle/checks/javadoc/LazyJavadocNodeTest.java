@@ -0,0 +1,82 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.javadoc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+import com.puppycrawl.tools.checkstyle.grammars.javadoc.JavadocLexer;
+import com.puppycrawl.tools.checkstyle.grammars.javadoc.JavadocParser;
+
+public class LazyJavadocNodeTest {
+    @Test
+    public void testRoot() {
+        final DetailNode root = parse("* Text.\n * @return the value\n ", 4);
+        assertEquals(JavadocTokenTypes.JAVADOC, root.getType());
+        assertEquals("JAVADOC[4x0]", root.toString());
+        assertNull(root.getParent());
+        assertEquals(-1, root.getIndex());
+        assertEquals(" Text.\n * @return the value\n <EOF>", root.getText());
+    }
+
+    @Test
+    public void testChildren() {
+        final DetailNode root = parse("* Text.\n * @return the value\n ", 4);
+        final DetailNode[] children = root.getChildren();
+        assertNotSame(children, root.getChildren());
+        assertArrayEquals(children, root.getChildren());
+        for (int i = 0; i < children.length; i++) {
+            assertSame(root, children[i].getParent());
+            assertEquals(i, children[i].getIndex());
+        }
+
+        final DetailNode tag = children[children.length - 2];
+        assertEquals(JavadocTokenTypes.JAVADOC_TAG, tag.getType());
+        assertEquals(5, tag.getLineNumber());
+        assertEquals(3, tag.getColumnNumber());
+        assertEquals("@return the value\n ", tag.getText());
+
+        final DetailNode literal = tag.getChildren()[0];
+        assertEquals(JavadocTokenTypes.RETURN_LITERAL, literal.getType());
+        assertEquals("RETURN_LITERAL[5x3]", literal.toString());
+        assertEquals(0, literal.getChildren().length);
+    }
+
+    /**
+     * Parses a Javadoc comment.
+     * @param text the text of the comment between its delimiters
+     * @param line the line of the comment
+     * @return the root of the tree
+     */
+    private static DetailNode parse(String text, int line) {
+        final JavadocParser parser = new JavadocParser(
+            new CommonTokenStream(new JavadocLexer(new ANTLRInputStream(text.substring(1)))));
+        return new LazyJavadocNode(parser.javadoc(), line);
+    }
+}
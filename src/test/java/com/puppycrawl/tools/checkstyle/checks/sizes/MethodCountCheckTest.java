@@ -79,15 +79,15 @@ public class MethodCountCheckTest extends BaseCheckTestSupport {
         checkConfig.addAttribute("maxTotal", "3");
 
         final String[] expected = {
+            "3: " + getCheckMessage(MSG_MANY_METHODS, 20, 3),
             "3: " + getCheckMessage(MSG_PACKAGE_METHODS, 5, 3),
             "3: " + getCheckMessage(MSG_PRIVATE_METHODS, 5, 3),
             "3: " + getCheckMessage(MSG_PROTECTED_METHODS, 5, 3),
             "3: " + getCheckMessage(MSG_PUBLIC_METHODS, 5, 3),
-            "3: " + getCheckMessage(MSG_MANY_METHODS, 20, 3),
-            "9: " + getCheckMessage(MSG_PUBLIC_METHODS, 5, 3),
             "9: " + getCheckMessage(MSG_MANY_METHODS, 5, 3),
-            "45: " + getCheckMessage(MSG_PUBLIC_METHODS, 5, 3),
+            "9: " + getCheckMessage(MSG_PUBLIC_METHODS, 5, 3),
             "45: " + getCheckMessage(MSG_MANY_METHODS, 5, 3),
+            "45: " + getCheckMessage(MSG_PUBLIC_METHODS, 5, 3),
         };
 
         verify(checkConfig, getPath("sizes/MethodCountCheckInput.java"), expected);
@@ -101,8 +101,8 @@ public class MethodCountCheckTest extends BaseCheckTestSupport {
         checkConfig.addAttribute("maxTotal", "2");
 
         final String[] expected = {
-            "9: " + getCheckMessage(MSG_PRIVATE_METHODS, 1, 0),
             "9: " + getCheckMessage(MSG_MANY_METHODS, 3, 2),
+            "9: " + getCheckMessage(MSG_PRIVATE_METHODS, 1, 0),
         };
 
         verify(checkConfig, getPath("sizes/MethodCountCheckInput2.java"), expected);
@@ -24,10 +24,15 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.SortedSet;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSortedSet;
 import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import nl.jqno.equalsverifier.EqualsVerifier;
 
 /** Tests SuppressElementFilter. */
@@ -79,6 +84,32 @@ public class FilterSetTest {
         assertEquals("size is the same", 1, filterSet.getFilters().size());
     }
 
+    @Test
+    public void testAcceptBatch() {
+        final LocalizedMessage suppressed = new LocalizedMessage(1, 1, "", "", null,
+                SeverityLevel.ERROR, null, getClass(), null);
+        final LocalizedMessage info = new LocalizedMessage(2, 1, "", "", null,
+                SeverityLevel.INFO, null, getClass(), null);
+        final LocalizedMessage error = new LocalizedMessage(3, 1, "", "", null,
+                SeverityLevel.ERROR, null, getClass(), null);
+        final SortedSet<LocalizedMessage> messages =
+                ImmutableSortedSet.of(suppressed, info, error);
+        final SuppressElement element = new SuppressElement("Test");
+        element.setLines("1");
+        final SeverityMatchFilter severityFilter = new SeverityMatchFilter();
+        severityFilter.setAcceptOnMatch(false);
+        severityFilter.setSeverity("info");
+        final FilterSet filterSet = new FilterSet();
+
+        assertEquals(messages, filterSet.accept(this, "Test.java", messages));
+        filterSet.addFilter(element);
+        filterSet.addFilter(severityFilter);
+        assertEquals(ImmutableSortedSet.of(error),
+                filterSet.accept(this, "Test.java", messages));
+        assertEquals(ImmutableSortedSet.of(suppressed, error),
+                filterSet.accept(this, "Other.java", messages));
+    }
+
     @Test
     public void testToString2() {
         FilterSet filterSet = new FilterSet();
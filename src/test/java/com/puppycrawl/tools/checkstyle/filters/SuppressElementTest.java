@@ -21,11 +21,15 @@ package com.puppycrawl.tools.checkstyle.filters;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.SortedSet;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSortedSet;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -158,6 +162,20 @@ public class SuppressElementTest {
         assertFalse(filter.accept(ev));
     }
 
+    @Test
+    public void testDecideBatch() {
+        final LocalizedMessage first =
+            new LocalizedMessage(5, 1, "", "", null, null, getClass(), null);
+        final LocalizedMessage second =
+            new LocalizedMessage(10, 1, "", "", null, null, getClass(), null);
+        final SortedSet<LocalizedMessage> messages = ImmutableSortedSet.of(first, second);
+        filter.setLines("1-9");
+
+        assertEquals(ImmutableSortedSet.of(second), filter.accept(this, "ATest.java", messages));
+        assertSame(messages, filter.accept(this, "T1est", messages));
+        assertSame(messages, filter.accept(this, null, messages));
+    }
+
     @Test
     public void testEquals() {
         final SuppressElement filter2 = new SuppressElement("Test");
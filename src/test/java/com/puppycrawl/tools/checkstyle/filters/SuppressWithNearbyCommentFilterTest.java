@@ -21,9 +21,12 @@ package com.puppycrawl.tools.checkstyle.filters;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 
 import org.apache.commons.beanutils.ConversionException;
 import org.apache.commons.lang3.ArrayUtils;
@@ -38,6 +41,8 @@ import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
@@ -185,6 +190,80 @@ public class SuppressWithNearbyCommentFilterTest
         verifySuppressed(filterConfig, suppressed);
     }
 
+    @Test
+    public void testManyOverlappingTags() {
+        final String[] checks = {"MemberName", "ConstantName"};
+        final List<String> lines = Lists.newArrayList();
+        final List<int[]> ranges = createTags(checks, 500, lines);
+        final SuppressWithNearbyCommentFilter filter = new SuppressWithNearbyCommentFilter();
+        filter.setCommentFormat("SUPPRESS (\\w+) FOR (-?\\d+)");
+        filter.setCheckFormat("$1");
+        filter.setInfluenceFormat("$2");
+        final FileContentsHolder holder = createHolder(lines);
+        try {
+            final Class<?>[] sources = {MemberNameCheck.class, ConstantNameCheck.class};
+            for (int line = 1; line <= lines.size(); line++) {
+                for (int check = 0; check < checks.length; check++) {
+                    boolean suppressed = false;
+                    for (int[] range : ranges) {
+                        suppressed |= range[0] == check && range[1] <= line && line <= range[2];
+                    }
+                    final LocalizedMessage message = new LocalizedMessage(line, 1, null, "msg",
+                        null, SeverityLevel.ERROR, null, sources[check], null);
+                    assertEquals(line + ":" + checks[check], !suppressed,
+                        filter.accept(new AuditEvent(this, "Input.java", message)));
+                }
+            }
+        }
+        finally {
+            holder.destroy();
+        }
+    }
+
+    /**
+     * Adds random comment lines which suppress checks nearby and empty lines.
+     * @param checks the names of the checks
+     * @param lineCount the number of lines to add
+     * @param lines the list to add the lines to
+     * @return the check and the first and last suppressed line of each comment
+     */
+    private static List<int[]> createTags(String[] checks, int lineCount, List<String> lines) {
+        final Random random = new Random(42);
+        final List<int[]> ranges = Lists.newArrayList();
+        for (int line = 1; line <= lineCount; line++) {
+            if (random.nextInt(3) == 0) {
+                final int check = random.nextInt(checks.length);
+                final int influence = random.nextInt(41) - 20;
+                lines.add("// SUPPRESS " + checks[check] + " FOR " + influence);
+                ranges.add(new int[] {check, Math.min(line, line + influence),
+                    Math.max(line, line + influence), });
+            }
+            else {
+                lines.add("");
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Creates a holder of the contents of lines, with their comments reported.
+     * @param lines the lines, which are empty or comments
+     * @return the holder, which has begun its tree
+     */
+    private static FileContentsHolder createHolder(List<String> lines) {
+        final FileContents contents =
+            new FileContents(FileText.fromLines(new File("Input.java"), lines));
+        for (int line = 1; line <= lines.size(); line++) {
+            if (!lines.get(line - 1).isEmpty()) {
+                contents.reportCppComment(line, 0);
+            }
+        }
+        final FileContentsHolder holder = new FileContentsHolder();
+        holder.setFileContents(contents);
+        holder.beginTree(null);
+        return holder;
+    }
+
     @Test
     public void testEqualsAndHashCodeOfTagClass() {
         EqualsVerifier.forClass(SuppressWithNearbyCommentFilter.Tag.class).usingGetClass().verify();
@@ -21,9 +21,12 @@ package com.puppycrawl.tools.checkstyle.filters;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 
 import org.apache.commons.beanutils.ConversionException;
 import org.apache.commons.lang3.ArrayUtils;
@@ -38,6 +41,8 @@ import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
@@ -233,6 +238,87 @@ public class SuppressionCommentFilterTest
         return coll.toArray(new String[coll.size()]);
     }
 
+    @Test
+    public void testManyTags() {
+        final String[] checks = {"MemberName", "ConstantName", "IllegalCatch"};
+        final List<String> lines = Lists.newArrayList();
+        // the state of each check at the start of each line
+        final boolean[][] off = createTags(checks, 500, lines);
+        final SuppressionCommentFilter filter = new SuppressionCommentFilter();
+        filter.setOffCommentFormat("CSOFF (\\w+)");
+        filter.setOnCommentFormat("CSON (\\w+)");
+        filter.setCheckFormat("$1");
+        final FileContentsHolder holder = createHolder(lines);
+        try {
+            final Class<?>[] sources =
+                {MemberNameCheck.class, ConstantNameCheck.class, IllegalCatchCheck.class};
+            for (int line = 1; line <= lines.size(); line++) {
+                for (int check = 0; check < checks.length; check++) {
+                    final LocalizedMessage before = new LocalizedMessage(line, 1, null, "msg",
+                        null, SeverityLevel.ERROR, null, sources[check], null);
+                    final LocalizedMessage after = new LocalizedMessage(line, 10, null, "msg",
+                        null, SeverityLevel.ERROR, null, sources[check], null);
+                    assertEquals(line + ":1 " + checks[check], !off[line][check],
+                        filter.accept(new AuditEvent(this, "Input.java", before)));
+                    assertEquals(line + ":10 " + checks[check], !off[line + 1][check],
+                        filter.accept(new AuditEvent(this, "Input.java", after)));
+                }
+            }
+        }
+        finally {
+            holder.destroy();
+        }
+    }
+
+    /**
+     * Adds lines with random on and off comments for checks.
+     * @param checks the names of the checks
+     * @param lineCount the number of lines to add
+     * @param lines the list to add the lines to
+     * @return whether each check is off at the start of each line
+     */
+    private static boolean[][] createTags(String[] checks, int lineCount, List<String> lines) {
+        final Random random = new Random(42);
+        final int stateCount = lineCount + 2;
+        final boolean[][] off = new boolean[stateCount][checks.length];
+        for (int line = 1; line <= lineCount; line++) {
+            off[line + 1] = off[line].clone();
+            if (random.nextInt(3) == 0) {
+                final int check = random.nextInt(checks.length);
+                final boolean on = random.nextBoolean();
+                String comment = "CSOFF ";
+                if (on) {
+                    comment = "CSON ";
+                }
+                lines.add("int a; // " + comment + checks[check]);
+                off[line + 1][check] = !on;
+            }
+            else {
+                lines.add("int a;");
+            }
+        }
+        return off;
+    }
+
+    /**
+     * Creates a holder of the contents of lines, with their comments reported.
+     * @param lines the lines, with comments at column 7
+     * @return the holder, which has begun its tree
+     */
+    private static FileContentsHolder createHolder(List<String> lines) {
+        final FileContents contents =
+            new FileContents(FileText.fromLines(new File("Input.java"), lines));
+        for (int line = 1; line <= lines.size(); line++) {
+            if (lines.get(line - 1).contains("//")) {
+                contents.reportCppComment(line, 7);
+            }
+        }
+        final FileContentsHolder holder = new FileContentsHolder();
+        holder.setFileContents(contents);
+        holder.beginTree(null);
+        return holder;
+    }
+
     @Test
     public void testEqualsAndHashCodeOfTagClass() {
         EqualsVerifier.forClass(SuppressionCommentFilter.Tag.class).usingGetClass().verify();
@@ -19,11 +19,15 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.util.SortedSet;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSortedSet;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import nl.jqno.equalsverifier.Warning;
 
@@ -47,4 +51,15 @@ public class SuppressionFilterTest {
         Assert.assertTrue(filter.accept(ev));
     }
 
+    @Test
+    public void testAcceptBatch() throws CheckstyleException {
+        SuppressionFilter filter = new SuppressionFilter();
+        filter.setFile("src/test/resources/com/puppycrawl/tools/checkstyle/suppressions_none.xml");
+
+        final SortedSet<LocalizedMessage> messages = ImmutableSortedSet.of(
+                new LocalizedMessage(1, 1, "", "", null, null, getClass(), null));
+
+        Assert.assertSame(messages, filter.accept(this, "ATest.java", messages));
+    }
+
 }
@@ -0,0 +1,120 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SortedSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.checks.coding.EmptyStatementCheck;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocStyleCheck;
+
+public class SuppressionIndexTest {
+    private static final String[] FILE_NAMES = {
+        "src/main/java/Foo.java", "src/test/java/FooTest.java", "Bar.java", null,
+    };
+
+    private final FilterSet filters = new FilterSet();
+
+    @Before
+    public void setUp() {
+        addElement("Foo", "EmptyStatement", null, null, null);
+        addElement("Foo", "JavadocStyleCheck", null, "1-3", null);
+        addElement("Foo", null, "mod", null, "5");
+        addElement("Test\\.java$", "Javadoc", null, null, "1,7");
+        addElement("Test\\.java$", "Javadoc", "javadoc", "4", null);
+        addElement("^src/", "com\\.puppycrawl\\..*Empty", null, "9", null);
+    }
+
+    @Test
+    public void testSameAsFilterSet() {
+        final SuppressionIndex index = new SuppressionIndex(filters);
+        final SortedSet<LocalizedMessage> messages = Sets.newTreeSet();
+        for (int line = 1; line < 10; line++) {
+            for (int column = 1; column < 8; column += 2) {
+                for (String moduleId : new String[] {null, "mod", "javadoc"}) {
+                    messages.add(createMessage(line, column, moduleId, EmptyStatementCheck.class));
+                    messages.add(createMessage(line, column, moduleId, JavadocStyleCheck.class));
+                }
+            }
+        }
+
+        for (String fileName : FILE_NAMES) {
+            final SortedSet<LocalizedMessage> expected = Sets.newTreeSet();
+            for (LocalizedMessage message : messages) {
+                final boolean accepted = filters.accept(new AuditEvent(this, fileName, message));
+                assertEquals(message.getLineNo() + ":" + message.getColumnNo(),
+                        accepted, index.accept(fileName, message));
+                if (accepted) {
+                    expected.add(message);
+                }
+            }
+            assertEquals(fileName, expected, index.accept(fileName, messages));
+        }
+    }
+
+    @Test
+    public void testNoMatchingFile() {
+        final SuppressionIndex index = new SuppressionIndex(filters);
+        final SortedSet<LocalizedMessage> messages =
+                ImmutableSortedSet.of(createMessage(1, 1, null, EmptyStatementCheck.class));
+
+        assertSame(messages, index.accept("Other.java", messages));
+        assertSame(messages, index.accept(null, messages));
+    }
+
+    @Test
+    public void testEmpty() {
+        final SuppressionIndex index = new SuppressionIndex(new FilterSet());
+
+        assertTrue(index.accept("Foo.java",
+                createMessage(1, 1, null, EmptyStatementCheck.class)));
+    }
+
+    private void addElement(String files, String checks, String moduleId, String lines,
+            String columns) {
+        final SuppressElement element = new SuppressElement(files);
+        if (checks != null) {
+            element.setChecks(checks);
+        }
+        if (moduleId != null) {
+            element.setModuleId(moduleId);
+        }
+        element.setLines(lines);
+        element.setColumns(columns);
+        filters.addFilter(element);
+    }
+
+    private static LocalizedMessage createMessage(int line, int column, String moduleId,
+            Class<?> sourceClass) {
+        return new LocalizedMessage(line, column, "", "", null, null, moduleId, sourceClass,
+                null);
+    }
+}
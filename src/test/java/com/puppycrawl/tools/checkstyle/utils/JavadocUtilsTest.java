@@ -132,6 +132,31 @@ public class JavadocUtilsTest {
         assertEquals(1, allTags.getValidTags().size());
     }
 
+    @Test
+    public void testTagsNotFollowedByWhitespace() {
+        final String[] text = {
+            "/** @see",
+            " * @return value */",
+            " ** {@link List}{@code} {@code x",
+            " text {@code x} *",
+        };
+        final Comment comment = new Comment(text, 4, 4, text[3].length());
+        final List<JavadocTag> tags = JavadocUtils.getJavadocTags(
+            comment, JavadocUtils.JavadocTagType.ALL).getValidTags();
+
+        assertEquals(3, tags.size());
+        assertEquals("return", tags.get(0).getTagName());
+        assertEquals("value", tags.get(0).getFirstArg());
+        assertEquals(2, tags.get(0).getLineNo());
+        assertEquals(3, tags.get(0).getColumnNo());
+        assertEquals("link", tags.get(1).getTagName());
+        assertEquals("List", tags.get(1).getFirstArg());
+        assertEquals(4, tags.get(1).getColumnNo());
+        assertEquals("code", tags.get(2).getTagName());
+        assertEquals(4, tags.get(2).getLineNo());
+        assertEquals(7, tags.get(2).getColumnNo());
+    }
+
     @Test
     public void testEmptyBlockComment() {
         final String emptyComment = "";